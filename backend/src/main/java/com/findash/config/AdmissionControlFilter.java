@@ -0,0 +1,151 @@
+package com.findash.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounds how many API requests run against the database at once. A request takes a permit, or waits
+// in a bounded FIFO queue for up to queue-timeout; when the queue is full or the wait runs out it gets
+// 429 with Retry-After instead of tying up a thread until the pool or the client times out.
+// Streamed responses keep their permit until the async body has been written, except those marked
+// LONG_LIVED (event streams, exports), which give it back once the handler has returned.
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // Request attribute set by handlers whose async response stays open indefinitely
+    public static final String LONG_LIVED = AdmissionControlFilter.class.getName() + ".LONG_LIVED";
+
+    private final AdmissionProperties properties;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrent(), true);
+        Gauge.builder("findash.admission.active", permits,
+                        semaphore -> properties.getMaxConcurrent() - semaphore.availablePermits())
+                .register(registry);
+        Gauge.builder("findash.admission.queued", queued, AtomicInteger::get).register(registry);
+        this.rejectedQueueFull = Counter.builder("findash.admission.rejected").tag("reason", "queue_full")
+                .register(registry);
+        this.rejectedTimeout = Counter.builder("findash.admission.rejected").tag("reason", "timeout")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights never touch the database
+        return HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquireNow()) {
+            if (queued.incrementAndGet() > properties.getMaxQueued()) {
+                queued.decrementAndGet();
+                rejectedQueueFull.increment();
+                reject(response);
+                return;
+            }
+            boolean admitted;
+            try {
+                admitted = permits.tryAcquire(properties.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted = false;
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!admitted) {
+                rejectedTimeout.increment();
+                reject(response);
+                return;
+            }
+        }
+
+        Runnable release = releaseOnce();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && request.getAttribute(LONG_LIVED) == null) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    // A free permit, unless requests are queued for it. Timed even with no wait: the untimed tryAcquire
+    // takes a free permit ahead of the queue, even on a fair semaphore
+    private boolean acquireNow() {
+        try {
+            return permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        long retryAfterSeconds = Math.max(1, (properties.getRetryAfter().toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Server busy, retry after " + retryAfterSeconds + "s\"}");
+    }
+
+    // Completion, timeout and error all end the exchange; the release itself runs only once
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the new async cycle so the permit is still released at its end
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
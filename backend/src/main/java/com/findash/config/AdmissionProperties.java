@@ -0,0 +1,56 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Admission limit in front of the API (see AdmissionControlFilter), bound from findash.admission.*.
+// Requests beyond max-concurrent wait in a bounded queue; the rest are shed with 429.
+@ConfigurationProperties(prefix = "findash.admission")
+public class AdmissionProperties {
+
+    // Requests working against the database at once; a few more than the connection pools hold,
+    // so a pool never idles while requests queue
+    private int maxConcurrent = 8;
+
+    // Requests allowed to wait for a slot; beyond this they are rejected immediately
+    private int maxQueued = 200;
+
+    // How long a queued request waits for a slot before it is rejected
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    // Sent as Retry-After on rejected requests
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
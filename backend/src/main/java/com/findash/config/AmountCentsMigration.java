@@ -0,0 +1,57 @@
+package com.findash.config;
+
+import com.findash.repository.TransactionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Moves databases created before amounts were stored as integer cents onto the amount_cents column.
+// Hibernate has already added amount_cents (as 0) and schema.sql has pointed the triggers at it; this
+// copies the old decimal amounts over, drops the old column and recomputes the rollups the copy skewed.
+// Runs during startup, before the server takes requests; a no-op once the old column is gone.
+// After DimensionMigration and RollupRangeMigration, which give the rollup table and triggers the columns
+// they now expect.
+@Component
+@DependsOnDatabaseInitialization
+@DependsOn("rollupRangeMigration")
+public class AmountCentsMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AmountCentsMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public AmountCentsMigration(JdbcTemplate jdbcTemplate, TransactionRollupRepository rollupRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT name FROM pragma_table_info('transactions')", String.class);
+        if (!columns.contains("amount")) {
+            return;
+        }
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE transactions SET amount_cents = CAST(ROUND(amount * 100) AS INTEGER)");
+            jdbcTemplate.execute("ALTER TABLE transactions DROP COLUMN amount");
+            // The rollup update trigger counted every copied amount a second time
+            rollupRepository.rebuild();
+        });
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+        log.info("Moved {} amounts to integer cents in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,66 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Yearly archive partitions for closed periods (see TransactionPartitions and TransactionArchiveService),
+// bound from findash.archive.*. Archived years are always readable; enabled only turns on the
+// background pass that closes and archives old years without an explicit POST /api/archive.
+@ConfigurationProperties(prefix = "findash.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    // Directory of the per-year archive files, relative to the working directory like the database
+    private String directory = "archive";
+
+    // Years kept open in the live table, counting the current one; older years are closed and archived
+    private int openYears = 2;
+
+    // Time between background archive passes; the first runs once the application is ready
+    private Duration interval = Duration.ofDays(1);
+
+    // VACUUM the live database after a pass has moved rows out, so the file shrinks with it
+    private boolean vacuum = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getOpenYears() {
+        return openYears;
+    }
+
+    public void setOpenYears(int openYears) {
+        this.openYears = openYears;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public boolean isVacuum() {
+        return vacuum;
+    }
+
+    public void setVacuum(boolean vacuum) {
+        this.vacuum = vacuum;
+    }
+}
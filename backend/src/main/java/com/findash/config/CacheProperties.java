@@ -0,0 +1,44 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Sizing of the in-process read cache (see TransactionCache), bound from findash.cache.*.
+// Set ttl=0 to effectively turn caching off.
+@ConfigurationProperties(prefix = "findash.cache")
+public class CacheProperties {
+
+    // How long an entry may be served after it was loaded, even if no write invalidated it
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // Entries kept in the single-value regions (transaction by id, summaries)
+    private long maxEntries = 10_000;
+
+    // Transactions kept across all entries of each list region; a list larger than this is never cached
+    private long maxRows = 100_000;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+    }
+}
@@ -1,11 +1,11 @@
 package com.findash.config;
 
+import com.findash.model.Money;
 import com.findash.model.Transaction;
 import com.findash.repository.TransactionRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,14 +41,14 @@ public class DataSeeder implements CommandLineRunner {
         transactionRepository.saveAll(seeds);
     }
 
-    private Transaction buildTransaction(LocalDate date, String description, String category, String merchant, String notes,
+    protected Transaction buildTransaction(LocalDate date, String description, String category, String merchant, String notes,
                                          String type, String paymentMethod, String noteShort, String amount) {
         Transaction t = new Transaction();
         t.setDate(date);
         t.setDescription(description);
         t.setCategory(category);
         t.setMerchant(merchant);
-        t.setAmount(new BigDecimal(amount));
+        t.setAmount(Money.parse(amount));
         t.setType(type);
         t.setPaymentMethod(paymentMethod);
         t.setNotes(notes + (noteShort != null && !noteShort.isEmpty() ? " - " + noteShort : ""));
@@ -0,0 +1,83 @@
+package com.findash.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// SQLite allows one writer at a time, so writes go through a single-connection pool while
+// @Transactional(readOnly = true) methods are routed to a separate pool of query-only connections.
+// In WAL mode those readers never wait on the writer. Both pools are wrapped so every statement is
+// timed by QueryMetricsListener.
+@Configuration
+@EnableConfigurationProperties(SqliteProperties.class)
+public class DataSourceConfig {
+
+    private enum Route { WRITE, READ }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writeDataSource(@Value("${spring.datasource.url}") String url, SqliteProperties sqlite) {
+        HikariDataSource dataSource = newPool("findash-writer", url, sqlite);
+        dataSource.setMaximumPoolSize(1);
+        dataSource.addDataSourceProperty("journal_mode", sqlite.getJournalMode());
+        // Take the write lock at BEGIN instead of upgrading from a read lock mid-transaction
+        dataSource.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readDataSource(@Value("${spring.datasource.url}") String url, SqliteProperties sqlite) {
+        HikariDataSource dataSource = newPool("findash-reader", url, sqlite);
+        dataSource.setMaximumPoolSize(sqlite.getReadPoolSize());
+        dataSource.setConnectionInitSql("PRAGMA query_only = ON");
+        return dataSource;
+    }
+
+    // The read-only flag of the current transaction is only known once it has begun, so the routing
+    // decision is deferred until the first statement actually needs a connection
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource writeDataSource, HikariDataSource readDataSource,
+                                 QueryMetricsListener queryMetricsListener) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+            }
+        };
+        DataSource writer = timed(writeDataSource, queryMetricsListener);
+        routing.setTargetDataSources(Map.of(Route.WRITE, writer, Route.READ, timed(readDataSource, queryMetricsListener)));
+        routing.setDefaultTargetDataSource(writer);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Wraps a pool so its statements are timed; also used for the archive partitions' pools
+    public static DataSource timed(HikariDataSource pool, QueryMetricsListener listener) {
+        return ProxyDataSourceBuilder.create(pool.getPoolName(), pool).listener(listener).build();
+    }
+
+    public static HikariDataSource newPool(String name, String url, SqliteProperties sqlite) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setDriverClassName("org.sqlite.JDBC");
+        dataSource.setMinimumIdle(1);
+        // Pragmas understood by the sqlite-jdbc driver and applied as each connection opens
+        dataSource.addDataSourceProperty("synchronous", sqlite.getSynchronous());
+        dataSource.addDataSourceProperty("mmap_size", String.valueOf(sqlite.getMmapSize()));
+        dataSource.addDataSourceProperty("cache_size", String.valueOf(sqlite.getCacheSize()));
+        dataSource.addDataSourceProperty("temp_store", sqlite.getTempStore());
+        dataSource.addDataSourceProperty("busy_timeout", String.valueOf(sqlite.getBusyTimeoutMs()));
+        return dataSource;
+    }
+}
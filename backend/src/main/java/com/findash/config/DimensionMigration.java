@@ -0,0 +1,112 @@
+package com.findash.config;
+
+import com.findash.model.Dimension;
+import com.findash.repository.TransactionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Moves databases created before the dimension lookup tables onto them. Hibernate has already added
+// the *_id columns (as 0) and schema.sql has created the lookup tables; this fills the lookup tables
+// from the distinct names, points every row at its ids and drops the text columns and the objects
+// built on them. The rollup table, full-text index and triggers are then recreated by running
+// schema.sql again, the rollups rebuilt, and the file vacuumed so the smaller rows shrink it.
+// Runs during startup, before the server takes requests; a no-op once the text columns are gone.
+@Component
+@DependsOnDatabaseInitialization
+public class DimensionMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DimensionMigration.class);
+
+    // Dimension -> the text column in transactions it replaces
+    private static final Map<Dimension, String> COLUMNS = new EnumMap<>(Map.of(
+            Dimension.CATEGORY, "category",
+            Dimension.MERCHANT, "merchant",
+            Dimension.TYPE, "type",
+            Dimension.PAYMENT_METHOD, "payment_method"));
+
+    // Everything that references the text columns, or the old shape of the rollup and full-text tables
+    private static final List<String> OBSOLETE = List.of(
+            "DROP TRIGGER IF EXISTS trg_transactions_rollup_insert",
+            "DROP TRIGGER IF EXISTS trg_transactions_rollup_delete",
+            "DROP TRIGGER IF EXISTS trg_transactions_rollup_update",
+            "DROP TRIGGER IF EXISTS trg_transactions_fts_insert",
+            "DROP TRIGGER IF EXISTS trg_transactions_fts_delete",
+            "DROP TRIGGER IF EXISTS trg_transactions_fts_update",
+            "DROP TABLE IF EXISTS transaction_rollups",
+            "DROP TABLE IF EXISTS transactions_fts",
+            "DROP INDEX IF EXISTS idx_transactions_type_date",
+            "DROP INDEX IF EXISTS idx_transactions_category_key",
+            "DROP INDEX IF EXISTS idx_transactions_merchant_key");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DimensionMigration(JdbcTemplate jdbcTemplate, TransactionRollupRepository rollupRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // table_xinfo rather than table_info, which leaves out generated columns
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT name FROM pragma_table_xinfo('transactions')", String.class);
+        if (!columns.contains("category")) {
+            return;
+        }
+        long started = System.nanoTime();
+        long bytesBefore = databaseBytes();
+        transactionTemplate.executeWithoutResult(status -> {
+            OBSOLETE.forEach(jdbcTemplate::execute);
+            COLUMNS.forEach((dimension, column) -> jdbcTemplate.update("INSERT OR IGNORE INTO " + dimension.table()
+                    + " (name) SELECT " + column + " FROM transactions WHERE " + column + " IS NOT NULL GROUP BY 1"));
+            jdbcTemplate.update("UPDATE transactions SET " + COLUMNS.entrySet().stream()
+                    .map(entry -> entry.getKey().column() + " = (SELECT id FROM " + entry.getKey().table()
+                            + " WHERE name = transactions." + entry.getValue() + ")")
+                    .collect(Collectors.joining(", ")));
+            // Generated columns first: they are computed from the text columns
+            for (String column : List.of("category_key", "merchant_key")) {
+                if (columns.contains(column)) {
+                    jdbcTemplate.execute("ALTER TABLE transactions DROP COLUMN " + column);
+                }
+            }
+            COLUMNS.values().forEach(column -> jdbcTemplate.execute("ALTER TABLE transactions DROP COLUMN " + column));
+            // Recreates the rollup table, full-text index and triggers in their new shape and indexes every row
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+                populator.setSeparator("^;");
+                populator.populate(connection);
+                return null;
+            });
+            rollupRepository.rebuild();
+        });
+        // Outside the transaction: VACUUM cannot run inside one
+        jdbcTemplate.execute("VACUUM");
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+        log.info("Moved {} transactions to dimension lookup tables in {} ms; database {} -> {} bytes",
+                rows, (System.nanoTime() - started) / 1_000_000, bytesBefore, databaseBytes());
+    }
+
+    private long databaseBytes() {
+        Long bytes = jdbcTemplate.queryForObject(
+                "SELECT page_count * page_size FROM pragma_page_count(), pragma_page_size()", Long.class);
+        return bytes != null ? bytes : 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.findash.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+// Hibernate's statistics count flushes but do not time them. Hibernate creates one of these per
+// session (hibernate.session.events.auto); it records into the global registry, which Spring Boot's
+// registry is part of.
+public class HibernateFlushTimer extends BaseSessionEventListener {
+
+    private long flushStartNanos;
+
+    @Override
+    public void flushStart() {
+        flushStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        Timer.builder("hibernate.flush.time")
+                .description("Time spent flushing the persistence context")
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - flushStartNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// Write-behind ingestion for POST /api/transactions (see TransactionIngestService), bound from
+// findash.ingest.*. Off by default: an acknowledged row is durable but only becomes visible to
+// reads once the background writer has committed it.
+@ConfigurationProperties(prefix = "findash.ingest")
+public class IngestProperties {
+
+    private boolean enabled = false;
+
+    // Directory of journal segment files, relative to the working directory like the database
+    private String journalDir = "ingest-journal";
+
+    // A new journal segment is started once the current one reaches this size; segments whose rows
+    // are all durable in SQLite are deleted
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // Most rows written to SQLite in one transaction
+    private int batchSize = 1000;
+
+    // Rows accepted but not yet committed to SQLite; beyond this new rows get 503 with Retry-After
+    private int maxPending = 50_000;
+
+    // Ids reserved from id_allocator at a time, so accepting a row rarely touches the database
+    private int idBlockSize = 1000;
+
+    // Sent as Retry-After when the pending limit is reached
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public DataSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(DataSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    public void setIdBlockSize(int idBlockSize) {
+        this.idBlockSize = idBlockSize;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,16 @@
+package com.findash.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics are exposed at /actuator/prometheus; see the management.* and findash.metrics.* properties
+@Configuration
+public class MetricsConfig {
+
+    // Statement shapes are bounded by the code, but a runaway dynamic query must not create unbounded series
+    @Bean
+    public MeterFilter queryShapeLimit() {
+        return MeterFilter.maximumAllowableTags(QueryMetricsListener.METRIC_NAME, "query", 500, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,56 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Server-sent change events on /api/transactions/events (see TransactionChangeBroadcaster), bound
+// from findash.push.*.
+@ConfigurationProperties(prefix = "findash.push")
+public class PushProperties {
+
+    // Open event streams; further subscribers get 503
+    private int maxSubscribers = 1000;
+
+    // Messages buffered per subscriber; one that falls this far behind is disconnected and resumes
+    // with Last-Event-ID
+    private int bufferSize = 256;
+
+    // Comment sent to every subscriber when nothing else was, so dead connections are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    // Streams are closed after this long; EventSource reconnects and resumes from its last event
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
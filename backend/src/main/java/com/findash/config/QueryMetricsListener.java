@@ -0,0 +1,130 @@
+package com.findash.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Times every JDBC statement on both pools, whether it came from Hibernate or a JdbcTemplate.
+// Each distinct statement shape gets its own findash.db.query timer (tagged with the normalized SQL
+// and the pool), so a latency percentile can be traced to the query behind it. Statements slower
+// than findash.metrics.slow-query-threshold are also logged with their parameters.
+@Component
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    public static final String METRIC_NAME = "findash.db.query";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.findash.slowquery");
+
+    private static final String START_NANOS = "findash.startNanos";
+    private static final int MAX_TAG_LENGTH = 300;
+    private static final int MAX_CACHED_SHAPES = 2000;
+    private static final int MAX_LOGGED_PARAMETERS = 20;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    // Placeholder lists: IN (?, ?, ?) and each row of a multi-row INSERT
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\(\\?\\.\\.\\.\\))(?:, ?\\(\\?\\.\\.\\.\\))+");
+
+    private final MeterRegistry registry;
+    private final Duration slowQueryThreshold;
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(MeterRegistry registry,
+                                @Value("${findash.metrics.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+        this.registry = registry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (startNanos == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        String sql = queryInfoList.get(0).getQuery();
+
+        Timer.builder(METRIC_NAME)
+                .description("JDBC statement execution time by statement shape")
+                .tag("query", shape(sql))
+                .tag("pool", String.valueOf(execInfo.getDataSourceName()))
+                .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowQueryThreshold.toNanos() && slowQueryLog.isWarnEnabled()) {
+            slowQueryLog.warn("{} ms on {}{}: {} {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    execInfo.getDataSourceName(), currentRequest(), WHITESPACE.matcher(sql).replaceAll(" "),
+                    parameters(queryInfoList.get(0)));
+        }
+    }
+
+    // SQL with literals and placeholder lists collapsed, so every execution of a statement maps to one timer
+    static String normalize(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("(?...)");
+        shape = REPEATED_ROWS.matcher(shape).replaceAll("$1, ...");
+        return shape.length() > MAX_TAG_LENGTH ? shape.substring(0, MAX_TAG_LENGTH) : shape;
+    }
+
+    private String shape(String sql) {
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            if (shapes.size() < MAX_CACHED_SHAPES) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private static String parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return "";
+        }
+        List<ParameterSetOperation> operations = query.getParametersList().get(0);
+        String shown = operations.stream()
+                .limit(MAX_LOGGED_PARAMETERS)
+                .map(operation -> operation.getArgs().length > 1 ? String.valueOf(operation.getArgs()[1]) : "")
+                .collect(Collectors.joining(", ", "[", operations.size() > MAX_LOGGED_PARAMETERS ? ", ...]" : "]"));
+        return "params=" + shown;
+    }
+
+    private static String currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return " for " + request.getMethod() + " " + request.getRequestURI();
+        }
+        return "";
+    }
+}
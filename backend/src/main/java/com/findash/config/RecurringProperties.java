@@ -0,0 +1,44 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Period;
+
+// Recurring-transaction detection (see RecurringDetector), bound from findash.recurring.*. Memory grows
+// with the number of merchant, type and amount-band combinations times the window, not with history.
+@ConfigurationProperties(prefix = "findash.recurring")
+public class RecurringProperties {
+
+    // Most recent occurrences kept per merchant, type and amount band; a series is detected from these
+    private int window = 24;
+
+    // Fewest occurrences that make a series
+    private int minOccurrences = 3;
+
+    // History read when the detector loads; enough for three occurrences of a yearly series
+    private Period lookback = Period.ofYears(3);
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+
+    public int getMinOccurrences() {
+        return minOccurrences;
+    }
+
+    public void setMinOccurrences(int minOccurrences) {
+        this.minOccurrences = minOccurrences;
+    }
+
+    public Period getLookback() {
+        return lookback;
+    }
+
+    public void setLookback(Period lookback) {
+        this.lookback = lookback;
+    }
+}
@@ -0,0 +1,63 @@
+package com.findash.config;
+
+import com.findash.repository.TransactionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Gives databases created before rollup buckets kept their amount range the min_cents and max_cents
+// columns: the rollup table is recreated by running schema.sql again (every other statement in it is
+// idempotent) and its buckets rebuilt, archived years included. Runs during startup, before the server
+// takes requests; a no-op once the columns exist. After DimensionMigration, which recreates the table
+// in this shape itself.
+@Component
+@DependsOnDatabaseInitialization
+@DependsOn("dimensionMigration")
+public class RollupRangeMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRangeMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RollupRangeMigration(JdbcTemplate jdbcTemplate, TransactionRollupRepository rollupRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT name FROM pragma_table_info('transaction_rollups')", String.class);
+        if (columns.contains("min_cents")) {
+            return;
+        }
+        long started = System.nanoTime();
+        int buckets = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_rollups");
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+                populator.setSeparator("^;");
+                populator.populate(connection);
+                return null;
+            });
+            return rollupRepository.rebuild();
+        });
+        log.info("Added amount ranges to {} rollup buckets in {} ms", buckets,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,33 @@
+package com.findash.config;
+
+import com.findash.dto.RollupCheckResult;
+import com.findash.service.RollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Rebuilds rollups at startup when run with --findash.rollups.rebuild-on-startup=true
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "findash.rollups.rebuild-on-startup", havingValue = "true")
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRebuildRunner.class);
+
+    private final RollupService rollupService;
+
+    public RollupRebuildRunner(RollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        RollupCheckResult result = rollupService.rebuild();
+        log.info("Rebuilt {} rollup buckets in {} ms ({} were out of date)",
+                result.rebuiltBuckets(), result.elapsedMs(), result.mismatchedBuckets());
+    }
+}
@@ -0,0 +1,30 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// In-memory columnar copy of the transactions table for aggregates (see TransactionSnapshot),
+// bound from findash.snapshot.*. Off by default: it holds roughly 50 bytes per row on the heap.
+@ConfigurationProperties(prefix = "findash.snapshot")
+public class SnapshotProperties {
+
+    private boolean enabled = false;
+
+    // Rows scanned per fork-join task; tables smaller than this are scanned on the calling thread
+    private int segmentSize = 64 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+}
@@ -0,0 +1,86 @@
+package com.findash.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// SQLite performance profile, bound from findash.sqlite.* and applied to every pooled connection.
+// Defaults favour concurrent reads during bulk writes; set journal-mode=DELETE and synchronous=FULL
+// to get SQLite's stock behaviour back.
+@ConfigurationProperties(prefix = "findash.sqlite")
+public class SqliteProperties {
+
+    // WAL lets readers proceed while a write transaction is open
+    private String journalMode = "WAL";
+
+    // NORMAL is crash-safe in WAL mode and skips the fsync on every commit
+    private String synchronous = "NORMAL";
+
+    // Bytes of the database file to memory-map (0 disables mmap)
+    private long mmapSize = 256L * 1024 * 1024;
+
+    // Page cache per connection; negative values are KiB, positive values are pages
+    private int cacheSize = -64 * 1024;
+
+    private String tempStore = "MEMORY";
+
+    // How long a connection waits on a locked database before failing with SQLITE_BUSY
+    private int busyTimeoutMs = 5000;
+
+    // Readers each hold their own connection; all writes share a single connection
+    private int readPoolSize = 4;
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(String journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(String synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public void setTempStore(String tempStore) {
+        this.tempStore = tempStore;
+    }
+
+    public int getBusyTimeoutMs() {
+        return busyTimeoutMs;
+    }
+
+    public void setBusyTimeoutMs(int busyTimeoutMs) {
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    public int getReadPoolSize() {
+        return readPoolSize;
+    }
+
+    public void setReadPoolSize(int readPoolSize) {
+        this.readPoolSize = readPoolSize;
+    }
+}
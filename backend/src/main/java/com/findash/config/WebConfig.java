@@ -1,10 +1,15 @@
 package com.findash.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
 public class WebConfig implements WebMvcConfigurer {
     
     @Override
@@ -13,6 +18,18 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Let browser code read the change version for ?since= delta requests
+                .exposedHeaders("ETag")
                 .allowCredentials(true);
     }
+    
+    // Admission limit for the API only; actuator endpoints stay reachable while the API sheds load
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties,
+                                                                                 MeterRegistry registry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, registry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
 }
@@ -0,0 +1,59 @@
+package com.findash.controller;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.TimeSeries;
+import com.findash.dto.TimeSeriesInterval;
+import com.findash.dto.TransactionFormat;
+import com.findash.service.AnalyticsService;
+import com.findash.service.TransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    // Bucketed totals with running balance and moving averages,
+    // e.g. ?interval=week&startDate=2025-01-01&endDate=2025-06-30&groupBy=category&window=4
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeries> getTimeSeries(
+            @RequestParam(defaultValue = "month") String interval,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(defaultValue = "3") int window,
+            WebRequest request) {
+        boolean byCategory = false;
+        if (groupBy != null) {
+            for (String value : groupBy) {
+                if (AggregateDimension.fromParam(value) != AggregateDimension.CATEGORY) {
+                    throw new IllegalArgumentException("Time series can only be broken down by category");
+                }
+                byCategory = true;
+            }
+        }
+        String etag = TransactionFormat.JSON.etag(transactionService.getChangeVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(analyticsService.getTimeSeries(TimeSeriesInterval.fromParam(interval),
+                        startDate != null ? LocalDate.parse(startDate) : null,
+                        endDate != null ? LocalDate.parse(endDate) : null,
+                        category, byCategory, window));
+    }
+}
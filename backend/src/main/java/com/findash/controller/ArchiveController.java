@@ -0,0 +1,30 @@
+package com.findash.controller;
+
+import com.findash.dto.ArchivePartition;
+import com.findash.service.TransactionArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ArchiveController {
+    
+    @Autowired
+    private TransactionArchiveService archiveService;
+    
+    // List closed years, archived or waiting to be moved
+    @GetMapping
+    public ResponseEntity<List<ArchivePartition>> getPartitions() {
+        return ResponseEntity.ok(archiveService.getPartitions());
+    }
+    
+    // Close and archive every year before the open ones now; returns the years archived
+    @PostMapping
+    public ResponseEntity<List<ArchivePartition>> archiveClosedYears() {
+        return ResponseEntity.ok(archiveService.archiveClosedYears());
+    }
+}
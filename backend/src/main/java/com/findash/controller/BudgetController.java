@@ -0,0 +1,72 @@
+package com.findash.controller;
+
+import com.findash.dto.BudgetStatus;
+import com.findash.model.BudgetGoal;
+import com.findash.service.BudgetService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/budgets")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BudgetController {
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    // Get all budget goals with their category limits
+    @GetMapping
+    public ResponseEntity<List<BudgetGoal>> getAllGoals() {
+        return ResponseEntity.ok(budgetService.getAllGoals());
+    }
+    
+    // Spend against each category limit and savings progress for every goal, e.g. ?month=2025-06
+    // (default: the current month)
+    @GetMapping("/status")
+    public ResponseEntity<List<BudgetStatus>> getStatuses(@RequestParam(required = false) String month) {
+        return ResponseEntity.ok(budgetService.getStatuses(month != null ? YearMonth.parse(month) : null));
+    }
+    
+    // Get budget goal by ID
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetGoal> getGoalById(@PathVariable Long id) {
+        return budgetService.getGoalById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Create new budget goal
+    @PostMapping
+    public ResponseEntity<BudgetGoal> createGoal(@Valid @RequestBody BudgetGoal goal) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(budgetService.createGoal(goal));
+    }
+    
+    // Update budget goal, replacing its category limits
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetGoal> updateGoal(@PathVariable Long id, @Valid @RequestBody BudgetGoal goal) {
+        if (budgetService.getGoalById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(budgetService.updateGoal(id, goal));
+    }
+    
+    // Delete budget goal
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> deleteGoal(@PathVariable Long id) {
+        if (budgetService.getGoalById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        budgetService.deleteGoal(id);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Budget goal deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,31 @@
+package com.findash.controller;
+
+import com.findash.dto.CacheRegionStats;
+import com.findash.service.TransactionCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CacheController {
+    
+    @Autowired
+    private TransactionCache transactionCache;
+    
+    // Hit, miss, eviction and invalidation counters per cache region
+    @GetMapping
+    public ResponseEntity<List<CacheRegionStats>> getStats() {
+        return ResponseEntity.ok(transactionCache.stats());
+    }
+    
+    // Drop every cached entry, e.g. after editing the database by hand
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        transactionCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.findash.controller;
+
+import com.findash.dto.CashFlowForecast;
+import com.findash.dto.RecurringSeries;
+import com.findash.service.RecurringService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/recurring")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RecurringController {
+    
+    // Seconds a client should wait while the detector reads history after startup
+    private static final String LOADING_RETRY_AFTER = "5";
+    
+    @Autowired
+    private RecurringService recurringService;
+    
+    // Active recurring series; ?all=true includes those that have stopped
+    @GetMapping
+    public ResponseEntity<List<RecurringSeries>> getSeries(@RequestParam(defaultValue = "false") boolean all) {
+        return okOrLoading(recurringService.getSeries(all));
+    }
+    
+    // Projected recurring cash flow per month, e.g. ?months=12
+    @GetMapping("/forecast")
+    public ResponseEntity<CashFlowForecast> getForecast(@RequestParam(defaultValue = "6") int months) {
+        return okOrLoading(recurringService.getForecast(months));
+    }
+    
+    private static <T> ResponseEntity<T> okOrLoading(Optional<T> body) {
+        return body.map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, LOADING_RETRY_AFTER)
+                        .build());
+    }
+}
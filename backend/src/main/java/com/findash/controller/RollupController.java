@@ -0,0 +1,52 @@
+package com.findash.controller;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.RollupCheckResult;
+import com.findash.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/rollups")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RollupController {
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    // Get monthly/category totals from the rollup table, e.g. ?groupBy=category,month&startMonth=2025-01
+    @GetMapping
+    public ResponseEntity<List<AggregateRow>> getTotals(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) String startMonth,
+            @RequestParam(required = false) String endMonth,
+            @RequestParam(required = false) String category) {
+        Set<AggregateDimension> dimensions = EnumSet.noneOf(AggregateDimension.class);
+        if (groupBy != null) {
+            groupBy.forEach(value -> dimensions.add(AggregateDimension.fromParam(value)));
+        }
+        return ResponseEntity.ok(rollupService.getTotals(dimensions,
+                startMonth != null ? YearMonth.parse(startMonth) : null,
+                endMonth != null ? YearMonth.parse(endMonth) : null,
+                category));
+    }
+    
+    // Check rollups against the transactions table
+    @GetMapping("/verify")
+    public ResponseEntity<RollupCheckResult> verify() {
+        return ResponseEntity.ok(rollupService.verify());
+    }
+    
+    // Recompute all rollups from the transactions table
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupCheckResult> rebuild() {
+        return ResponseEntity.ok(rollupService.rebuild());
+    }
+}
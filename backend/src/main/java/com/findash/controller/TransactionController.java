@@ -1,31 +1,175 @@
 package com.findash.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.findash.config.AdmissionControlFilter;
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.BatchRequest;
+import com.findash.dto.BatchResult;
+import com.findash.dto.BulkDeleteRequest;
+import com.findash.dto.BulkResult;
+import com.findash.dto.BulkUpdateRequest;
+import com.findash.dto.ExportFormat;
+import com.findash.dto.ImportResult;
+import com.findash.dto.SearchPage;
+import com.findash.dto.TransactionDelta;
+import com.findash.dto.TransactionField;
+import com.findash.dto.TransactionFormat;
+import com.findash.dto.TransactionPage;
+import com.findash.dto.TransactionSummary;
 import com.findash.model.Transaction;
+import com.findash.service.TransactionBatchService;
+import com.findash.service.TransactionChangeBroadcaster;
+import com.findash.service.TransactionColumns;
+import com.findash.service.TransactionExportService;
+import com.findash.service.TransactionImportService;
+import com.findash.service.TransactionIngestService;
 import com.findash.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/transactions")
 @CrossOrigin(origins = "http://localhost:3000")
 public class TransactionController {
     
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    
     @Autowired
     private TransactionService transactionService;
     
-    // Get all transactions
+    @Autowired
+    private TransactionImportService importService;
+    
+    @Autowired
+    private TransactionBatchService batchService;
+    
+    // Present only with findash.ingest.enabled=true
+    @Autowired(required = false)
+    private TransactionIngestService ingestService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionChangeBroadcaster changeBroadcaster;
+    
+    @Autowired
+    private TransactionExportService exportService;
+    
+    // Get all transactions, streamed row by row from a database cursor. Accept selects the JSON array
+    // (default) or a columnar format; ?fields=id,date,amount limits the properties sent.
+    // Answers If-None-Match with 304 while nothing has changed.
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<StreamingResponseBody> getAllTransactions(
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request) {
+        return respond(request, fields, transactionService::streamTransactions);
+    }
+    
+    // Get rows inserted, updated or deleted after a change version (e.g. the ETag of an earlier response)
+    @GetMapping(params = "since")
+    public ResponseEntity<TransactionDelta> getChangesSince(@RequestParam long since) {
+        return ResponseEntity.ok(transactionService.getChangesSince(since));
+    }
+    
+    // Stream committed changes as server-sent events (see TransactionChangeBroadcaster); an EventSource
+    // reconnecting with Last-Event-ID is first sent what it missed
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        // Open for as long as the client listens, so it must not hold an admission permit meanwhile
+        request.setAttribute(AdmissionControlFilter.LONG_LIVED, Boolean.TRUE);
+        return changeBroadcaster.subscribe(lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+    
+    // Download transactions as CSV (default) or XLSX, optionally within a date range and category,
+    // written while they are read from the database; gzip=true sends a CSV as transactions.csv.gz
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        String fileName = exportFormat.fileName(gzip);
+        AggregateFilter filter = toFilter(startDate, endDate, category);
+        if (!exportService.tryStart()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        // Written for as long as the client downloads; the export slot bounds it instead of an admission permit
+        request.setAttribute(AdmissionControlFilter.LONG_LIVED, Boolean.TRUE);
+        ContentDisposition disposition = ContentDisposition.attachment().filename(fileName).build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType(gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(out -> {
+                    try {
+                        exportService.export(exportFormat, filter, gzip, out);
+                    } finally {
+                        exportService.finished();
+                    }
+                });
+    }
+    
+    // Get one keyset page of transactions; pass the returned nextCursor to fetch the following page
+    @GetMapping(params = "limit")
+    public ResponseEntity<TransactionPage> getTransactionPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(transactionService.getTransactionPage(cursor, limit));
+    }
+    
+    // Stream all transactions as newline-delimited JSON, one row per line
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        StreamingResponseBody body = out -> writeTransactions(out, objectMapper.writer().withRootValueSeparator("\n"), false,
+                transactionService::streamTransactions);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .cacheControl(CacheControl.noCache()).body(body);
     }
     
     // Get transaction by ID
@@ -36,37 +180,68 @@ public class TransactionController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    // Create new transaction
+    // Create new transaction. With write-behind ingestion the row is acknowledged with 202 once it is
+    // in the journal, shortly before reads can see it.
     @PostMapping
     public ResponseEntity<Transaction> createTransaction(@Valid @RequestBody Transaction transaction) {
+        if (ingestService != null) {
+            try {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ingestService.submit(transaction));
+            } catch (TransactionIngestService.QueueFullException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                        .build();
+            }
+        }
         Transaction created = transactionService.createTransaction(transaction);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    // Bulk import a CSV (with header row) or NDJSON statement file
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResult> importTransactions(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        TransactionImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? TransactionImportService.Format.CSV
+                : TransactionImportService.Format.NDJSON;
+        return ResponseEntity.ok(importService.importTransactions(body, format));
+    }
+    
     // Update transaction
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(
             @PathVariable Long id,
             @Valid @RequestBody Transaction transactionDetails) {
-        try {
-            Transaction updated = transactionService.updateTransaction(id, transactionDetails);
-            return ResponseEntity.ok(updated);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        return ResponseEntity.ok(transactionService.updateTransaction(id, transactionDetails));
     }
     
     // Delete transaction
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteTransaction(@PathVariable Long id) {
-        try {
-            transactionService.deleteTransaction(id);
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Transaction deleted successfully");
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        transactionService.deleteTransaction(id);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Transaction deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+    
+    // Delete many transactions in one transaction; ids that do not exist are skipped
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkResult> deleteTransactions(@RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(batchService.deleteTransactions(request.ids()));
+    }
+    
+    // Set fields on every matching transaction, e.g. {"where":{"merchant":"Uber"},"set":{"category":"Transportation"}}
+    @PostMapping("/bulk-update")
+    public ResponseEntity<BulkResult> updateTransactions(@RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.ok(batchService.updateTransactions(request.where(), request.set()));
+    }
+    
+    // Apply create/update/delete/patch operations in order, all or nothing
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> applyBatch(@RequestBody BatchRequest request) {
+        return ResponseEntity.ok(batchService.applyBatch(request.operations()));
     }
     
     // Get transactions by type
@@ -83,25 +258,152 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
     
-    // Get transactions by date range
+    // Full-text search over description, merchant and notes, optionally filtered by type and date range
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(transactionService.search(q, type,
+                startDate != null ? LocalDate.parse(startDate) : null,
+                endDate != null ? LocalDate.parse(endDate) : null,
+                page, size));
+    }
+    
+    // Get transactions whose merchant starts with the given text (case-insensitive)
+    @GetMapping("/merchant/{prefix}")
+    public ResponseEntity<List<Transaction>> getTransactionsByMerchantPrefix(@PathVariable String prefix) {
+        List<Transaction> transactions = transactionService.getTransactionsByMerchantPrefix(prefix);
+        return ResponseEntity.ok(transactions);
+    }
+    
+    // Get transactions by date range, in the format and with the fields negotiated as for the full list
     @GetMapping("/date-range")
-    public ResponseEntity<List<Transaction>> getTransactionsByDateRange(
+    public ResponseEntity<StreamingResponseBody> getTransactionsByDateRange(
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest request) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(start, end);
-        return ResponseEntity.ok(transactions);
+        return respond(request, fields,
+                consumer -> transactionService.getTransactionsByDateRange(start, end).forEach(consumer));
     }
     
-    // Get summary/statistics
+    // Get summary/statistics, optionally restricted to a date range and category
     @GetMapping("/summary")
-    public ResponseEntity<Map<String, Object>> getSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalIncome", transactionService.getTotalByType("Income"));
-        summary.put("totalExpense", transactionService.getTotalByType("Expense"));
-        summary.put("balance", 
-            transactionService.getTotalByType("Income") - transactionService.getTotalByType("Expense"));
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<TransactionSummary> getSummary(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category,
+            WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(transactionService.getSummary(toFilter(startDate, endDate, category)));
+    }
+    
+    // Get grouped aggregates, e.g. ?groupBy=category,month&startDate=2025-01-01&endDate=2025-12-31
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<AggregateRow>> getAggregates(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String category) {
+        Set<AggregateDimension> dimensions = EnumSet.noneOf(AggregateDimension.class);
+        if (groupBy != null) {
+            groupBy.forEach(value -> dimensions.add(AggregateDimension.fromParam(value)));
+        }
+        return ResponseEntity.ok(transactionService.getAggregates(dimensions, toFilter(startDate, endDate, category)));
+    }
+    
+    // Strong ETag naming the change version; checkNotModified also writes it to the response. Read before
+    // the data, so a tag is never newer than the body it labels; at worst a client refetches data it had.
+    private String changeVersionTag() {
+        return TransactionFormat.JSON.etag(transactionService.getChangeVersion());
+    }
+    
+    // Writes a transaction list in the representation the client accepts. The ETag carries a format
+    // suffix and the response varies by Accept, so caches never answer one format with another.
+    private ResponseEntity<StreamingResponseBody> respond(WebRequest request, List<String> fieldParams,
+                                                          Consumer<Consumer<Transaction>> source) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        List<MediaType> accepted = accept != null ? new ArrayList<>(MediaType.parseMediaTypes(accept)) : new ArrayList<>();
+        MimeTypeUtils.sortBySpecificity(accepted);
+        TransactionFormat format = TransactionFormat.negotiate(accepted);
+        Set<TransactionField> fields = TransactionField.fromParams(fieldParams);
+        
+        if (request.checkNotModified(format.etag(transactionService.getChangeVersion()))) {
+            return null;
+        }
+        StreamingResponseBody body = switch (format) {
+            case JSON -> fieldParams == null || fieldParams.isEmpty()
+                    ? out -> writeTransactions(out, objectMapper.writer(), true, source)
+                    : out -> writeProjected(out, fields, source);
+            case COLUMNAR_JSON -> out -> {
+                try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                    collectColumns(fields, source).writeJson(generator);
+                }
+            };
+            case COLUMNAR_BINARY -> out -> collectColumns(fields, source).writeBinary(out);
+        };
+        return ResponseEntity.ok().contentType(format.getMediaType())
+                .cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+    
+    private TransactionColumns collectColumns(Set<TransactionField> fields, Consumer<Consumer<Transaction>> source) {
+        TransactionColumns columns = new TransactionColumns(fields);
+        source.accept(columns::add);
+        return columns;
+    }
+    
+    private AggregateFilter toFilter(String startDate, String endDate, String category) {
+        return new AggregateFilter(
+                startDate != null ? LocalDate.parse(startDate) : null,
+                endDate != null ? LocalDate.parse(endDate) : null,
+                category);
+    }
+    
+    private void writeTransactions(OutputStream out, ObjectWriter writer, boolean asArray,
+                                   Consumer<Consumer<Transaction>> source) throws IOException {
+        ObjectWriter streamWriter = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (SequenceWriter sequence = asArray ? streamWriter.writeValuesAsArray(out) : streamWriter.writeValues(out)) {
+            source.accept(transaction -> {
+                try {
+                    sequence.write(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        if (!asArray) {
+            // NDJSON: every record, including the last, is newline-terminated
+            out.write('\n');
+        }
+    }
+    
+    // JSON array of objects holding only the requested fields, serialized as the entity would
+    private void writeProjected(OutputStream out, Set<TransactionField> fields,
+                                Consumer<Consumer<Transaction>> source) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            source.accept(transaction -> {
+                try {
+                    generator.writeStartObject();
+                    for (TransactionField field : fields) {
+                        generator.writeObjectField(field.getParam(), field.valueOf(transaction));
+                    }
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
     }
 }
@@ -0,0 +1,18 @@
+package com.findash.dto;
+
+import java.util.Locale;
+
+// Optional grouping dimensions for transaction aggregates, in addition to type.
+public enum AggregateDimension {
+    CATEGORY,
+    MERCHANT,
+    MONTH;
+
+    public static AggregateDimension fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported groupBy dimension: " + value);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.findash.dto;
+
+import java.time.LocalDate;
+
+// Optional restrictions applied before aggregating; null fields are ignored.
+// Dates are inclusive, category matches case-insensitively.
+public record AggregateFilter(LocalDate startDate, LocalDate endDate, String category) {
+
+    public static final AggregateFilter NONE = new AggregateFilter(null, null, null);
+}
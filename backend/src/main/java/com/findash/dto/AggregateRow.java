@@ -0,0 +1,65 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.findash.model.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One group of an aggregate query. Dimensions that were not grouped on are null and omitted from JSON.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AggregateRow(
+        String type,
+        String category,
+        String merchant,
+        String month,
+        long count,
+        Money total,
+        Money min,
+        Money max,
+        Money average) {
+
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    // Order of the grouped dimensions' names, as an ORDER BY over the name columns would give
+    public static final Comparator<AggregateRow> ORDER = Comparator
+            .comparing(AggregateRow::type, NULLS_FIRST)
+            .thenComparing(AggregateRow::category, NULLS_FIRST)
+            .thenComparing(AggregateRow::merchant, NULLS_FIRST)
+            .thenComparing(AggregateRow::month, NULLS_FIRST);
+
+    // Combines two aggregates over disjoint sets of rows, such as the live table and an archived year:
+    // counts and totals of the same group add up, min and max widen and the average is recomputed
+    public static List<AggregateRow> merge(List<AggregateRow> first, List<AggregateRow> second) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        Map<List<String>, AggregateRow> groups = new LinkedHashMap<>();
+        for (AggregateRow row : first) {
+            groups.put(row.key(), row);
+        }
+        for (AggregateRow row : second) {
+            groups.merge(row.key(), row, AggregateRow::combine);
+        }
+        List<AggregateRow> merged = new ArrayList<>(groups.values());
+        merged.sort(ORDER);
+        return merged;
+    }
+
+    private List<String> key() {
+        return Arrays.asList(type, category, merchant, month);
+    }
+
+    private static AggregateRow combine(AggregateRow a, AggregateRow b) {
+        long count = a.count + b.count;
+        Money total = a.total.plus(b.total);
+        return new AggregateRow(a.type, a.category, a.merchant, a.month, count, total,
+                a.min == null || (b.min != null && b.min.compareTo(a.min) < 0) ? b.min : a.min,
+                a.max == null || (b.max != null && b.max.compareTo(a.max) > 0) ? b.max : a.max,
+                total.dividedBy(count));
+    }
+}
@@ -0,0 +1,29 @@
+package com.findash.dto;
+
+import java.time.LocalDate;
+
+// One closed year of transactions, covering dates in [startDate, endDate). Once archived its rows live
+// in their own read-only file and rowCount, firstId and lastId are set; until then (closed, not yet
+// moved) they are still in the live table and all three are null.
+public record ArchivePartition(
+        String name,
+        LocalDate startDate,
+        LocalDate endDate,
+        String file,
+        Long rowCount,
+        Long firstId,
+        Long lastId) {
+
+    public boolean isArchived() {
+        return rowCount != null;
+    }
+
+    // Whether any date in [from, to] falls in the partition; null bounds are open
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return (from == null || from.isBefore(endDate)) && (to == null || !to.isBefore(startDate));
+    }
+
+    public boolean mayContain(long id) {
+        return isArchived() && id >= firstId && id <= lastId;
+    }
+}
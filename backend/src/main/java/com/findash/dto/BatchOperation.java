@@ -0,0 +1,43 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.findash.model.Transaction;
+
+import java.util.List;
+import java.util.Locale;
+
+// One step of a batch. Which fields are read depends on op:
+//   create  transaction
+//   update  id, transaction (replaces the editable fields, as PUT does)
+//   delete  ids
+//   patch   where, set (as a bulk update)
+public record BatchOperation(
+        Op op,
+        Long id,
+        Transaction transaction,
+        List<Long> ids,
+        TransactionMatch where,
+        TransactionPatch set) {
+
+    public enum Op {
+        CREATE,
+        UPDATE,
+        DELETE,
+        PATCH;
+
+        @JsonCreator
+        public static Op fromParam(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported batch operation: " + value);
+            }
+        }
+
+        @JsonValue
+        public String getParam() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
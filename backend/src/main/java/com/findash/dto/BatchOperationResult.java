@@ -0,0 +1,10 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Rows an operation changed; id is the new row's id for create and the target id for update. An update of
+// an id that does not exist changes nothing; one of a row in a closed year rejects the batch, as PUT does.
+// Delete and patch skip closed-year rows and count only the rows they changed.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchOperationResult(BatchOperation.Op op, int affected, Long id) {
+}
@@ -0,0 +1,7 @@
+package com.findash.dto;
+
+import java.util.List;
+
+// Operations applied in order in one transaction: all of them commit or none do
+public record BatchRequest(List<BatchOperation> operations) {
+}
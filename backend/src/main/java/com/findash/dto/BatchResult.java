@@ -0,0 +1,7 @@
+package com.findash.dto;
+
+import java.util.List;
+
+// Per-operation outcomes in request order, their total, and the change version the batch committed as
+public record BatchResult(int affected, List<BatchOperationResult> results, long version) {
+}
@@ -0,0 +1,31 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Progress of one budget goal in a month. saved is that month's income - expense against the monthly
+// savingsGoal; savedToDate sums income - expense from the goal's start month through this month.
+public record BudgetStatus(
+        Long goalId,
+        String savingPurpose,
+        String month,
+        Money monthlyIncome,
+        Money income,
+        Money expense,
+        Money savingsGoal,
+        Money saved,
+        double savingsProgress,
+        Money savedToDate,
+        LocalDate targetDate,
+        List<CategoryBudgetStatus> categories) {
+
+    // part as a percentage of whole, rounded to one decimal; 0 when whole is zero
+    public static double percent(Money part, Money whole) {
+        if (whole.signum() == 0) {
+            return 0;
+        }
+        return Math.round(part.cents() * 1000.0 / whole.cents()) / 10.0;
+    }
+}
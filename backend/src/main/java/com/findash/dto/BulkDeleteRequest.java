@@ -0,0 +1,6 @@
+package com.findash.dto;
+
+import java.util.List;
+
+public record BulkDeleteRequest(List<Long> ids) {
+}
@@ -0,0 +1,5 @@
+package com.findash.dto;
+
+// Rows changed by a bulk write and the change version it committed as (usable as ?since=)
+public record BulkResult(int affected, long version) {
+}
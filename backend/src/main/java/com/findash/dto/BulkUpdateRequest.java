@@ -0,0 +1,5 @@
+package com.findash.dto;
+
+// "Set these fields on every row matching where", e.g. recategorize all rows of one merchant
+public record BulkUpdateRequest(TransactionMatch where, TransactionPatch set) {
+}
@@ -0,0 +1,8 @@
+package com.findash.dto;
+
+// Counters for one read cache region since startup. weight is the number of transactions held
+// (1 per single-value entry); invalidations counts entries removed by writes, evictions those
+// dropped for size or age.
+public record CacheRegionStats(String region, long entries, long weight, long hits, long misses,
+                               double hitRate, long evictions, long invalidations) {
+}
@@ -0,0 +1,16 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Cash flow projected from the active recurring series, one point per month from the month of asOf.
+// openingBalance is income - expense of every transaction recorded so far; only occurrences after
+// asOf (or overdue ones, counted in the first month) are projected.
+public record CashFlowForecast(
+        LocalDate asOf,
+        Money openingBalance,
+        List<ForecastMonth> months,
+        List<RecurringSeries> series) {
+}
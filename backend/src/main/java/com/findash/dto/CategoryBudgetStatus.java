@@ -0,0 +1,19 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+// Spending in one category for the status month against its limit; percentUsed is rounded to 0.1
+public record CategoryBudgetStatus(
+        String category,
+        Money limit,
+        Money spent,
+        Money remaining,
+        double percentUsed,
+        boolean overBudget) {
+
+    public static CategoryBudgetStatus of(String category, Money limit, Money spent) {
+        Money remaining = limit.minus(spent);
+        return new CategoryBudgetStatus(category, limit, spent, remaining, BudgetStatus.percent(spent, limit),
+                remaining.signum() < 0);
+    }
+}
@@ -0,0 +1,45 @@
+package com.findash.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+// File formats of GET /api/transactions/export, chosen with ?format=.
+public enum ExportFormat {
+    // RFC 4180, UTF-8, with a header row the CSV import reads back
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv", true),
+    // Office Open XML workbook; already a deflated ZIP, so never gzipped again
+    XLSX(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), "xlsx", false);
+
+    public static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final MediaType mediaType;
+    private final String extension;
+    private final boolean gzipSupported;
+
+    ExportFormat(MediaType mediaType, String extension, boolean gzipSupported) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+        this.gzipSupported = gzipSupported;
+    }
+
+    public MediaType getMediaType(boolean gzip) {
+        return gzip ? GZIP : mediaType;
+    }
+
+    public String fileName(boolean gzip) {
+        if (gzip && !gzipSupported) {
+            throw new IllegalArgumentException(name() + " exports are already compressed; gzip applies to CSV only");
+        }
+        return "transactions." + extension + (gzip ? ".gz" : "");
+    }
+
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(name.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name + " (csv or xlsx)");
+    }
+}
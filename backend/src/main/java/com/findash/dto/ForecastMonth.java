@@ -0,0 +1,16 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.time.YearMonth;
+
+// Projected recurring income and expense of one month; balance carries on from the forecast's
+// opening balance including this month.
+public record ForecastMonth(
+        YearMonth month,
+        int occurrences,
+        Money income,
+        Money expense,
+        Money net,
+        Money balance) {
+}
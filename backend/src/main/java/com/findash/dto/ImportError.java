@@ -0,0 +1,5 @@
+package com.findash.dto;
+
+// A rejected input row: its line number in the uploaded file and why it was rejected.
+public record ImportError(int line, String message) {
+}
@@ -0,0 +1,14 @@
+package com.findash.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import. errors holds at most the first maxReportedErrors rejections;
+// rowsRejected counts all of them.
+public record ImportResult(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        List<ImportError> errors,
+        long elapsedMs,
+        long rowsPerSecond) {
+}
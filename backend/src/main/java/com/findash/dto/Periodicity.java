@@ -0,0 +1,57 @@
+package com.findash.dto;
+
+import java.time.LocalDate;
+
+// How often a recurring series repeats. A gap between two occurrences matches a period when it lies
+// within [minGap, maxGap] days, which absorbs month lengths, weekends and late postings.
+public enum Periodicity {
+    WEEKLY(7, 6, 8),
+    BIWEEKLY(14, 12, 16),
+    MONTHLY(30, 27, 33),
+    QUARTERLY(91, 85, 97),
+    YEARLY(365, 355, 375);
+
+    private final int days;
+    private final int minGap;
+    private final int maxGap;
+
+    Periodicity(int days, int minGap, int maxGap) {
+        this.days = days;
+        this.minGap = minGap;
+        this.maxGap = maxGap;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public boolean matches(long gap) {
+        return gap >= minGap && gap <= maxGap;
+    }
+
+    // Days an occurrence may come after its expected date and still count as on time
+    public int lateness() {
+        return maxGap - days;
+    }
+
+    // The period whose range holds the gap, or null
+    public static Periodicity ofGap(long gap) {
+        for (Periodicity periodicity : values()) {
+            if (periodicity.matches(gap)) {
+                return periodicity;
+            }
+        }
+        return null;
+    }
+
+    // The date the given number of periods after date; months keep the day of month (clamped)
+    public LocalDate after(LocalDate date, int periods) {
+        return switch (this) {
+            case WEEKLY -> date.plusWeeks(periods);
+            case BIWEEKLY -> date.plusWeeks(2L * periods);
+            case MONTHLY -> date.plusMonths(periods);
+            case QUARTERLY -> date.plusMonths(3L * periods);
+            case YEARLY -> date.plusYears(periods);
+        };
+    }
+}
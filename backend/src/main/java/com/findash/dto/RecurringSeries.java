@@ -0,0 +1,25 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+
+// Transactions with one merchant and type, in one amount band, that repeat every period. amount is the
+// median of the recent occurrences the series was detected from (occurrences of them, firstDate to
+// lastDate); regularity is the share of their gaps that matched the period. A series is active while
+// nextDate, allowing for the period's lateness, has not passed.
+public record RecurringSeries(
+        String merchant,
+        String type,
+        String category,
+        Periodicity periodicity,
+        Money amount,
+        Money minAmount,
+        Money maxAmount,
+        int occurrences,
+        double regularity,
+        LocalDate firstDate,
+        LocalDate lastDate,
+        LocalDate nextDate,
+        boolean active) {
+}
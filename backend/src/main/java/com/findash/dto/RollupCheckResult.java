@@ -0,0 +1,8 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of verifying (and optionally rebuilding) the rollup table against the transactions table.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RollupCheckResult(int mismatchedBuckets, Integer rebuiltBuckets, long elapsedMs) {
+}
@@ -0,0 +1,10 @@
+package com.findash.dto;
+
+import com.findash.model.Transaction;
+
+import java.util.Map;
+
+// A full-text match. score is SQLite's bm25 rank (lower is better); highlights maps
+// description, merchant and notes to their text with matched terms wrapped in <mark> tags.
+public record SearchHit(Transaction transaction, double score, Map<String, String> highlights) {
+}
@@ -0,0 +1,7 @@
+package com.findash.dto;
+
+import java.util.List;
+
+// One page of ranked search results.
+public record SearchPage(List<SearchHit> results, int page, int size, boolean hasMore) {
+}
@@ -0,0 +1,17 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Bucketed income/expense over [startDate, endDate], one point per bucket including empty ones.
+// openingBalance is income - expense of everything before startDate (for the same category filter).
+public record TimeSeries(
+        TimeSeriesInterval interval,
+        int window,
+        LocalDate startDate,
+        LocalDate endDate,
+        Money openingBalance,
+        List<TimeSeriesPoint> points) {
+}
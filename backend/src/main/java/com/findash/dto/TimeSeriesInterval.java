@@ -0,0 +1,50 @@
+package com.findash.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+// Bucket width of a time series. Weeks start on Monday (ISO), months on the 1st.
+public enum TimeSeriesInterval {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public static TimeSeriesInterval fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported interval: " + value);
+        }
+    }
+
+    // First day of the bucket containing date
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    // First day of the bucket after the one starting at bucketStart
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    // Number of buckets needed to cover [startDate, endDate]
+    public long bucketsBetween(LocalDate startDate, LocalDate endDate) {
+        ChronoUnit unit = switch (this) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+        };
+        return unit.between(bucketStart(startDate), bucketStart(endDate)) + 1;
+    }
+}
@@ -0,0 +1,25 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// One bucket of a time series. balance is the running income - expense including this bucket; the
+// average* fields are moving averages over the last window buckets (fewer at the start of the series).
+// categories holds each category's net (income - expense, signed like net) in the bucket and is omitted
+// unless a breakdown was requested.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TimeSeriesPoint(
+        LocalDate start,
+        long count,
+        Money income,
+        Money expense,
+        Money net,
+        Money balance,
+        Money averageIncome,
+        Money averageExpense,
+        Money averageNet,
+        Map<String, Money> categories) {
+}
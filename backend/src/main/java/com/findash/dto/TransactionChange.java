@@ -0,0 +1,18 @@
+package com.findash.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+
+// Data of one server-sent change event. transaction is the new state of a created or updated row, id
+// the row deleted; neither is set when many rows changed at once (fetch ?since= the previous version)
+// or for the totals sent on connect. The totals are those of every transaction after the change.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionChange(
+        long version,
+        Transaction transaction,
+        Long id,
+        Money totalIncome,
+        Money totalExpense,
+        Money balance) {
+}
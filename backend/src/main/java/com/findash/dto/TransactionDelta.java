@@ -0,0 +1,10 @@
+package com.findash.dto;
+
+import com.findash.model.Transaction;
+
+import java.util.List;
+
+// Changes after a client's known version: rows inserted or updated since (upserted) and ids of rows
+// deleted since (deleted). Apply deletions first, then upserts; version is the next "since" to send.
+public record TransactionDelta(long version, List<Transaction> upserted, List<Long> deleted) {
+}
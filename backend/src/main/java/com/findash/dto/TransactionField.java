@@ -0,0 +1,74 @@
+package com.findash.dto;
+
+import com.findash.model.Transaction;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+// Transaction properties that can be projected with ?fields=, and how each is laid out in the columnar formats.
+public enum TransactionField {
+    ID("id", Encoding.INTEGER, Transaction::getId),
+    DATE("date", Encoding.EPOCH_DAY, Transaction::getDate),
+    DESCRIPTION("description", Encoding.TEXT, Transaction::getDescription),
+    CATEGORY("category", Encoding.DICTIONARY, Transaction::getCategory),
+    MERCHANT("merchant", Encoding.DICTIONARY, Transaction::getMerchant),
+    AMOUNT("amount", Encoding.SCALED, Transaction::getAmount),
+    TYPE("type", Encoding.DICTIONARY, Transaction::getType),
+    PAYMENT_METHOD("paymentMethod", Encoding.DICTIONARY, Transaction::getPaymentMethod),
+    NOTES("notes", Encoding.TEXT, Transaction::getNotes),
+    CREATED_AT("createdAt", Encoding.EPOCH_DAY, Transaction::getCreatedAt),
+    UPDATED_AT("updatedAt", Encoding.EPOCH_DAY, Transaction::getUpdatedAt);
+
+    // INTEGER: whole numbers; EPOCH_DAY: days since 1970-01-01; SCALED: amount in minor units (cents);
+    // DICTIONARY: index into a per-response list of distinct values; TEXT: the string itself
+    public enum Encoding {
+        INTEGER,
+        EPOCH_DAY,
+        SCALED,
+        DICTIONARY,
+        TEXT
+    }
+
+    private final String param;
+    private final Encoding encoding;
+    private final Function<Transaction, Object> accessor;
+
+    TransactionField(String param, Encoding encoding, Function<Transaction, Object> accessor) {
+        this.param = param;
+        this.encoding = encoding;
+        this.accessor = accessor;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public Object valueOf(Transaction transaction) {
+        return accessor.apply(transaction);
+    }
+
+    public static TransactionField fromParam(String value) {
+        for (TransactionField field : values()) {
+            if (field.param.equalsIgnoreCase(value.trim())) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported field: " + value);
+    }
+
+    // Requested fields in declaration order; all fields when none are given
+    public static Set<TransactionField> fromParams(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return EnumSet.allOf(TransactionField.class);
+        }
+        Set<TransactionField> fields = EnumSet.noneOf(TransactionField.class);
+        values.forEach(value -> fields.add(fromParam(value)));
+        return fields;
+    }
+}
@@ -0,0 +1,47 @@
+package com.findash.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+// Representations of a transaction list, chosen from the Accept header.
+public enum TransactionFormat {
+    // One JSON object per transaction, as the entity serializes
+    JSON(MediaType.APPLICATION_JSON, null),
+    // One JSON array per field with dictionary-encoded strings, epoch-day dates and amounts in cents
+    COLUMNAR_JSON(MediaType.parseMediaType("application/vnd.findash.columnar+json"), "columnar"),
+    // The columnar layout as varint-packed binary; see TransactionColumns for the wire format
+    COLUMNAR_BINARY(MediaType.parseMediaType("application/vnd.findash.columnar"), "binary");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    TransactionFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // Tags the change version so each representation of the same URL has its own ETag
+    public String etag(long version) {
+        return etagSuffix == null ? "\"" + version + "\"" : "\"" + version + "-" + etagSuffix + "\"";
+    }
+
+    // First acceptable format in the client's preference order; JSON when nothing specific is asked for
+    public static TransactionFormat negotiate(List<MediaType> accepted) {
+        for (MediaType candidate : accepted) {
+            if (candidate.isWildcardType() || candidate.isWildcardSubtype()) {
+                continue;
+            }
+            for (TransactionFormat format : values()) {
+                if (format.mediaType.equalsTypeAndSubtype(candidate)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
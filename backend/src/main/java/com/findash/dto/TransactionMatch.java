@@ -0,0 +1,20 @@
+package com.findash.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Selects the rows a bulk update applies to; null fields are ignored and the rest must all match.
+// Merchant and category match case-insensitively, dates are inclusive.
+public record TransactionMatch(
+        List<Long> ids,
+        String merchant,
+        String category,
+        String type,
+        LocalDate startDate,
+        LocalDate endDate) {
+
+    public boolean hasConditions() {
+        return (ids != null && !ids.isEmpty()) || merchant != null || category != null || type != null
+                || startDate != null || endDate != null;
+    }
+}
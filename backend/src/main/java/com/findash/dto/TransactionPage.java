@@ -0,0 +1,10 @@
+package com.findash.dto;
+
+import com.findash.model.Transaction;
+
+import java.util.List;
+
+// One page of a keyset-paginated transaction listing.
+// nextCursor is null when there are no more rows.
+public record TransactionPage(List<Transaction> transactions, String nextCursor) {
+}
@@ -0,0 +1,17 @@
+package com.findash.dto;
+
+// New values for the editable text fields of every matched row; null fields are left unchanged.
+// An empty paymentMethod clears it.
+public record TransactionPatch(
+        String description,
+        String category,
+        String merchant,
+        String type,
+        String paymentMethod,
+        String notes) {
+
+    public boolean hasChanges() {
+        return description != null || category != null || merchant != null || type != null
+                || paymentMethod != null || notes != null;
+    }
+}
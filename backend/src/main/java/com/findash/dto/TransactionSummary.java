@@ -0,0 +1,26 @@
+package com.findash.dto;
+
+import com.findash.model.Money;
+
+import java.util.List;
+
+// Income/expense totals plus the per-type aggregates they were derived from.
+public record TransactionSummary(
+        Money totalIncome,
+        Money totalExpense,
+        Money balance,
+        List<AggregateRow> byType) {
+
+    public static TransactionSummary from(List<AggregateRow> byType) {
+        Money income = Money.ZERO;
+        Money expense = Money.ZERO;
+        for (AggregateRow row : byType) {
+            if ("Income".equals(row.type())) {
+                income = income.plus(row.total());
+            } else if ("Expense".equals(row.type())) {
+                expense = expense.plus(row.total());
+            }
+        }
+        return new TransactionSummary(income, expense, income.minus(expense), byType);
+    }
+}
@@ -0,0 +1,9 @@
+package com.findash.exception;
+
+// A write or lookup by id that matched nothing; answered with 404 by GlobalExceptionHandler.
+public class NotFoundException extends RuntimeException {
+    
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.findash.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// A monthly budget: expected income, a monthly savings target and per-category spending limits.
+// Progress is never stored here; it is read from transaction_rollups (see BudgetStatusRepository).
+@Entity
+@Table(name = "budget_goals")
+public class BudgetGoal {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull(message = "Monthly income is required")
+    @Column(name = "monthly_income_cents", nullable = false)
+    private Money monthlyIncome;
+    
+    @NotNull(message = "Savings goal is required")
+    @Column(name = "savings_goal_cents", nullable = false)
+    private Money savingsGoal;
+    
+    @Column(name = "target_date")
+    private LocalDate targetDate;
+    
+    @Column(name = "saving_purpose", length = 500)
+    private String savingPurpose;
+    
+    // Savings to date are counted from the start of this date's month; defaults to the creation date
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    
+    @Valid
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @JoinColumn(name = "goal_id", nullable = false)
+    @OrderBy("id")
+    private List<CategoryBudget> categoryBudgets = new ArrayList<>();
+    
+    public BudgetGoal() {
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Money getMonthlyIncome() {
+        return monthlyIncome;
+    }
+    
+    public void setMonthlyIncome(Money monthlyIncome) {
+        this.monthlyIncome = monthlyIncome;
+    }
+    
+    public Money getSavingsGoal() {
+        return savingsGoal;
+    }
+    
+    public void setSavingsGoal(Money savingsGoal) {
+        this.savingsGoal = savingsGoal;
+    }
+    
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
+    
+    public void setTargetDate(LocalDate targetDate) {
+        this.targetDate = targetDate;
+    }
+    
+    public String getSavingPurpose() {
+        return savingPurpose;
+    }
+    
+    public void setSavingPurpose(String savingPurpose) {
+        this.savingPurpose = savingPurpose;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public List<CategoryBudget> getCategoryBudgets() {
+        return categoryBudgets;
+    }
+    
+    public void setCategoryBudgets(List<CategoryBudget> categoryBudgets) {
+        this.categoryBudgets = categoryBudgets != null ? categoryBudgets : new ArrayList<>();
+    }
+}
@@ -0,0 +1,57 @@
+package com.findash.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// Monthly spending limit for one expense category of a budget goal
+@Entity
+@Table(name = "category_budgets", indexes = {
+        @Index(name = "idx_category_budgets_goal_id", columnList = "goal_id")
+})
+public class CategoryBudget {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotBlank(message = "Category is required")
+    @Column(nullable = false)
+    private String category;
+    
+    @NotNull(message = "Limit is required")
+    @Column(name = "limit_cents", nullable = false)
+    private Money limit;
+    
+    public CategoryBudget() {
+    }
+    
+    public CategoryBudget(String category, Money limit) {
+        this.category = category;
+        this.limit = limit;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public Money getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Money limit) {
+        this.limit = limit;
+    }
+}
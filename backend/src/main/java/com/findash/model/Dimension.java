@@ -0,0 +1,34 @@
+package com.findash.model;
+
+// Transaction attributes whose values repeat across many rows. Each distinct value is stored once in
+// its lookup table (see schema.sql) and rows hold its integer id (see DimensionDictionary).
+public enum Dimension {
+    CATEGORY("categories", "category_id"),
+    MERCHANT("merchants", "merchant_id"),
+    TYPE("transaction_types", "type_id"),
+    PAYMENT_METHOD("payment_methods", "payment_method_id");
+
+    private final String table;
+    private final String column;
+
+    Dimension(String table, String column) {
+        this.table = table;
+        this.column = column;
+    }
+
+    // Lookup table: id INTEGER PRIMARY KEY, name (unique, exactly as written) and name_key (lower(name))
+    public String table() {
+        return table;
+    }
+
+    // Id column in the transactions table
+    public String column() {
+        return column;
+    }
+
+    // SQL condition on the id column for a case-insensitive match of the name bound to parameter,
+    // which may be "?" or ":name"; the lookup table is searched by its name_key index
+    public String matchesIgnoringCase(String parameter) {
+        return column + " IN (SELECT id FROM " + table + " WHERE name_key = lower(" + parameter + "))";
+    }
+}
@@ -0,0 +1,57 @@
+package com.findash.model;
+
+import com.findash.repository.DimensionDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores a dimension name as its id in DimensionDictionary. DimensionInterner has interned the names
+// of a transaction before Hibernate writes it; a query parameter naming nothing becomes an id no row has.
+// Created by Hibernate through Spring, so the dictionary is injected.
+public abstract class DimensionConverter implements AttributeConverter<String, Integer> {
+
+    private final Dimension dimension;
+    private final DimensionDictionary dictionary;
+
+    protected DimensionConverter(Dimension dimension, DimensionDictionary dictionary) {
+        this.dimension = dimension;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        return name != null ? dictionary.id(dimension, name) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id != null ? dictionary.name(dimension, id) : null;
+    }
+
+    @Converter
+    public static class Category extends DimensionConverter {
+        public Category(DimensionDictionary dictionary) {
+            super(Dimension.CATEGORY, dictionary);
+        }
+    }
+
+    @Converter
+    public static class Merchant extends DimensionConverter {
+        public Merchant(DimensionDictionary dictionary) {
+            super(Dimension.MERCHANT, dictionary);
+        }
+    }
+
+    @Converter
+    public static class Type extends DimensionConverter {
+        public Type(DimensionDictionary dictionary) {
+            super(Dimension.TYPE, dictionary);
+        }
+    }
+
+    @Converter
+    public static class PaymentMethod extends DimensionConverter {
+        public PaymentMethod(DimensionDictionary dictionary) {
+            super(Dimension.PAYMENT_METHOD, dictionary);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.findash.model;
+
+import com.findash.repository.DimensionDictionary;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+// Entity listener that adds a transaction's new category, merchant, type or payment method to the
+// lookup tables before Hibernate writes it, so DimensionConverter finds an id for every name
+public class DimensionInterner {
+
+    private final DimensionDictionary dictionary;
+
+    public DimensionInterner(DimensionDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void intern(Transaction transaction) {
+        dictionary.intern(transaction);
+    }
+}
@@ -0,0 +1,171 @@
+package com.findash.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// An exact amount of money in minor units (cents). Arithmetic is on longs and fails on overflow instead
+// of wrapping; nothing goes through double. Serialized as a plain JSON number with two decimals
+// ("amount": -12.50), so the wire format is the same as for a BigDecimal with scale 2.
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long CENTS_PER_UNIT = 100;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Parses "12", "-3.5", "1234.560" or "1E+2"; amounts with non-zero digits beyond the cents are rejected
+    public static Money parse(String text) {
+        String value = text.trim();
+        try {
+            int index = 0;
+            boolean negative = false;
+            if (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+                negative = value.charAt(0) == '-';
+                index = 1;
+            }
+            long cents = 0;
+            int digits = 0;
+            int fractionDigits = -1; // -1 until the decimal point
+            for (; index < value.length(); index++) {
+                char c = value.charAt(index);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9' && fractionDigits < SCALE) {
+                    cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else if (c == '0' && fractionDigits == SCALE) {
+                    // Trailing zeros past the cents change nothing
+                } else {
+                    // Exponent, more decimals or not a number at all
+                    BigDecimal amount;
+                    try {
+                        amount = new BigDecimal(value);
+                    } catch (NumberFormatException e) {
+                        throw new NumberFormatException("Invalid amount: " + text);
+                    }
+                    return of(amount);
+                }
+            }
+            if (digits == 0) {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+            for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+                cents = Math.multiplyExact(cents, 10);
+            }
+            return ofCents(negative ? -cents : cents);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    public static Money of(BigDecimal amount) {
+        if (amount.stripTrailingZeros().scale() > SCALE) {
+            throw new NumberFormatException("Amount must have at most " + SCALE + " decimal places");
+        }
+        try {
+            return ofCents(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount.toPlainString());
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    // Share of this amount per divisor, rounded half even to whole cents (e.g. an average)
+    public Money dividedBy(long divisor) {
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+        if (twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0)) {
+            quotient += Long.signum(cents) * Long.signum(divisor);
+        }
+        return ofCents(quotient);
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    // Plain decimal with exactly two fraction digits, e.g. "-0.05" or "3500.00"
+    @Override
+    public String toString() {
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        long fraction = Math.abs(cents % CENTS_PER_UNIT);
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        text.append(units).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    public static class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toString());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            // The literal text, so 0.1 stays exactly ten cents instead of passing through double
+            String text = parser.getText();
+            try {
+                return parse(text);
+            } catch (NumberFormatException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, text, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.findash.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores Money as its integer number of cents
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.cents() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents != null ? Money.ofCents(cents) : null;
+    }
+}
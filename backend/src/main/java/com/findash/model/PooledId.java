@@ -0,0 +1,21 @@
+package com.findash.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Ids handed out from blocks reserved in the id_allocator table (see PooledIdGenerator), so they are
+// known before the INSERT and Hibernate can batch inserts, unlike IDENTITY
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    // Row of id_allocator to reserve from
+    String name();
+
+    int allocationSize() default PooledIdGenerator.DEFAULT_ALLOCATION_SIZE;
+}
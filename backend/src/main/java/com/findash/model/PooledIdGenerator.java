@@ -0,0 +1,124 @@
+package com.findash.model;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Pooled id allocation for SQLite, which has no sequences. A block of ids is reserved with one
+// UPDATE ... RETURNING on id_allocator in the caller's own transaction (Hibernate's table generators
+// would need a second connection, and writes have only one), then handed out from memory.
+//
+// A block only becomes shared once the transaction that reserved it has committed; until then only
+// that transaction uses it, and if it rolls back the rest of the block is dropped along with the
+// reservation. TransactionBulkRepository reserves from the same row, so the two never overlap.
+public class PooledIdGenerator implements IdentifierGenerator {
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    // Reserves :size ids and returns the first id after the block
+    public static final String RESERVE_SQL = "UPDATE id_allocator SET next_id = next_id + ? WHERE name = ? RETURNING next_id";
+
+    private final String name;
+    private final int allocationSize;
+    // Committed block any transaction may draw from; guarded by this
+    private final Block shared = new Block(0, 0);
+
+    public PooledIdGenerator(PooledId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.name = config.name();
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        Block own = inTransaction ? (Block) TransactionSynchronizationManager.getResource(this) : null;
+        if (own != null && own.hasNext()) {
+            return own.next++;
+        }
+        synchronized (this) {
+            if (shared.hasNext()) {
+                return shared.next++;
+            }
+        }
+
+        long end = reserve(session);
+        Block reserved = new Block(end - allocationSize, end);
+        if (!inTransaction) {
+            long id = reserved.next++;
+            share(reserved);
+            return id;
+        }
+        if (own != null) {
+            own.next = reserved.next;
+            own.limit = reserved.limit;
+        } else {
+            own = reserved;
+            Block block = own;
+            TransactionSynchronizationManager.bindResource(this, block);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PooledIdGenerator.this);
+                    if (status == STATUS_COMMITTED) {
+                        share(block);
+                    }
+                }
+            });
+        }
+        return own.next++;
+    }
+
+    private synchronized void share(Block block) {
+        if (block.remaining() > shared.remaining()) {
+            shared.next = block.next;
+            shared.limit = block.limit;
+        }
+    }
+
+    private long reserve(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(RESERVE_SQL);
+        try {
+            statement.setInt(1, allocationSize);
+            statement.setString(2, name);
+            ResultSet rs = jdbc.getResultSetReturn().extract(statement, RESERVE_SQL);
+            if (!rs.next()) {
+                throw new HibernateException("No id_allocator row named " + name);
+            }
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new HibernateException("Could not reserve ids for " + name, e);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    private static class Block {
+
+        long next;
+        long limit;
+
+        Block(long next, long limit) {
+            this.next = next;
+            this.limit = limit;
+        }
+
+        boolean hasNext() {
+            return next < limit;
+        }
+
+        long remaining() {
+            return limit - next;
+        }
+    }
+}
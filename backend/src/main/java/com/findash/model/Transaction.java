@@ -1,18 +1,30 @@
 package com.findash.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Newest-first listing, keyset pagination and date-range filters
+        @Index(name = "idx_transactions_date_id", columnList = "date, id"),
+        // Type filter, optionally narrowed by date
+        @Index(name = "idx_transactions_type_id_date", columnList = "type_id, date"),
+        @Index(name = "idx_transactions_category_id", columnList = "category_id"),
+        @Index(name = "idx_transactions_merchant_id", columnList = "merchant_id"),
+        // Delta sync: rows changed since a given version
+        @Index(name = "idx_transactions_row_version", columnList = "row_version, id")
+})
+@EntityListeners(DimensionInterner.class)
 public class Transaction {
     
+    // Declared INTEGER so the column stays an alias of SQLite's rowid
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(name = "transactions")
+    @Column(columnDefinition = "integer")
     private Long id;
     
     @NotNull(message = "Date is required")
@@ -23,23 +35,30 @@ public class Transaction {
     @Column(nullable = false)
     private String description;
     
+    // Category, merchant, type and payment method are stored as ids into their lookup tables (see
+    // Dimension); the defaults only let the columns be added to existing tables
     @NotBlank(message = "Category is required")
-    @Column(nullable = false)
+    @Convert(converter = DimensionConverter.Category.class)
+    @Column(name = "category_id", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
     private String category;
     
     @NotBlank(message = "Merchant is required")
-    @Column(nullable = false)
+    @Convert(converter = DimensionConverter.Merchant.class)
+    @Column(name = "merchant_id", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
     private String merchant;
     
+    // Integer cents (see MoneyConverter); the default only lets the column be added to existing tables
     @NotNull(message = "Amount is required")
-    @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    @Column(name = "amount_cents", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Money amount;
     
     @NotBlank(message = "Type is required")
-    @Column(nullable = false)
+    @Convert(converter = DimensionConverter.Type.class)
+    @Column(name = "type_id", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
     private String type; // "Income" or "Expense"
     
-    @Column(name = "payment_method")
+    @Convert(converter = DimensionConverter.PaymentMethod.class)
+    @Column(name = "payment_method_id", columnDefinition = "INTEGER")
     private String paymentMethod;
     
     @Column(length = 500, nullable = false)
@@ -51,12 +70,17 @@ public class Transaction {
     @Column(name = "updated_at")
     private LocalDate updatedAt;
     
+    // Change version of the last write that touched this row (see ChangeVersionRepository)
+    @JsonIgnore
+    @Column(name = "row_version", columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private long rowVersion;
+    
     // Constructors
     public Transaction() {
     }
     
     public Transaction(Long id, LocalDate date, String description, String category, 
-                      String merchant, BigDecimal amount, String type, String paymentMethod, 
+                      String merchant, Money amount, String type, String paymentMethod, 
                       String notes, LocalDate createdAt, LocalDate updatedAt) {
         this.id = id;
         this.date = date;
@@ -71,6 +95,14 @@ public class Transaction {
         this.updatedAt = updatedAt;
     }
     
+    // Detached copy of the current field values, e.g. to remember a row's state before it is changed
+    public Transaction copy() {
+        Transaction copy = new Transaction(id, date, description, category, merchant, amount, type, paymentMethod,
+                notes, createdAt, updatedAt);
+        copy.rowVersion = rowVersion;
+        return copy;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -112,11 +144,11 @@ public class Transaction {
         this.merchant = merchant;
     }
     
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
     
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
     
@@ -160,6 +192,14 @@ public class Transaction {
         this.updatedAt = updatedAt;
     }
     
+    public long getRowVersion() {
+        return rowVersion;
+    }
+    
+    public void setRowVersion(long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
@@ -0,0 +1,128 @@
+package com.findash.repository;
+
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import com.findash.model.Transaction;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// The TransactionRepository lookups that reach back into closed years, run against each archived
+// partition they can match (see TransactionPartitions). Partitions outside a date range, or whose id
+// range cannot hold an id, are never opened. Methods returning rows newest first visit partitions
+// newest first; every archived row is older than every row of the live table.
+@Repository
+public class ArchivedTransactionRepository {
+
+    private final TransactionPartitions partitions;
+    private final DimensionDictionary dictionary;
+    private final TransactionRowMapper rowMapper;
+
+    public ArchivedTransactionRepository(TransactionPartitions partitions, DimensionDictionary dictionary) {
+        this.partitions = partitions;
+        this.dictionary = dictionary;
+        this.rowMapper = new TransactionRowMapper(dictionary);
+    }
+
+    public List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate) {
+        return query(partitions.archived(startDate, endDate), "SELECT * FROM transactions "
+                + "WHERE date BETWEEN :startDate AND :endDate", new MapSqlParameterSource()
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate)));
+    }
+
+    public Optional<Transaction> findById(long id) {
+        for (ArchivePartition partition : partitions.archived(null, null)) {
+            if (partition.mayContain(id)) {
+                List<Transaction> rows = partitions.jdbcTemplate(partition).query(
+                        "SELECT * FROM transactions WHERE id = :id", new MapSqlParameterSource("id", id), rowMapper);
+                if (!rows.isEmpty()) {
+                    return Optional.of(rows.get(0));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Transaction> findByType(String type) {
+        return query(partitions.archived(null, null), "SELECT * FROM transactions WHERE type_id = :typeId",
+                new MapSqlParameterSource("typeId", dictionary.id(Dimension.TYPE, type)));
+    }
+
+    // Case-insensitive, through the lookup rows copied into each archive file
+    public List<Transaction> findByCategory(String category) {
+        return query(partitions.archived(null, null), "SELECT * FROM transactions WHERE "
+                + Dimension.CATEGORY.matchesIgnoringCase(":category"), new MapSqlParameterSource("category", category));
+    }
+
+    // In merchant order within each partition
+    public List<Transaction> findByMerchantPrefix(String prefix) {
+        return query(partitions.archived(null, null), "SELECT t.* FROM merchants m CROSS JOIN transactions t "
+                + "ON t.merchant_id = m.id WHERE m.name_key >= lower(:prefix) "
+                + "AND m.name_key < lower(:prefix) || char(1114111) ORDER BY m.name_key",
+                new MapSqlParameterSource("prefix", prefix));
+    }
+
+    // At most limit rows in newest-first order, strictly after (date, id) or from the newest when date is null
+    public List<Transaction> findPage(LocalDate date, Long id, int limit) {
+        List<Transaction> rows = new ArrayList<>();
+        for (ArchivePartition partition : newestFirst(partitions.archived(null, date))) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("limit", limit - rows.size());
+            String after = "";
+            if (date != null) {
+                after = " WHERE (date, id) < (:date, :id)";
+                params.addValue("date", Date.valueOf(date)).addValue("id", id);
+            }
+            rows.addAll(partitions.jdbcTemplate(partition).query("SELECT * FROM transactions" + after
+                    + " ORDER BY date DESC, id DESC LIMIT :limit", params, rowMapper));
+        }
+        return rows;
+    }
+
+    // Every archived row, newest first, handed to the consumer as it is read
+    public void forEach(Consumer<Transaction> consumer) {
+        for (ArchivePartition partition : newestFirst(partitions.archived(null, null))) {
+            partitions.jdbcTemplate(partition).query("SELECT * FROM transactions ORDER BY date DESC, id DESC",
+                    rs -> {
+                        consumer.accept(rowMapper.mapRow(rs, 0));
+                    });
+        }
+    }
+
+    public long getTotalCentsByType(String type) {
+        long total = 0;
+        for (ArchivePartition partition : partitions.archived(null, null)) {
+            Long cents = partitions.jdbcTemplate(partition).queryForObject(
+                    "SELECT SUM(amount_cents) FROM transactions WHERE type_id = :typeId",
+                    new MapSqlParameterSource("typeId", dictionary.id(Dimension.TYPE, type)), Long.class);
+            total += cents != null ? cents : 0;
+        }
+        return total;
+    }
+
+    private List<Transaction> query(List<ArchivePartition> archived, String sql, MapSqlParameterSource params) {
+        List<Transaction> rows = new ArrayList<>();
+        for (ArchivePartition partition : archived) {
+            NamedParameterJdbcTemplate jdbcTemplate = partitions.jdbcTemplate(partition);
+            rows.addAll(jdbcTemplate.query(sql, params, rowMapper));
+        }
+        return rows;
+    }
+
+    private static List<ArchivePartition> newestFirst(List<ArchivePartition> partitions) {
+        List<ArchivePartition> reversed = new ArrayList<>(partitions);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+}
@@ -0,0 +1,9 @@
+package com.findash.repository;
+
+import com.findash.model.BudgetGoal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BudgetGoalRepository extends JpaRepository<BudgetGoal, Long> {
+}
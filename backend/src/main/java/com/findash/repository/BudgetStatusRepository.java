@@ -0,0 +1,76 @@
+package com.findash.repository;
+
+import com.findash.dto.BudgetStatus;
+import com.findash.dto.CategoryBudgetStatus;
+import com.findash.model.Dimension;
+import com.findash.model.Money;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Status of every budget goal in one query. Spending and savings come from transaction_rollups, which
+// the transactions triggers keep current on every write, so a status read touches a few hundred
+// rollup buckets at most and never scans transactions.
+@Repository
+public class BudgetStatusRepository {
+
+    // Budgets name categories case-insensitively, so month totals are keyed by the lookup table's name_key
+    private static final String STATUS_SQL = "WITH month_totals AS ("
+            + "SELECT c.name_key AS category_key, r.type_id, SUM(r.total_cents) AS total_cents "
+            + "FROM transaction_rollups r JOIN categories c ON c.id = r.category_id "
+            + "WHERE r.period = :month GROUP BY 1, 2) "
+            + "SELECT g.id, g.saving_purpose, g.monthly_income_cents, g.savings_goal_cents, g.target_date, "
+            + "(SELECT COALESCE(SUM(total_cents), 0) FROM month_totals WHERE type_id = :income) AS income_cents, "
+            + "(SELECT COALESCE(SUM(total_cents), 0) FROM month_totals WHERE type_id = :expense) AS expense_cents, "
+            + "(SELECT COALESCE(SUM(CASE type_id WHEN :income THEN total_cents "
+            + "WHEN :expense THEN -total_cents ELSE 0 END), 0) FROM transaction_rollups "
+            + "WHERE period >= strftime('%Y-%m', g.start_date / 1000, 'unixepoch', 'localtime') "
+            + "AND period <= :month) AS saved_to_date_cents, "
+            + "b.category, b.limit_cents, "
+            + "(SELECT COALESCE(SUM(total_cents), 0) FROM month_totals "
+            + "WHERE type_id = :expense AND category_key = LOWER(b.category)) AS spent_cents "
+            + "FROM budget_goals g LEFT JOIN category_budgets b ON b.goal_id = g.id "
+            + "ORDER BY g.id, b.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+
+    public BudgetStatusRepository(NamedParameterJdbcTemplate jdbcTemplate, DimensionDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+    }
+
+    public List<BudgetStatus> statuses(YearMonth month) {
+        MapSqlParameterSource params = new MapSqlParameterSource("month", month.toString())
+                .addValue("income", dictionary.id(Dimension.TYPE, "Income"))
+                .addValue("expense", dictionary.id(Dimension.TYPE, "Expense"));
+        List<BudgetStatus> statuses = new ArrayList<>();
+        jdbcTemplate.query(STATUS_SQL, params, rs -> {
+            long goalId = rs.getLong("id");
+            BudgetStatus current = statuses.isEmpty() ? null : statuses.get(statuses.size() - 1);
+            if (current == null || current.goalId() != goalId) {
+                Money income = Money.ofCents(rs.getLong("income_cents"));
+                Money expense = Money.ofCents(rs.getLong("expense_cents"));
+                Money savingsGoal = Money.ofCents(rs.getLong("savings_goal_cents"));
+                Money saved = income.minus(expense);
+                Date targetDate = rs.getDate("target_date");
+                current = new BudgetStatus(goalId, rs.getString("saving_purpose"), month.toString(),
+                        Money.ofCents(rs.getLong("monthly_income_cents")), income, expense, savingsGoal, saved,
+                        BudgetStatus.percent(saved, savingsGoal), Money.ofCents(rs.getLong("saved_to_date_cents")),
+                        targetDate != null ? targetDate.toLocalDate() : null, new ArrayList<>());
+                statuses.add(current);
+            }
+            String category = rs.getString("category");
+            if (category != null) {
+                current.categories().add(CategoryBudgetStatus.of(category,
+                        Money.ofCents(rs.getLong("limit_cents")), Money.ofCents(rs.getLong("spent_cents"))));
+            }
+        });
+        return statuses;
+    }
+}
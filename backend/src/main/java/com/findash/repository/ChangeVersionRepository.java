@@ -0,0 +1,50 @@
+package com.findash.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// The database-wide change version (see schema.sql). Every write transaction takes the next version
+// first, stamps it on the rows it inserts or updates and on tombstones for rows it deletes. Writes are
+// serialized on the single writer connection, so versions become visible in increasing order and
+// "everything after version n" is a stable question to ask.
+@Repository
+public class ChangeVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long current() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM change_version WHERE id = 1", Long.class);
+        return version != null ? version : 0L;
+    }
+
+    // Must run inside the write transaction it versions
+    public long next() {
+        Long version = jdbcTemplate.queryForObject(
+                "UPDATE change_version SET version = version + 1 WHERE id = 1 RETURNING version", Long.class);
+        return version != null ? version : 0L;
+    }
+
+    public void recordDeletion(long id, long version) {
+        jdbcTemplate.update("INSERT OR REPLACE INTO transaction_tombstones (id, version) VALUES (?, ?)", id, version);
+    }
+
+    public void recordDeletions(List<Long> ids, long version) {
+        jdbcTemplate.batchUpdate("INSERT OR REPLACE INTO transaction_tombstones (id, version) VALUES (?, ?)",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, version);
+                });
+    }
+
+    // Ids of rows deleted after the given version
+    public List<Long> deletedSince(long version) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM transaction_tombstones WHERE version > ? ORDER BY version, id", Long.class, version);
+    }
+}
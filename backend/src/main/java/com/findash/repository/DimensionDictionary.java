@@ -0,0 +1,209 @@
+package com.findash.repository;
+
+import com.findash.model.Dimension;
+import com.findash.model.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory, two-way copy of the dimension lookup tables (see Dimension). Transactions store an id per
+// dimension and every read path turns ids back into names here instead of joining. Names are interned
+// exactly as written and never removed, so an id always means the same name.
+//
+// Loaded on first use. A name interned (or first looked up) inside a transaction is visible to that
+// transaction at once but only published to other threads after it commits, so a rollback cannot
+// leave an id in the cache that the database does not have. A miss falls back to the table.
+@Repository
+public class DimensionDictionary {
+
+    // Id of no name: bound as a filter it matches no row
+    public static final int NONE = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Dimension, Values> committed = new EnumMap<>(Dimension.class);
+    private volatile boolean loaded;
+
+    // Takes the DataSource rather than the JdbcTemplate bean: the JPA converters need this class while
+    // the EntityManagerFactory is built, and the JdbcTemplate bean waits for database initialization,
+    // which waits for the EntityManagerFactory
+    public DimensionDictionary(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        for (Dimension dimension : Dimension.values()) {
+            committed.put(dimension, new Values());
+        }
+    }
+
+    // Name for a stored id; 0 (what JDBC reads for NULL, and never a rowid) is no name
+    public String name(Dimension dimension, int id) {
+        if (id == 0) {
+            return null;
+        }
+        load();
+        String name = committed.get(dimension).name(id);
+        if (name != null) {
+            return name;
+        }
+        Pending pending = pending();
+        if (pending != null && (name = pending.values(dimension).name(id)) != null) {
+            return name;
+        }
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM " + dimension.table() + " WHERE id = ?",
+                String.class, id);
+        if (names.isEmpty()) {
+            throw new IllegalStateException("No " + dimension.table() + " row with id " + id);
+        }
+        remember(dimension, id, names.get(0), pending);
+        return names.get(0);
+    }
+
+    // Id of an existing name, or NONE; never writes, so it is safe in read-only transactions
+    public int id(Dimension dimension, String name) {
+        if (name == null) {
+            return NONE;
+        }
+        load();
+        Integer id = committed.get(dimension).id(name);
+        if (id != null) {
+            return id;
+        }
+        Pending pending = pending();
+        if (pending != null && (id = pending.values(dimension).id(name)) != null) {
+            return id;
+        }
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM " + dimension.table() + " WHERE name = ?",
+                Integer.class, name);
+        if (ids.isEmpty()) {
+            return NONE;
+        }
+        remember(dimension, ids.get(0), name, pending);
+        return ids.get(0);
+    }
+
+    // Id of the name, adding it to the lookup table if it is new, or null for a null name.
+    // Must run in the write transaction that stores the id.
+    public Integer intern(Dimension dimension, String name) {
+        if (name == null) {
+            return null;
+        }
+        int id = id(dimension, name);
+        if (id != NONE) {
+            return id;
+        }
+        // DO UPDATE rather than DO NOTHING so RETURNING yields the id when the name already exists
+        Integer added = jdbcTemplate.queryForObject("INSERT INTO " + dimension.table() + " (name) VALUES (?) "
+                + "ON CONFLICT (name) DO UPDATE SET name = excluded.name RETURNING id", Integer.class, name);
+        remember(dimension, added, name, pending());
+        return added;
+    }
+
+    // Interns every dimension of the transaction
+    public void intern(Transaction transaction) {
+        intern(Dimension.CATEGORY, transaction.getCategory());
+        intern(Dimension.MERCHANT, transaction.getMerchant());
+        intern(Dimension.TYPE, transaction.getType());
+        intern(Dimension.PAYMENT_METHOD, transaction.getPaymentMethod());
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (Dimension dimension : Dimension.values()) {
+                Values values = committed.get(dimension);
+                jdbcTemplate.query("SELECT id, name FROM " + dimension.table(), rs -> {
+                    values.put(rs.getInt("id"), rs.getString("name"));
+                });
+            }
+            loaded = true;
+        }
+    }
+
+    private void remember(Dimension dimension, int id, String name, Pending pending) {
+        if (pending != null) {
+            pending.values(dimension).put(id, name);
+        } else {
+            committed.get(dimension).put(id, name);
+        }
+    }
+
+    // Entries learned by the current transaction, or null outside one
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final Map<Dimension, Values> values = new EnumMap<>(Dimension.class);
+
+        Values values(Dimension dimension) {
+            return values.computeIfAbsent(dimension, key -> new Values());
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(DimensionDictionary.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(DimensionDictionary.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DimensionDictionary.this);
+            if (status == STATUS_COMMITTED) {
+                values.forEach((dimension, learned) -> learned.ids.forEach(
+                        (name, id) -> committed.get(dimension).put(id, name)));
+            }
+        }
+    }
+
+    // Both directions of one lookup table. Ids are small rowids, so names are indexed by id in an array.
+    private static final class Values {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[64];
+
+        Integer id(String name) {
+            return ids.get(name);
+        }
+
+        String name(int id) {
+            String[] current = names;
+            return id > 0 && id < current.length ? current[id] : null;
+        }
+
+        synchronized void put(int id, String name) {
+            String[] current = names;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+            }
+            current[id] = name;
+            // Volatile write after the element write, so a reader that sees the array sees the name
+            names = current;
+            ids.put(name, id);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.findash.repository;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import com.findash.model.Money;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Grouped aggregates over the transactions table in a single query, plus the same query on every
+// archived year the date filter reaches (see TransactionPartitions), merged per group.
+// Amounts are stored and summed as integer cents, so totals are exact. Groups are formed on the
+// dimension ids and named through the dictionary, then ordered by name.
+@Repository
+public class TransactionAggregateRepository {
+
+    // Dates are stored as epoch milliseconds at local midnight
+    public static final String MONTH_EXPRESSION = "strftime('%Y-%m', date / 1000, 'unixepoch', 'localtime')";
+
+    private static final Map<AggregateDimension, String> COLUMNS = new EnumMap<>(Map.of(
+            AggregateDimension.CATEGORY, Dimension.CATEGORY.column(),
+            AggregateDimension.MERCHANT, Dimension.MERCHANT.column(),
+            AggregateDimension.MONTH, MONTH_EXPRESSION));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionPartitions partitions;
+
+    public TransactionAggregateRepository(NamedParameterJdbcTemplate jdbcTemplate, DimensionDictionary dictionary,
+                                          TransactionPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.partitions = partitions;
+    }
+
+    public List<AggregateRow> aggregate(Set<AggregateDimension> groupBy, AggregateFilter filter) {
+        return AggregateRow.merge(aggregate(jdbcTemplate, groupBy, filter), aggregateArchived(groupBy, filter));
+    }
+
+    // Only the archived years in the filter's date range; empty without touching any file when there are none
+    public List<AggregateRow> aggregateArchived(Set<AggregateDimension> groupBy, AggregateFilter filter) {
+        List<AggregateRow> rows = List.of();
+        for (ArchivePartition partition : partitions.archived(filter.startDate(), filter.endDate())) {
+            rows = AggregateRow.merge(rows, aggregate(partitions.jdbcTemplate(partition), groupBy, filter));
+        }
+        return rows;
+    }
+
+    private List<AggregateRow> aggregate(NamedParameterJdbcTemplate jdbcTemplate, Set<AggregateDimension> groupBy,
+                                         AggregateFilter filter) {
+        List<String> keys = new ArrayList<>();
+        List<String> groupColumns = new ArrayList<>();
+        keys.add("type_id");
+        groupColumns.add("type_id");
+        for (AggregateDimension dimension : AggregateDimension.values()) {
+            if (groupBy.contains(dimension)) {
+                String alias = dimension.name().toLowerCase(Locale.ROOT);
+                keys.add(COLUMNS.get(dimension) + " AS " + alias);
+                groupColumns.add(alias);
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", keys))
+                .append(", COUNT(*) AS txn_count")
+                .append(", SUM(amount_cents) AS total_cents")
+                .append(", MIN(amount_cents) AS min_cents")
+                .append(", MAX(amount_cents) AS max_cents")
+                .append(" FROM transactions WHERE 1 = 1");
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (filter.startDate() != null) {
+            sql.append(" AND date >= :startDate");
+            params.addValue("startDate", Date.valueOf(filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            sql.append(" AND date <= :endDate");
+            params.addValue("endDate", Date.valueOf(filter.endDate()));
+        }
+        if (filter.category() != null) {
+            sql.append(" AND ").append(Dimension.CATEGORY.matchesIgnoringCase(":category"));
+            params.addValue("category", filter.category());
+        }
+
+        sql.append(" GROUP BY ").append(String.join(", ", groupColumns));
+
+        List<AggregateRow> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> mapRow(rs, groupBy));
+        rows.sort(AggregateRow.ORDER);
+        return rows;
+    }
+
+    private AggregateRow mapRow(ResultSet rs, Set<AggregateDimension> groupBy) throws SQLException {
+        long count = rs.getLong("txn_count");
+        Money total = Money.ofCents(rs.getLong("total_cents"));
+        return new AggregateRow(
+                dictionary.name(Dimension.TYPE, rs.getInt("type_id")),
+                groupBy.contains(AggregateDimension.CATEGORY)
+                        ? dictionary.name(Dimension.CATEGORY, rs.getInt("category")) : null,
+                groupBy.contains(AggregateDimension.MERCHANT)
+                        ? dictionary.name(Dimension.MERCHANT, rs.getInt("merchant")) : null,
+                groupBy.contains(AggregateDimension.MONTH) ? rs.getString("month") : null,
+                count,
+                total,
+                Money.ofCents(rs.getLong("min_cents")),
+                Money.ofCents(rs.getLong("max_cents")),
+                total.dividedBy(count));
+    }
+}
@@ -0,0 +1,235 @@
+package com.findash.repository;
+
+import com.findash.dto.TransactionMatch;
+import com.findash.dto.TransactionPatch;
+import com.findash.model.Dimension;
+import com.findash.model.PooledIdGenerator;
+import com.findash.model.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Writes that bypass Hibernate. Rows are inserted with multi-row INSERT statements and deleted or
+// bulk-updated with one statement per slice of ids (or one per filter), so thousands of rows cost a
+// handful of statements and one commit. Single rows are updated or deleted by id with one statement
+// that returns the row, instead of loading it into the persistence context first. New dimension names
+// are interned on the way in. Callers are responsible for the surrounding transaction.
+@Repository
+public class TransactionBulkRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO transactions "
+            + "(id, date, description, category_id, merchant_id, amount_cents, type_id, payment_method_id, notes, "
+            + "created_at, updated_at, row_version) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Leaves out rows of a closed year that is still waiting to be moved, so that updates and deletes skip
+    // them as they skip archived rows instead of being aborted by the schema's closed-period triggers
+    private static final String OPEN = "date >= IFNULL((SELECT MAX(end_date) FROM transaction_partitions), date)";
+    private static final String UPDATE_BY_ID = "UPDATE transactions SET date = ?, description = ?, category_id = ?, "
+            + "merchant_id = ?, amount_cents = ?, type_id = ?, payment_method_id = ?, notes = ?, updated_at = ?, "
+            + "row_version = ? WHERE id = ? AND " + OPEN + " RETURNING *";
+
+    // Keeps each statement well under SQLite's bound-parameter limit
+    public static final int ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionRowMapper rowMapper;
+
+    public TransactionBulkRepository(JdbcTemplate jdbcTemplate, DimensionDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.rowMapper = new TransactionRowMapper(dictionary);
+    }
+
+    // Ids come from the same id_allocator row as PooledIdGenerator, reserved in one statement for
+    // the whole list and set on the given transactions
+    public int insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        long id = reserveIds(transactions.size());
+        for (Transaction t : transactions) {
+            t.setId(id++);
+        }
+        return insertWithIds(transactions);
+    }
+
+    // Inserts transactions whose ids were reserved earlier (see reserveIds)
+    public int insertWithIds(List<Transaction> transactions) {
+        int inserted = 0;
+        for (int from = 0; from < transactions.size(); from += ROWS_PER_STATEMENT) {
+            List<Transaction> slice = transactions.subList(from, Math.min(from + ROWS_PER_STATEMENT, transactions.size()));
+            String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(slice.size(), ROW_PLACEHOLDERS));
+            inserted += jdbcTemplate.update(sql, ps -> bindRows(ps, slice));
+        }
+        return inserted;
+    }
+
+    // Reserves count consecutive transaction ids and returns the first
+    public long reserveIds(int count) {
+        Long end = jdbcTemplate.queryForObject(PooledIdGenerator.RESERVE_SQL, Long.class, count, "transactions");
+        return end - count;
+    }
+
+    // Those of the given ids that were ever used: present now, or deleted and tombstoned
+    public Set<Long> findUsedIds(List<Long> ids) {
+        Set<Long> used = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> slice = ids.subList(from, Math.min(from + ROWS_PER_STATEMENT, ids.size()));
+            String in = placeholders(slice.size());
+            List<Object> args = new ArrayList<>(slice);
+            args.addAll(slice);
+            used.addAll(jdbcTemplate.queryForList("SELECT id FROM transactions WHERE id IN (" + in + ") "
+                    + "UNION SELECT id FROM transaction_tombstones WHERE id IN (" + in + ")", Long.class, args.toArray()));
+        }
+        return used;
+    }
+
+    // Overwrites the editable fields, stamps updated_at with today (as @PreUpdate did) and returns the
+    // updated row, or empty if there is no such open row
+    public Optional<Transaction> updateById(Long id, Transaction details, long version) {
+        List<Transaction> rows = jdbcTemplate.query(UPDATE_BY_ID, this::mapVersioned,
+                Date.valueOf(details.getDate()), details.getDescription(),
+                dictionary.intern(Dimension.CATEGORY, details.getCategory()),
+                dictionary.intern(Dimension.MERCHANT, details.getMerchant()), details.getAmount().cents(),
+                dictionary.intern(Dimension.TYPE, details.getType()),
+                dictionary.intern(Dimension.PAYMENT_METHOD, details.getPaymentMethod()), details.getNotes(),
+                Date.valueOf(LocalDate.now()), version, id);
+        return rows.stream().findFirst();
+    }
+
+    // Deletes the row and returns it as it was, or empty if there is no such open row
+    public Optional<Transaction> deleteById(Long id) {
+        List<Transaction> rows = jdbcTemplate.query("DELETE FROM transactions WHERE id = ? AND " + OPEN
+                + " RETURNING *", this::mapVersioned, id);
+        return rows.stream().findFirst();
+    }
+
+    // Deletes the rows with the given ids and returns the ids that existed and were open
+    public List<Long> deleteByIds(List<Long> ids) {
+        List<Long> deleted = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> slice = ids.subList(from, Math.min(from + ROWS_PER_STATEMENT, ids.size()));
+            deleted.addAll(jdbcTemplate.queryForList("DELETE FROM transactions WHERE id IN (" + placeholders(slice.size())
+                    + ") AND " + OPEN + " RETURNING id", Long.class, slice.toArray()));
+        }
+        return deleted;
+    }
+
+    // Applies the patch to every matching row that it would actually change and stamps those rows with
+    // the version and today's updated_at. Returns the number of rows changed.
+    public int updateWhere(TransactionMatch where, TransactionPatch set, long version) {
+        // Column -> new value; LinkedHashMap keeps the binding order and allows clearing to null
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (set.description() != null) {
+            changes.put("description", set.description());
+        }
+        if (set.category() != null) {
+            changes.put(Dimension.CATEGORY.column(), dictionary.intern(Dimension.CATEGORY, set.category()));
+        }
+        if (set.merchant() != null) {
+            changes.put(Dimension.MERCHANT.column(), dictionary.intern(Dimension.MERCHANT, set.merchant()));
+        }
+        if (set.type() != null) {
+            changes.put(Dimension.TYPE.column(), dictionary.intern(Dimension.TYPE, set.type()));
+        }
+        if (set.paymentMethod() != null) {
+            changes.put(Dimension.PAYMENT_METHOD.column(), set.paymentMethod().isEmpty() ? null
+                    : dictionary.intern(Dimension.PAYMENT_METHOD, set.paymentMethod()));
+        }
+        if (set.notes() != null) {
+            changes.put("notes", set.notes());
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> conditionArgs = new ArrayList<>();
+        if (where.merchant() != null) {
+            conditions.add(Dimension.MERCHANT.matchesIgnoringCase("?"));
+            conditionArgs.add(where.merchant());
+        }
+        if (where.category() != null) {
+            conditions.add(Dimension.CATEGORY.matchesIgnoringCase("?"));
+            conditionArgs.add(where.category());
+        }
+        if (where.type() != null) {
+            conditions.add("type_id = ?");
+            conditionArgs.add(dictionary.id(Dimension.TYPE, where.type()));
+        }
+        if (where.startDate() != null) {
+            conditions.add("date >= ?");
+            conditionArgs.add(Date.valueOf(where.startDate()));
+        }
+        if (where.endDate() != null) {
+            conditions.add("date <= ?");
+            conditionArgs.add(Date.valueOf(where.endDate()));
+        }
+        conditions.add(OPEN);
+        // Rows already holding the new values are left alone, so they keep their version
+        conditions.add(changes.keySet().stream().map(column -> column + " IS NOT ?")
+                .collect(Collectors.joining(" OR ", "(", ")")));
+
+        String sql = "UPDATE transactions SET "
+                + changes.keySet().stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + ", updated_at = ?, row_version = ? WHERE " + String.join(" AND ", conditions);
+        List<Object> args = new ArrayList<>(changes.values());
+        args.add(Date.valueOf(LocalDate.now()));
+        args.add(version);
+        args.addAll(conditionArgs);
+        args.addAll(changes.values());
+        if (where.ids() == null || where.ids().isEmpty()) {
+            return jdbcTemplate.update(sql, args.toArray());
+        }
+
+        int updated = 0;
+        for (int from = 0; from < where.ids().size(); from += ROWS_PER_STATEMENT) {
+            List<Long> slice = where.ids().subList(from, Math.min(from + ROWS_PER_STATEMENT, where.ids().size()));
+            List<Object> sliceArgs = new ArrayList<>(args);
+            sliceArgs.addAll(slice);
+            updated += jdbcTemplate.update(sql + " AND id IN (" + placeholders(slice.size()) + ")", sliceArgs.toArray());
+        }
+        return updated;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private Transaction mapVersioned(ResultSet rs, int rowNum) throws SQLException {
+        Transaction transaction = rowMapper.mapRow(rs, rowNum);
+        transaction.setRowVersion(rs.getLong("row_version"));
+        return transaction;
+    }
+
+    private void bindRows(PreparedStatement ps, List<Transaction> rows) throws SQLException {
+        Date today = Date.valueOf(LocalDate.now());
+        int index = 1;
+        for (Transaction t : rows) {
+            ps.setLong(index++, t.getId());
+            ps.setDate(index++, Date.valueOf(t.getDate()));
+            ps.setString(index++, t.getDescription());
+            ps.setInt(index++, dictionary.intern(Dimension.CATEGORY, t.getCategory()));
+            ps.setInt(index++, dictionary.intern(Dimension.MERCHANT, t.getMerchant()));
+            ps.setLong(index++, t.getAmount().cents());
+            ps.setInt(index++, dictionary.intern(Dimension.TYPE, t.getType()));
+            ps.setObject(index++, dictionary.intern(Dimension.PAYMENT_METHOD, t.getPaymentMethod()));
+            ps.setString(index++, t.getNotes());
+            ps.setDate(index++, today);
+            ps.setDate(index++, today);
+            ps.setLong(index++, t.getRowVersion());
+        }
+    }
+}
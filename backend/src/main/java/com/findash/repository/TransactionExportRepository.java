@@ -0,0 +1,59 @@
+package com.findash.repository;
+
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Forward-only scans for exports: every transaction matching a filter, newest first, from the live table
+// and then from each archived year the date range reaches, newest year first. Rows go to the handler as
+// the cursor steps over them and are never collected. Columns are those of SELECT_COLUMNS, in order,
+// with dimensions as their stored ids and dates as epoch milliseconds at local midnight.
+@Repository
+public class TransactionExportRepository {
+
+    public static final String SELECT_COLUMNS =
+            "id, date, description, category_id, merchant_id, amount_cents, type_id, payment_method_id, notes";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionPartitions partitions;
+
+    public TransactionExportRepository(NamedParameterJdbcTemplate jdbcTemplate, TransactionPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+    }
+
+    public void forEach(AggregateFilter filter, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(SELECT_COLUMNS).append(" FROM transactions WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (filter.startDate() != null) {
+            sql.append(" AND date >= :startDate");
+            params.addValue("startDate", Date.valueOf(filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            sql.append(" AND date <= :endDate");
+            params.addValue("endDate", Date.valueOf(filter.endDate()));
+        }
+        if (filter.category() != null) {
+            sql.append(" AND ").append(Dimension.CATEGORY.matchesIgnoringCase(":category"));
+            params.addValue("category", filter.category());
+        }
+        // Along idx_transactions_date_id, so the rows stream without a sort
+        sql.append(" ORDER BY date DESC, id DESC");
+
+        jdbcTemplate.query(sql.toString(), params, handler);
+        List<ArchivePartition> archived = new ArrayList<>(partitions.archived(filter.startDate(), filter.endDate()));
+        Collections.reverse(archived);
+        for (ArchivePartition partition : archived) {
+            partitions.jdbcTemplate(partition).query(sql.toString(), params, handler);
+        }
+    }
+}
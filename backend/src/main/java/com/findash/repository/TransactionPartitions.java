@@ -0,0 +1,288 @@
+package com.findash.repository;
+
+import com.findash.config.ArchiveProperties;
+import com.findash.config.DataSourceConfig;
+import com.findash.config.QueryMetricsListener;
+import com.findash.config.SqliteProperties;
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Catalog of closed years (transaction_partitions, see schema.sql) and access to the archived ones.
+// The live transactions table holds the open years. Each archived year is its own SQLite file with
+// the same transactions table and indexes (without the full-text index and change versions) plus the
+// lookup rows it references, written once and then opened immutable: reads take no locks and the
+// file never changes. Queries that can reach back into closed years ask for the archived partitions
+// overlapping their date range and run their SQL against each, so a query on open years alone never
+// opens an archive file.
+//
+// The catalog is read inside the caller's transaction, so a reader sees a year either in the live
+// table or archived, never both or neither, even while it is being moved. A plain component rather
+// than a @Repository so requireOpen's IllegalArgumentException reaches the caller untranslated.
+@Component
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class TransactionPartitions implements DisposableBean {
+
+    private static final String COLUMNS = "id, date, description, category_id, merchant_id, amount_cents, type_id, "
+            + "payment_method_id, notes, created_at, updated_at";
+
+    private static final String SELECT_PARTITIONS = "SELECT name, start_date, end_date, file, row_count, first_id, "
+            + "last_id FROM transaction_partitions";
+
+    // Schema of an archive file; indexes are created after the rows are copied
+    private static final List<String> ARCHIVE_TABLES = List.of(
+            "CREATE TABLE transactions (id INTEGER PRIMARY KEY, date INTEGER NOT NULL, description TEXT NOT NULL, "
+                    + "category_id INTEGER NOT NULL, merchant_id INTEGER NOT NULL, amount_cents INTEGER NOT NULL, "
+                    + "type_id INTEGER NOT NULL, payment_method_id INTEGER, notes TEXT NOT NULL, "
+                    + "created_at INTEGER, updated_at INTEGER)");
+
+    private static final List<String> ARCHIVE_INDEXES = List.of(
+            "CREATE INDEX idx_transactions_date_id ON transactions (date, id)",
+            "CREATE INDEX idx_transactions_type_id_date ON transactions (type_id, date)",
+            "CREATE INDEX idx_transactions_category_id ON transactions (category_id)",
+            "CREATE INDEX idx_transactions_merchant_id ON transactions (merchant_id)");
+
+    private static final RowMapper<ArchivePartition> PARTITION = (rs, rowNum) -> new ArchivePartition(
+            rs.getString("name"),
+            rs.getDate("start_date").toLocalDate(),
+            rs.getDate("end_date").toLocalDate(),
+            rs.getString("file"),
+            nullableLong(rs, "row_count"),
+            nullableLong(rs, "first_id"),
+            nullableLong(rs, "last_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveProperties properties;
+    private final SqliteProperties sqlite;
+    private final QueryMetricsListener queryMetricsListener;
+    // Open archive files by file name
+    private final Map<String, Archive> archives = new ConcurrentHashMap<>();
+    // First date that is not closed, or null when nothing is; cached for requireOpen and only moves forward
+    private volatile LocalDate closedBefore;
+    private volatile boolean loaded;
+
+    public TransactionPartitions(JdbcTemplate jdbcTemplate, ArchiveProperties properties, SqliteProperties sqlite,
+                                 QueryMetricsListener queryMetricsListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.sqlite = sqlite;
+        this.queryMetricsListener = queryMetricsListener;
+    }
+
+    // Every closed year, oldest first
+    public List<ArchivePartition> all() {
+        return jdbcTemplate.query(SELECT_PARTITIONS + " ORDER BY start_date", PARTITION);
+    }
+
+    // Archived years with a date in [from, to], oldest first; null bounds are open
+    public List<ArchivePartition> archived(LocalDate from, LocalDate to) {
+        List<ArchivePartition> archived = new ArrayList<>();
+        for (ArchivePartition partition : all()) {
+            if (partition.isArchived() && partition.overlaps(from, to)) {
+                archived.add(partition);
+            }
+        }
+        return archived;
+    }
+
+    public LocalDate closedBefore() {
+        if (!loaded) {
+            refresh();
+        }
+        return closedBefore;
+    }
+
+    // Rejects a write dated in a closed year; the schema's triggers enforce the same rule
+    public void requireOpen(LocalDate date) {
+        LocalDate boundary = closedBefore();
+        if (date != null && boundary != null && date.isBefore(boundary)) {
+            throw new IllegalArgumentException("Transactions dated before " + boundary + " are archived and read-only");
+        }
+    }
+
+    // Re-reads the closed boundary after the catalog has changed
+    public void refresh() {
+        Date boundary = jdbcTemplate.queryForObject("SELECT MAX(end_date) FROM transaction_partitions", Date.class);
+        closedBefore = boundary != null ? boundary.toLocalDate() : null;
+        loaded = true;
+    }
+
+    // Query access to an archived partition's file, opened on first use
+    public NamedParameterJdbcTemplate jdbcTemplate(ArchivePartition partition) {
+        return archives.computeIfAbsent(partition.file(), file -> open(partition)).jdbcTemplate();
+    }
+
+    // Closes every year before openFrom that still has rows in the live table, so nothing can be written
+    // to it any more, and returns all closed years not yet archived, oldest first. Must run in a write
+    // transaction.
+    public List<ArchivePartition> close(LocalDate openFrom) {
+        Date first = jdbcTemplate.queryForObject("SELECT MIN(date) FROM transactions WHERE date < ?", Date.class,
+                Date.valueOf(openFrom));
+        if (first != null) {
+            for (int year = first.toLocalDate().getYear(); year < openFrom.getYear(); year++) {
+                LocalDate start = LocalDate.of(year, 1, 1);
+                LocalDate end = start.plusYears(1);
+                List<Integer> rows = jdbcTemplate.queryForList(
+                        "SELECT 1 FROM transactions WHERE date >= ? AND date < ? LIMIT 1", Integer.class,
+                        Date.valueOf(start), Date.valueOf(end));
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.update("INSERT OR IGNORE INTO transaction_partitions (name, start_date, end_date, file) "
+                                    + "VALUES (?, ?, ?, ?)", String.valueOf(year), Date.valueOf(start),
+                            Date.valueOf(end), "transactions-" + year + ".db");
+                }
+            }
+        }
+        return jdbcTemplate.query(SELECT_PARTITIONS + " WHERE row_count IS NULL ORDER BY start_date", PARTITION);
+    }
+
+    // Copies a closed year's rows from the live table into a new archive file, compacted, and returns the
+    // partition with its row count and id range. Runs on its own connection, outside any transaction:
+    // the year is closed, so its rows cannot change while they are copied. The file only appears under
+    // its final name once complete.
+    public ArchivePartition writeArchive(ArchivePartition partition) {
+        Path target = path(partition);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        String live = jdbcTemplate.queryForObject("SELECT file FROM pragma_database_list WHERE name = 'main'",
+                String.class);
+        long[] stats = new long[3];
+        try {
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(temp);
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + temp);
+                 Statement statement = connection.createStatement()) {
+                // The file is only renamed into place once complete, so it needs no journal while built
+                statement.execute("PRAGMA journal_mode = OFF");
+                statement.execute("PRAGMA synchronous = OFF");
+                statement.execute("ATTACH DATABASE '" + (Path.of(live).toUri() + "?mode=ro").replace("'", "''")
+                        + "' AS live");
+                for (String sql : ARCHIVE_TABLES) {
+                    statement.execute(sql);
+                }
+                try (PreparedStatement copy = connection.prepareStatement("INSERT INTO transactions (" + COLUMNS
+                        + ") SELECT " + COLUMNS + " FROM live.transactions WHERE date >= ? AND date < ? ORDER BY id")) {
+                    copy.setDate(1, Date.valueOf(partition.startDate()));
+                    copy.setDate(2, Date.valueOf(partition.endDate()));
+                    copy.executeUpdate();
+                }
+                // Only the lookup rows this year's transactions reference; ids are never reused, so they
+                // keep naming the same values
+                for (Dimension dimension : Dimension.values()) {
+                    statement.execute("CREATE TABLE " + dimension.table() + " (id INTEGER PRIMARY KEY, "
+                            + "name TEXT NOT NULL UNIQUE, name_key TEXT GENERATED ALWAYS AS (lower(name)) VIRTUAL)");
+                    statement.execute("CREATE INDEX idx_" + dimension.table() + "_name_key ON " + dimension.table()
+                            + " (name_key)");
+                    statement.execute("INSERT INTO " + dimension.table() + " (id, name) SELECT id, name FROM live."
+                            + dimension.table() + " WHERE id IN (SELECT " + dimension.column() + " FROM transactions)");
+                }
+                for (String sql : ARCHIVE_INDEXES) {
+                    statement.execute(sql);
+                }
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT COUNT(*), MIN(id), MAX(id) FROM transactions")) {
+                    rs.next();
+                    stats[0] = rs.getLong(1);
+                    stats[1] = rs.getLong(2);
+                    stats[2] = rs.getLong(3);
+                }
+                statement.execute("DETACH DATABASE live");
+                statement.execute("VACUUM");
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive file " + target, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not write archive file " + target, e);
+        }
+        return new ArchivePartition(partition.name(), partition.startDate(), partition.endDate(), partition.file(),
+                stats[0], stats[1], stats[2]);
+    }
+
+    // Switches a year written by writeArchive from the live table to its archive file: marks it archived
+    // and deletes its rows from the live table. The year's rollup buckets are put back afterwards, so
+    // summaries and budgets still cover it. Must run in a write transaction.
+    public void moveToArchive(ArchivePartition partition) {
+        Date start = Date.valueOf(partition.startDate());
+        Date end = Date.valueOf(partition.endDate());
+        Long liveRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE date >= ? AND date < ?", Long.class, start, end);
+        if (liveRows == null || !liveRows.equals(partition.rowCount())) {
+            throw new IllegalStateException("Archive of " + partition.name() + " has " + partition.rowCount()
+                    + " rows but the live table has " + liveRows);
+        }
+        String firstPeriod = YearMonth.from(partition.startDate()).toString();
+        String lastPeriod = YearMonth.from(partition.endDate().minusDays(1)).toString();
+        List<Map<String, Object>> buckets = jdbcTemplate.queryForList("SELECT period, category_id, type_id, "
+                + "total_cents, txn_count, min_cents, max_cents FROM transaction_rollups "
+                + "WHERE period >= ? AND period <= ?",
+                firstPeriod, lastPeriod);
+        jdbcTemplate.update("UPDATE transaction_partitions SET row_count = ?, first_id = ?, last_id = ? WHERE name = ?",
+                partition.rowCount(), partition.firstId(), partition.lastId(), partition.name());
+        jdbcTemplate.update("DELETE FROM transactions WHERE date >= ? AND date < ?", start, end);
+        jdbcTemplate.batchUpdate("INSERT OR REPLACE INTO transaction_rollups (period, category_id, type_id, "
+                        + "total_cents, txn_count, min_cents, max_cents) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                buckets.stream().map(bucket -> new Object[]{bucket.get("period"), bucket.get("category_id"),
+                        bucket.get("type_id"), bucket.get("total_cents"), bucket.get("txn_count"),
+                        bucket.get("min_cents"), bucket.get("max_cents")}).toList());
+    }
+
+    public Path path(ArchivePartition partition) {
+        return Path.of(properties.getDirectory()).toAbsolutePath().resolve(partition.file());
+    }
+
+    @Override
+    public void destroy() {
+        archives.values().forEach(archive -> archive.pool().close());
+        archives.clear();
+    }
+
+    private Archive open(ArchivePartition partition) {
+        Path file = path(partition);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Archive file for " + partition.name() + " is missing: " + file);
+        }
+        // immutable: SQLite takes no locks and never looks for a journal
+        HikariDataSource pool = DataSourceConfig.newPool("findash-archive-" + partition.name(),
+                "jdbc:sqlite:" + file.toUri() + "?immutable=1", sqlite);
+        pool.setMinimumIdle(0);
+        pool.setMaximumPoolSize(sqlite.getReadPoolSize());
+        return new Archive(pool, new NamedParameterJdbcTemplate(DataSourceConfig.timed(pool, queryMetricsListener)));
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private record Archive(HikariDataSource pool, NamedParameterJdbcTemplate jdbcTemplate) {
+    }
+}
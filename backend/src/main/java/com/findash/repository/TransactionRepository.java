@@ -1,12 +1,17 @@
 package com.findash.repository;
 
 import com.findash.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -14,21 +19,47 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Find transactions by type (Income/Expense)
     List<Transaction> findByType(String type);
     
-    // Find transactions by category
-    // Find transactions by category (case-insensitive)
-    @Query("SELECT t FROM Transaction t WHERE LOWER(t.category) = LOWER(?1)")
+    // Find transactions by category (case-insensitive: the ids of every matching lookup name)
+    @Query(value = "SELECT * FROM transactions WHERE category_id IN "
+            + "(SELECT id FROM categories WHERE name_key = lower(?1))", nativeQuery = true)
     List<Transaction> findByCategory(String category);
     
     // Find transactions by date range
     List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate);
     
-    // Find transactions by merchant
-    List<Transaction> findByMerchantContainingIgnoreCase(String merchant);
+    // Find transactions whose merchant starts with the given prefix (case-insensitive): a range scan over
+    // the merchant lookup table drives the join, so rows come out in merchant order without a sort
+    @Query(value = "SELECT t.* FROM merchants m CROSS JOIN transactions t ON t.merchant_id = m.id "
+            + "WHERE m.name_key >= lower(?1) AND m.name_key < lower(?1) || char(1114111) "
+            + "ORDER BY m.name_key", nativeQuery = true)
+    List<Transaction> findByMerchantPrefix(String prefix);
     
     // Get all transactions ordered by date descending
     List<Transaction> findAllByOrderByDateDesc();
     
-    // Calculate total by type
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.type = ?1")
-    Double getTotalByType(String type);
+    // First page of the keyset listing, newest first
+    @Query("SELECT t FROM Transaction t ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPage(Limit limit);
+    
+    // Next page of the keyset listing, strictly after the (date, id) of the previous page's last row.
+    // Native so SQLite sees a row-value comparison it can turn into a range seek on idx_transactions_date_id.
+    @Query(value = "SELECT * FROM transactions WHERE (date, id) < (?1, ?2) ORDER BY date DESC, id DESC",
+            nativeQuery = true)
+    List<Transaction> findPageAfter(LocalDate date, Long id, Limit limit);
+    
+    // Forward-only cursor over all transactions, newest first; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t ORDER BY t.date DESC, t.id DESC")
+    Stream<Transaction> streamAllByOrderByDateDescIdDesc();
+    
+    // Rows inserted or updated after the given change version, oldest change first
+    List<Transaction> findByRowVersionGreaterThanOrderByRowVersionAscIdAsc(long version);
+    
+    // Calculate total by type in integer cents, so the sum is exact
+    @Query(value = "SELECT SUM(amount_cents) FROM transactions "
+            + "WHERE type_id = (SELECT id FROM transaction_types WHERE name = ?1)", nativeQuery = true)
+    Long getTotalCentsByType(String type);
 }
@@ -0,0 +1,140 @@
+package com.findash.repository;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import com.findash.model.Money;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Reads and maintenance for the transaction_rollups table (see schema.sql).
+// Rows are kept current by triggers; this class only reads them, rebuilds them and checks them.
+// Buckets of archived years stay in the table; rebuilds and checks read those years from their files.
+@Repository
+public class TransactionRollupRepository {
+
+    // Live per-bucket totals computed from the transactions table, in the same shape as transaction_rollups
+    private static final String LIVE_BUCKETS =
+            "SELECT " + TransactionAggregateRepository.MONTH_EXPRESSION + " AS period, category_id, type_id, "
+                    + "SUM(amount_cents) AS total_cents, COUNT(*) AS txn_count, MIN(amount_cents) AS min_cents, "
+                    + "MAX(amount_cents) AS max_cents FROM transactions GROUP BY 1, 2, 3";
+
+    private static final String INSERT_BUCKET = "INSERT INTO transaction_rollups "
+            + "(period, category_id, type_id, total_cents, txn_count, min_cents, max_cents) ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionPartitions partitions;
+
+    public TransactionRollupRepository(NamedParameterJdbcTemplate jdbcTemplate, DimensionDictionary dictionary,
+                                       TransactionPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.partitions = partitions;
+    }
+
+    // Totals per type and the requested dimensions (CATEGORY and/or MONTH), for periods in [startMonth, endMonth]
+    public List<AggregateRow> totals(Set<AggregateDimension> groupBy, YearMonth startMonth, YearMonth endMonth,
+                                     String category) {
+        if (groupBy.contains(AggregateDimension.MERCHANT)) {
+            throw new IllegalArgumentException("Rollups are not kept per merchant");
+        }
+        boolean byCategory = groupBy.contains(AggregateDimension.CATEGORY);
+        boolean byMonth = groupBy.contains(AggregateDimension.MONTH);
+
+        List<String> keys = new ArrayList<>();
+        keys.add("type_id");
+        if (byCategory) {
+            keys.add("category_id");
+        }
+        if (byMonth) {
+            keys.add("period");
+        }
+        String grouping = String.join(", ", keys);
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(grouping)
+                .append(", SUM(txn_count) AS txn_count, SUM(total_cents) AS total_cents")
+                .append(", MIN(min_cents) AS min_cents, MAX(max_cents) AS max_cents")
+                .append(" FROM transaction_rollups WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (startMonth != null) {
+            sql.append(" AND period >= :startMonth");
+            params.addValue("startMonth", startMonth.toString());
+        }
+        if (endMonth != null) {
+            sql.append(" AND period <= :endMonth");
+            params.addValue("endMonth", endMonth.toString());
+        }
+        if (category != null) {
+            sql.append(" AND ").append(Dimension.CATEGORY.matchesIgnoringCase(":category"));
+            params.addValue("category", category);
+        }
+        sql.append(" GROUP BY ").append(grouping);
+
+        List<AggregateRow> rows = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            long count = rs.getLong("txn_count");
+            Money total = Money.ofCents(rs.getLong("total_cents"));
+            return new AggregateRow(
+                    dictionary.name(Dimension.TYPE, rs.getInt("type_id")),
+                    byCategory ? dictionary.name(Dimension.CATEGORY, rs.getInt("category_id")) : null,
+                    null,
+                    byMonth ? rs.getString("period") : null,
+                    count,
+                    total,
+                    Money.ofCents(rs.getLong("min_cents")),
+                    Money.ofCents(rs.getLong("max_cents")),
+                    total.dividedBy(count));
+        });
+        rows.sort(AggregateRow.ORDER);
+        return rows;
+    }
+
+    // Number of buckets that differ between transaction_rollups and the rows they summarize, in either
+    // direction. Compared in memory, since archived years are summed in their own files.
+    public int countMismatches() {
+        Set<List<Object>> live = new HashSet<>(buckets(jdbcTemplate, LIVE_BUCKETS));
+        for (ArchivePartition partition : partitions.archived(null, null)) {
+            live.addAll(buckets(partitions.jdbcTemplate(partition), LIVE_BUCKETS));
+        }
+        Set<List<Object>> stored = new HashSet<>(buckets(jdbcTemplate,
+                "SELECT period, category_id, type_id, total_cents, txn_count, min_cents, max_cents "
+                        + "FROM transaction_rollups"));
+        int mismatches = 0;
+        for (List<Object> bucket : live) {
+            mismatches += stored.contains(bucket) ? 0 : 1;
+        }
+        for (List<Object> bucket : stored) {
+            mismatches += live.contains(bucket) ? 0 : 1;
+        }
+        return mismatches;
+    }
+
+    // Recompute every bucket from scratch, archived years included; returns the number of buckets written
+    public int rebuild() {
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM transaction_rollups");
+        int buckets = jdbcTemplate.getJdbcTemplate().update(INSERT_BUCKET + LIVE_BUCKETS);
+        for (ArchivePartition partition : partitions.archived(null, null)) {
+            List<Object[]> archived = buckets(partitions.jdbcTemplate(partition), LIVE_BUCKETS).stream()
+                    .map(List::toArray)
+                    .toList();
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_BUCKET + "VALUES (?, ?, ?, ?, ?, ?, ?)", archived);
+            buckets += archived.size();
+        }
+        return buckets;
+    }
+
+    // Rows of (period, category_id, type_id, total_cents, txn_count, min_cents, max_cents)
+    private static List<List<Object>> buckets(NamedParameterJdbcTemplate source, String sql) {
+        return source.getJdbcTemplate().query(sql, (rs, rowNum) -> List.<Object>of(rs.getString("period"),
+                rs.getLong("category_id"), rs.getLong("type_id"), rs.getLong("total_cents"), rs.getLong("txn_count"),
+                rs.getLong("min_cents"), rs.getLong("max_cents")));
+    }
+}
@@ -0,0 +1,42 @@
+package com.findash.repository;
+
+import com.findash.model.Dimension;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Maps a row of the transactions table (SELECT t.* or SELECT *) for queries that bypass Hibernate.
+// Dimension ids are turned back into names through the dictionary.
+public class TransactionRowMapper implements RowMapper<Transaction> {
+
+    private final DimensionDictionary dictionary;
+
+    public TransactionRowMapper(DimensionDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Transaction mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Transaction(
+                rs.getLong("id"),
+                toLocalDate(rs.getDate("date")),
+                rs.getString("description"),
+                dictionary.name(Dimension.CATEGORY, rs.getInt("category_id")),
+                dictionary.name(Dimension.MERCHANT, rs.getInt("merchant_id")),
+                Money.ofCents(rs.getLong("amount_cents")),
+                dictionary.name(Dimension.TYPE, rs.getInt("type_id")),
+                dictionary.name(Dimension.PAYMENT_METHOD, rs.getInt("payment_method_id")),
+                rs.getString("notes"),
+                toLocalDate(rs.getDate("created_at")),
+                toLocalDate(rs.getDate("updated_at")));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
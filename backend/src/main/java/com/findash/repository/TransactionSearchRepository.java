@@ -0,0 +1,69 @@
+package com.findash.repository;
+
+import com.findash.dto.SearchHit;
+import com.findash.model.Dimension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ranked full-text search over the transactions_fts index (see schema.sql).
+@Repository
+public class TransactionSearchRepository {
+
+    // Column weights for bm25, in the index's column order (description, merchant, notes): description
+    // matches rank above merchant, merchant above notes
+    private static final String RANK = "bm25(transactions_fts, 3.0, 2.0, 1.0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionRowMapper rowMapper;
+
+    public TransactionSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DimensionDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.rowMapper = new TransactionRowMapper(dictionary);
+    }
+
+    // matchExpression must already be valid FTS5 query syntax
+    public List<SearchHit> search(String matchExpression, String type, LocalDate startDate, LocalDate endDate,
+                                  int limit, int offset) {
+        StringBuilder sql = new StringBuilder("SELECT t.*, ").append(RANK).append(" AS score, ")
+                .append("highlight(transactions_fts, 0, '<mark>', '</mark>') AS description_hl, ")
+                .append("highlight(transactions_fts, 1, '<mark>', '</mark>') AS merchant_hl, ")
+                .append("snippet(transactions_fts, 2, '<mark>', '</mark>', '…', 16) AS notes_hl ")
+                // CROSS JOIN pins the FTS index as the outer loop; otherwise SQLite may drive from the
+                // type/date index and re-run the MATCH once per candidate row
+                .append("FROM transactions_fts CROSS JOIN transactions t ON t.id = transactions_fts.rowid ")
+                .append("WHERE transactions_fts MATCH :query");
+        MapSqlParameterSource params = new MapSqlParameterSource("query", matchExpression);
+        if (type != null) {
+            sql.append(" AND t.type_id = :typeId");
+            params.addValue("typeId", dictionary.id(Dimension.TYPE, type));
+        }
+        if (startDate != null) {
+            sql.append(" AND t.date >= :startDate");
+            params.addValue("startDate", Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND t.date <= :endDate");
+            params.addValue("endDate", Date.valueOf(endDate));
+        }
+        sql.append(" ORDER BY score, t.id DESC LIMIT :limit OFFSET :offset");
+        params.addValue("limit", limit);
+        params.addValue("offset", offset);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            Map<String, String> highlights = new LinkedHashMap<>();
+            highlights.put("description", rs.getString("description_hl"));
+            highlights.put("merchant", rs.getString("merchant_hl"));
+            highlights.put("notes", rs.getString("notes_hl"));
+            return new SearchHit(rowMapper.mapRow(rs, rowNum), rs.getDouble("score"), highlights);
+        });
+    }
+}
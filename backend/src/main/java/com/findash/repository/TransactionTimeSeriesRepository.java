@@ -0,0 +1,153 @@
+package com.findash.repository;
+
+import com.findash.dto.ArchivePartition;
+import com.findash.model.Dimension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Date-ordered income/expense totals for the time series endpoint, streamed to a callback row by row.
+// Every query walks idx_transactions_date_id in order, so SQLite never sorts or buffers the range:
+// plain totals are grouped per day, a category breakdown streams the rows themselves. Archived years
+// in the range are read first, oldest first, from their own files (see TransactionPartitions); they
+// are older than anything in the live table, so the callback still sees dates in order.
+@Repository
+public class TransactionTimeSeriesRepository {
+
+    public interface TotalsHandler {
+        // category is null unless a breakdown was requested
+        void accept(LocalDate date, String category, long incomeCents, long expenseCents, long count);
+    }
+
+    // Income and Expense type ids are bound as :income and :expense
+    private static final String TYPE_TOTALS =
+            "SUM(CASE WHEN type_id = :income THEN amount_cents ELSE 0 END) AS income_cents, "
+                    + "SUM(CASE WHEN type_id = :expense THEN amount_cents ELSE 0 END) AS expense_cents, "
+                    + "COUNT(*) AS txn_count";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionPartitions partitions;
+
+    public TransactionTimeSeriesRepository(NamedParameterJdbcTemplate jdbcTemplate, DimensionDictionary dictionary,
+                                           TransactionPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.partitions = partitions;
+    }
+
+    // Totals in [startDate, endDate] in date order: one row per day, or one per transaction with its category
+    public void forEachDay(LocalDate startDate, LocalDate endDate, String category, boolean byCategory,
+                           TotalsHandler handler) {
+        StringBuilder sql = new StringBuilder(byCategory
+                ? "SELECT date, category_id, type_id, amount_cents FROM transactions"
+                : "SELECT date, " + TYPE_TOTALS + " FROM transactions");
+        sql.append(" WHERE date >= :startDate AND date <= :endDate");
+        MapSqlParameterSource params = typeIds()
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        if (category != null) {
+            // Unary + keeps SQLite on the date index; the category index would need a sort by date
+            sql.append(" AND +").append(Dimension.CATEGORY.matchesIgnoringCase(":category"));
+            params.addValue("category", category);
+        }
+        sql.append(byCategory ? " ORDER BY date" : " GROUP BY date ORDER BY date");
+
+        for (ArchivePartition partition : partitions.archived(startDate, endDate)) {
+            forEachDay(partitions.jdbcTemplate(partition), sql.toString(), params, byCategory, handler);
+        }
+        forEachDay(jdbcTemplate, sql.toString(), params, byCategory, handler);
+    }
+
+    private void forEachDay(NamedParameterJdbcTemplate source, String sql, MapSqlParameterSource params,
+                            boolean byCategory, TotalsHandler handler) {
+        if (byCategory) {
+            // Consecutive rows mostly share a date, so convert each stored value once
+            long[] lastMillis = {Long.MIN_VALUE};
+            LocalDate[] lastDate = new LocalDate[1];
+            int income = dictionary.id(Dimension.TYPE, "Income");
+            int expense = dictionary.id(Dimension.TYPE, "Expense");
+            source.query(sql, params, rs -> {
+                long millis = rs.getLong("date");
+                if (millis != lastMillis[0]) {
+                    lastMillis[0] = millis;
+                    lastDate[0] = rs.getDate("date").toLocalDate();
+                }
+                int type = rs.getInt("type_id");
+                long cents = rs.getLong("amount_cents");
+                handler.accept(lastDate[0], dictionary.name(Dimension.CATEGORY, rs.getInt("category_id")),
+                        type == income ? cents : 0, type == expense ? cents : 0, 1);
+            });
+        } else {
+            source.query(sql, params, rs -> {
+                handler.accept(rs.getDate("date").toLocalDate(), null, rs.getLong("income_cents"),
+                        rs.getLong("expense_cents"), rs.getLong("txn_count"));
+            });
+        }
+    }
+
+    // Totals for months in [startMonth, endMonth] from the rollup table, dated the 1st of each month
+    public void forEachMonth(YearMonth startMonth, YearMonth endMonth, String category, boolean byCategory,
+                             TotalsHandler handler) {
+        String grouping = byCategory ? "period, category_id" : "period";
+        StringBuilder sql = new StringBuilder("SELECT ").append(grouping)
+                .append(", SUM(CASE WHEN type_id = :income THEN total_cents ELSE 0 END) AS income_cents")
+                .append(", SUM(CASE WHEN type_id = :expense THEN total_cents ELSE 0 END) AS expense_cents")
+                .append(", SUM(txn_count) AS txn_count")
+                .append(" FROM transaction_rollups WHERE period >= :startMonth AND period <= :endMonth");
+        MapSqlParameterSource params = typeIds()
+                .addValue("startMonth", startMonth.toString())
+                .addValue("endMonth", endMonth.toString());
+        if (category != null) {
+            sql.append(" AND ").append(Dimension.CATEGORY.matchesIgnoringCase(":category"));
+            params.addValue("category", category);
+        }
+        sql.append(" GROUP BY ").append(grouping).append(" ORDER BY ").append(grouping);
+
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            handler.accept(YearMonth.parse(rs.getString("period")).atDay(1),
+                    byCategory ? dictionary.name(Dimension.CATEGORY, rs.getInt("category_id")) : null,
+                    rs.getLong("income_cents"),
+                    rs.getLong("expense_cents"), rs.getLong("txn_count"));
+        });
+    }
+
+    // Earliest and latest transaction date (for the category, if given), or null when there are none
+    public LocalDate[] dateRange(String category) {
+        String sql = category != null
+                ? "SELECT MIN(date) AS first_date, MAX(date) AS last_date FROM transactions "
+                        + "WHERE " + Dimension.CATEGORY.matchesIgnoringCase(":category")
+                : "SELECT (SELECT MIN(date) FROM transactions) AS first_date, "
+                        + "(SELECT MAX(date) FROM transactions) AS last_date";
+        MapSqlParameterSource params = new MapSqlParameterSource("category", category);
+        // Archived years oldest first, then the live table: the first match has the earliest date, the last the latest
+        List<NamedParameterJdbcTemplate> sources = new ArrayList<>();
+        partitions.archived(null, null).forEach(partition -> sources.add(partitions.jdbcTemplate(partition)));
+        sources.add(jdbcTemplate);
+        LocalDate[] range = null;
+        for (NamedParameterJdbcTemplate source : sources) {
+            LocalDate[] found = source.query(sql, params, rs -> {
+                if (!rs.next() || rs.getObject("first_date") == null) {
+                    return null;
+                }
+                return new LocalDate[]{rs.getDate("first_date").toLocalDate(), rs.getDate("last_date").toLocalDate()};
+            });
+            if (found != null) {
+                range = range == null ? found : new LocalDate[]{range[0], found[1]};
+            }
+        }
+        return range;
+    }
+
+    private MapSqlParameterSource typeIds() {
+        return new MapSqlParameterSource()
+                .addValue("income", dictionary.id(Dimension.TYPE, "Income"))
+                .addValue("expense", dictionary.id(Dimension.TYPE, "Expense"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.TimeSeries;
+import com.findash.dto.TimeSeriesInterval;
+import com.findash.model.Money;
+import com.findash.repository.TransactionTimeSeriesRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "findash.service", histogram = true)
+public class AnalyticsService {
+    
+    public static final int MAX_POINTS = 10000;
+    public static final int MAX_WINDOW = 366;
+    
+    @Autowired
+    private TransactionTimeSeriesRepository timeSeriesRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    // Income, expense, running balance and moving averages per day/week/month bucket. Missing bounds
+    // default to the first/last transaction date. Whole-month monthly series are read from the rollup
+    // table, anything else from one date-ordered pass over the transactions table.
+    public TimeSeries getTimeSeries(TimeSeriesInterval interval, LocalDate startDate, LocalDate endDate,
+                                    String category, boolean byCategory, int window) {
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new IllegalArgumentException("window must be between 1 and " + MAX_WINDOW);
+        }
+        if (startDate == null || endDate == null) {
+            LocalDate[] range = timeSeriesRepository.dateRange(category);
+            if (range == null) {
+                return new TimeSeries(interval, window, startDate, endDate, Money.ZERO, List.of());
+            }
+            startDate = startDate != null ? startDate : range[0];
+            endDate = endDate != null ? endDate : range[1];
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        if (interval.bucketsBetween(startDate, endDate) > MAX_POINTS) {
+            throw new IllegalArgumentException("Range needs more than " + MAX_POINTS + " " + interval.name().toLowerCase(Locale.ROOT)
+                    + " buckets; use a shorter range or a wider interval");
+        }
+        
+        Money openingBalance = transactionService.getSummary(
+                new AggregateFilter(null, startDate.minusDays(1), category)).balance();
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(interval, window, startDate, endDate,
+                openingBalance.cents(), byCategory);
+        boolean wholeMonths = startDate.getDayOfMonth() == 1
+                && endDate.equals(YearMonth.from(endDate).atEndOfMonth());
+        if (interval == TimeSeriesInterval.MONTH && wholeMonths) {
+            timeSeriesRepository.forEachMonth(YearMonth.from(startDate), YearMonth.from(endDate), category, byCategory,
+                    accumulator::add);
+        } else {
+            timeSeriesRepository.forEachDay(startDate, endDate, category, byCategory, accumulator::add);
+        }
+        return new TimeSeries(interval, window, startDate, endDate, openingBalance, accumulator.finish());
+    }
+}
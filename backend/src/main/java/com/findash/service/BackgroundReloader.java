@@ -0,0 +1,114 @@
+package com.findash.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Rebuilds an in-memory structure kept from the database (TransactionSnapshot, RecurringDetector) on a
+// background thread. Changes committed while it loads are held back under the owner's lock and
+// replayed onto the loaded structure before it is installed, so replaying a change the load already
+// saw must be harmless. A reload asked for while one runs makes the loader go round once more, so a
+// burst of imports costs one or two loads.
+final class BackgroundReloader<T> {
+
+    private final String threadName;
+    // The owner's write lock: guards loading and pending, and is held while a loaded structure is installed
+    private final Lock lock;
+    private final Supplier<T> load;
+    private final BiConsumer<T, TransactionChangedEvent> apply;
+    private final Consumer<T> install;
+    private final Consumer<RuntimeException> failed;
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private final AtomicBoolean loaderRunning = new AtomicBoolean();
+
+    // Guarded by lock
+    private boolean loading;
+    private final List<TransactionChangedEvent> pending = new ArrayList<>();
+
+    BackgroundReloader(String threadName, Lock lock, Supplier<T> load, BiConsumer<T, TransactionChangedEvent> apply,
+                       Consumer<T> install, Consumer<RuntimeException> failed) {
+        this.threadName = threadName;
+        this.lock = lock;
+        this.load = load;
+        this.apply = apply;
+        this.install = install;
+        this.failed = failed;
+    }
+
+    // Starts the loader, or has the running one load again once it is done
+    void requestReload() {
+        reloadRequested.set(true);
+        if (loaderRunning.compareAndSet(false, true)) {
+            Thread loader = new Thread(this::reloadWhileRequested, threadName);
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    // Whether a reload was asked for that has not started yet
+    boolean isReloadRequested() {
+        return reloadRequested.get();
+    }
+
+    // Holds back a change committed while a load runs, to be replayed onto its result. Called under the
+    // lock; when it returns false the caller applies the change to the current structure itself.
+    boolean deferIfLoading(TransactionChangedEvent event) {
+        if (loading) {
+            pending.add(event);
+        }
+        return loading;
+    }
+
+    private void reloadWhileRequested() {
+        try {
+            while (reloadRequested.getAndSet(false)) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            failed.accept(e);
+        } finally {
+            loaderRunning.set(false);
+            if (reloadRequested.get()) {
+                requestReload();
+            }
+        }
+    }
+
+    private void reload() {
+        lock.lock();
+        try {
+            loading = true;
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        T loaded;
+        try {
+            loaded = load.get();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                loading = false;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        lock.lock();
+        try {
+            for (TransactionChangedEvent event : pending) {
+                apply.accept(loaded, event);
+            }
+            pending.clear();
+            loading = false;
+            install.accept(loaded);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
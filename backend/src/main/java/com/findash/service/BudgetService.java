@@ -0,0 +1,99 @@
+package com.findash.service;
+
+import com.findash.dto.BudgetStatus;
+import com.findash.model.BudgetGoal;
+import com.findash.model.CategoryBudget;
+import com.findash.repository.BudgetGoalRepository;
+import com.findash.repository.BudgetStatusRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@Transactional
+@Timed(value = "findash.service", histogram = true)
+public class BudgetService {
+    
+    @Autowired
+    private BudgetGoalRepository budgetGoalRepository;
+    
+    @Autowired
+    private BudgetStatusRepository budgetStatusRepository;
+    
+    @Transactional(readOnly = true)
+    public List<BudgetGoal> getAllGoals() {
+        return budgetGoalRepository.findAll();
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<BudgetGoal> getGoalById(Long id) {
+        return budgetGoalRepository.findById(id);
+    }
+    
+    public BudgetGoal createGoal(BudgetGoal goal) {
+        validate(goal);
+        goal.setId(null);
+        goal.getCategoryBudgets().forEach(budget -> budget.setId(null));
+        if (goal.getStartDate() == null) {
+            goal.setStartDate(LocalDate.now());
+        }
+        return budgetGoalRepository.save(goal);
+    }
+    
+    public BudgetGoal updateGoal(Long id, BudgetGoal goalDetails) {
+        BudgetGoal goal = budgetGoalRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget goal not found with id: " + id));
+        validate(goalDetails);
+        
+        goal.setMonthlyIncome(goalDetails.getMonthlyIncome());
+        goal.setSavingsGoal(goalDetails.getSavingsGoal());
+        goal.setTargetDate(goalDetails.getTargetDate());
+        goal.setSavingPurpose(goalDetails.getSavingPurpose());
+        if (goalDetails.getStartDate() != null) {
+            goal.setStartDate(goalDetails.getStartDate());
+        }
+        // Replaced in place so orphan removal deletes the limits that were dropped
+        goal.getCategoryBudgets().clear();
+        for (CategoryBudget budget : goalDetails.getCategoryBudgets()) {
+            goal.getCategoryBudgets().add(new CategoryBudget(budget.getCategory(), budget.getLimit()));
+        }
+        
+        return budgetGoalRepository.save(goal);
+    }
+    
+    public void deleteGoal(Long id) {
+        BudgetGoal goal = budgetGoalRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Budget goal not found with id: " + id));
+        budgetGoalRepository.delete(goal);
+    }
+    
+    // Status of every goal for the month in one query over the rollup table
+    @Transactional(readOnly = true)
+    public List<BudgetStatus> getStatuses(YearMonth month) {
+        return budgetStatusRepository.statuses(month != null ? month : YearMonth.now());
+    }
+    
+    private static void validate(BudgetGoal goal) {
+        if (goal.getMonthlyIncome().signum() < 0 || goal.getSavingsGoal().signum() < 0) {
+            throw new IllegalArgumentException("Monthly income and savings goal must not be negative");
+        }
+        Set<String> categories = new HashSet<>();
+        for (CategoryBudget budget : goal.getCategoryBudgets()) {
+            if (budget.getLimit().signum() < 0) {
+                throw new IllegalArgumentException("Limit for " + budget.getCategory() + " must not be negative");
+            }
+            if (!categories.add(budget.getCategory().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Duplicate budget for category: " + budget.getCategory());
+            }
+        }
+    }
+}
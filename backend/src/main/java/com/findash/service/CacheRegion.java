@@ -0,0 +1,102 @@
+package com.findash.service;
+
+import com.findash.dto.CacheRegionStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// One named region of the read cache, bounded by weight (a list weighs its size, anything else 1)
+// and expired a fixed time after loading. Every invalidation bumps a generation number; a value
+// loaded while the generation moved is returned but not stored, so a read that raced a commit
+// cannot put stale data back after the commit evicted it.
+public class CacheRegion<K, V> {
+    
+    private final String name;
+    private final Cache<K, V> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation;
+    
+    public CacheRegion(String name, long maximumWeight, Duration ttl) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((K key, V value) -> value instanceof Collection<?> values ? Math.max(1, values.size()) : 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    // Cached value for key, or the loader's result (null results are not cached)
+    public V get(K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = currentGeneration();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+    
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+    
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+    
+    // Stores a value loaded at loadGeneration unless an invalidation happened since
+    public synchronized boolean put(K key, V value, long loadGeneration) {
+        if (generation != loadGeneration) {
+            return false;
+        }
+        cache.put(key, value);
+        return true;
+    }
+    
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (cache.asMap().remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+    
+    public synchronized void invalidateIf(Predicate<K> stale) {
+        generation++;
+        cache.asMap().keySet().removeIf(key -> {
+            if (stale.test(key)) {
+                invalidations.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.addAndGet(cache.asMap().size());
+        cache.invalidateAll();
+    }
+    
+    public CacheRegionStats stats() {
+        CacheStats stats = cache.stats();
+        long weight = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new CacheRegionStats(name, cache.estimatedSize(), weight, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), invalidations.get());
+    }
+}
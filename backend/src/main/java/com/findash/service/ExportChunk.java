@@ -0,0 +1,243 @@
+package com.findash.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// A run of consecutive export rows as read from the cursor, one array per column, and its formatting
+// as CSV lines or XLSX sheet rows. Filled by the cursor thread, then formatted on a pool thread;
+// a chunk never leaves the thread that currently owns it.
+final class ExportChunk {
+
+    static final List<String> HEADER =
+            List.of("id", "date", "description", "category", "merchant", "amount", "type", "paymentMethod", "notes");
+
+    // Days from Excel's day 0 (1899-12-30) to 1970-01-01
+    private static final long EXCEL_EPOCH_OFFSET = 25569;
+    private static final char[] COLUMN_LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I'};
+
+    // Sheet and sheet row (1-based, after the header) of the first row; XLSX only
+    final int sheet;
+    final int firstRow;
+
+    private final long[] ids;
+    private final long[] dates;
+    private final String[] descriptions;
+    private final String[] categories;
+    private final String[] merchants;
+    private final long[] amounts;
+    private final String[] types;
+    private final String[] paymentMethods;
+    private final String[] notes;
+    private int size;
+
+    ExportChunk(int capacity, int sheet, int firstRow) {
+        this.sheet = sheet;
+        this.firstRow = firstRow;
+        this.ids = new long[capacity];
+        this.dates = new long[capacity];
+        this.descriptions = new String[capacity];
+        this.categories = new String[capacity];
+        this.merchants = new String[capacity];
+        this.amounts = new long[capacity];
+        this.types = new String[capacity];
+        this.paymentMethods = new String[capacity];
+        this.notes = new String[capacity];
+    }
+
+    void add(long id, long dateMillis, String description, String category, String merchant, long cents,
+             String type, String paymentMethod, String note) {
+        ids[size] = id;
+        dates[size] = dateMillis;
+        descriptions[size] = description;
+        categories[size] = category;
+        merchants[size] = merchant;
+        amounts[size] = cents;
+        types[size] = type;
+        paymentMethods[size] = paymentMethod;
+        notes[size] = note;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == ids.length;
+    }
+
+    static byte[] csvHeader() {
+        return (String.join(",", HEADER) + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    byte[] toCsv() {
+        StringBuilder csv = new StringBuilder(size * 96);
+        DateCache days = new DateCache();
+        for (int i = 0; i < size; i++) {
+            csv.append(ids[i]).append(',').append(days.get(dates[i])).append(',');
+            appendCsv(csv, descriptions[i]).append(',');
+            appendCsv(csv, categories[i]).append(',');
+            appendCsv(csv, merchants[i]).append(',');
+            appendAmount(csv, amounts[i]).append(',');
+            appendCsv(csv, types[i]).append(',');
+            appendCsv(csv, paymentMethods[i]).append(',');
+            appendCsv(csv, notes[i]).append("\r\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // <row> elements of worksheet XML; styles are those of XlsxWriter
+    byte[] toXlsxRows() {
+        StringBuilder xml = new StringBuilder(size * 400);
+        DateCache days = new DateCache();
+        for (int i = 0; i < size; i++) {
+            int row = firstRow + i;
+            xml.append("<row r=\"").append(row).append("\">");
+            number(xml, 0, row, XlsxWriter.STYLE_DEFAULT).append(ids[i]).append("</v></c>");
+            number(xml, 1, row, XlsxWriter.STYLE_DATE).append(days.epochDay(dates[i]) + EXCEL_EPOCH_OFFSET)
+                    .append("</v></c>");
+            text(xml, 2, row, descriptions[i]);
+            text(xml, 3, row, categories[i]);
+            text(xml, 4, row, merchants[i]);
+            appendAmount(number(xml, 5, row, XlsxWriter.STYLE_AMOUNT), amounts[i]).append("</v></c>");
+            text(xml, 6, row, types[i]);
+            text(xml, 7, row, paymentMethods[i]);
+            text(xml, 8, row, notes[i]);
+            xml.append("</row>");
+        }
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] xlsxHeaderRow() {
+        StringBuilder xml = new StringBuilder("<row r=\"1\">");
+        for (int column = 0; column < HEADER.size(); column++) {
+            xml.append("<c r=\"").append(COLUMN_LETTERS[column]).append("1\" s=\"").append(XlsxWriter.STYLE_HEADER)
+                    .append("\" t=\"inlineStr\"><is><t>").append(HEADER.get(column)).append("</t></is></c>");
+        }
+        return xml.append("</row>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // One complete gzip member; members concatenated in order are one valid gzip file
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 64 * 1024)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // Quoted only when the value holds a comma, quote or line break; null is an empty field
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return csv.append(value);
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+
+    // The same text as Money.toString, without the intermediate object
+    private static StringBuilder appendAmount(StringBuilder text, long cents) {
+        long units = Math.abs(cents / 100);
+        long fraction = Math.abs(cents % 100);
+        if (cents < 0) {
+            text.append('-');
+        }
+        text.append(units).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction);
+    }
+
+    // Opens a numeric cell up to its value
+    private static StringBuilder number(StringBuilder xml, int column, int row, int style) {
+        xml.append("<c r=\"").append(COLUMN_LETTERS[column]).append(row).append('"');
+        if (style != XlsxWriter.STYLE_DEFAULT) {
+            xml.append(" s=\"").append(style).append('"');
+        }
+        return xml.append("><v>");
+    }
+
+    // Inline string cell; null leaves the cell out
+    private static void text(StringBuilder xml, int column, int row, String value) {
+        if (value == null) {
+            return;
+        }
+        xml.append("<c r=\"").append(COLUMN_LETTERS[column]).append(row).append("\" t=\"inlineStr\"><is><t");
+        if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+                || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+            xml.append(" xml:space=\"preserve\"");
+        }
+        xml.append('>');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> xml.append("&amp;");
+                case '<' -> xml.append("&lt;");
+                case '>' -> xml.append("&gt;");
+                default -> {
+                    // Control characters other than tab and line breaks cannot appear in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        xml.append(c);
+                    }
+                }
+            }
+        }
+        xml.append("</t></is></c>");
+    }
+
+    // Rows arrive in date order, so consecutive rows nearly always share a date
+    private static final class DateCache {
+
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+
+        private long millis = Long.MIN_VALUE;
+        private LocalDate date;
+        private String text;
+
+        String get(long dateMillis) {
+            convert(dateMillis);
+            if (text == null) {
+                text = date.toString();
+            }
+            return text;
+        }
+
+        long epochDay(long dateMillis) {
+            convert(dateMillis);
+            return date.toEpochDay();
+        }
+
+        private void convert(long dateMillis) {
+            if (dateMillis != millis) {
+                millis = dateMillis;
+                date = Instant.ofEpochMilli(dateMillis).atZone(ZONE).toLocalDate();
+                text = null;
+            }
+        }
+    }
+}
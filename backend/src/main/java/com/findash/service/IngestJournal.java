@@ -0,0 +1,194 @@
+package com.findash.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only journal of accepted rows, split into segment files named after the logical position of
+// their first byte. Each record is [length][CRC32C][payload]; append writes a whole group and forces
+// it to disk before returning, so one fsync covers every record in the group. A record cut short by
+// a crash fails its length or checksum and is dropped on recovery: its append never returned, so it
+// was never acknowledged. Not thread-safe; TransactionIngestService uses it from one thread.
+class IngestJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestJournal.class);
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final long segmentBytes;
+    // Base position -> segment file, oldest first; the last one is open for appending
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel current;
+    private long currentBase;
+    private long end;
+
+    IngestJournal(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    // Reads every complete record in order, drops a torn tail and opens the journal for appending
+    List<byte[]> recover() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(baseOf(file), file));
+        }
+        List<byte[]> records = new ArrayList<>();
+        for (var segment : segments.entrySet()) {
+            long valid = read(segment.getValue(), records);
+            end = segment.getKey() + valid;
+            if (!segment.getKey().equals(segments.lastKey()) && valid < Files.size(segment.getValue())) {
+                log.warn("Ingest journal segment {} is damaged after {} bytes", segment.getValue(), valid);
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            currentBase = segments.lastKey();
+            current = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE);
+            current.truncate(end - currentBase);
+            current.position(end - currentBase);
+            current.force(true);
+        }
+        return records;
+    }
+
+    // Writes and forces the records; returns the logical position just after the last one
+    long append(List<byte[]> records) throws IOException {
+        if (end - currentBase >= segmentBytes) {
+            roll();
+        }
+        int size = 0;
+        for (byte[] record : records) {
+            size += HEADER_BYTES + record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32C crc = new CRC32C();
+        for (byte[] record : records) {
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            current.force(false);
+        } catch (IOException e) {
+            // Cut off whatever part of the group made it, so the next append starts at end again
+            current.truncate(end - currentBase);
+            current.position(end - currentBase);
+            throw e;
+        }
+        end += size;
+        return end;
+    }
+
+    // Deletes segments that hold only records before the given position. If that is everything,
+    // the current segment is retired too and appends continue in a new, empty one.
+    void release(long durable) throws IOException {
+        if (durable >= end && end > currentBase) {
+            roll();
+        }
+        while (segments.size() > 1) {
+            long nextBase = segments.higherKey(segments.firstKey());
+            if (nextBase > durable) {
+                break;
+            }
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    long end() {
+        return end;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        current.close();
+        openSegment(end);
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", base, SUFFIX));
+        current = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        currentBase = base;
+        end = base;
+        segments.put(base, file);
+        // Make the new file's directory entry durable before anything acknowledged depends on it
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform can open a directory; the file itself is still forced on append
+        }
+    }
+
+    // Appends the segment's complete records and returns how many bytes they span
+    private static long read(Path file, List<byte[]> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length < 0 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, position + HEADER_BYTES);
+                crc.reset();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                records.add(payload.array());
+                position += HEADER_BYTES + length;
+            }
+            return position;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal segment");
+            }
+        }
+    }
+
+    private static long baseOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
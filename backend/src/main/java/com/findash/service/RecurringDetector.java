@@ -0,0 +1,195 @@
+package com.findash.service;
+
+import com.findash.config.RecurringProperties;
+import com.findash.dto.ArchivePartition;
+import com.findash.dto.RecurringSeries;
+import com.findash.model.Dimension;
+import com.findash.model.Transaction;
+import com.findash.repository.DimensionDictionary;
+import com.findash.repository.TransactionPartitions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Detects recurring transactions (salaries, bills, memberships) by merchant, type, amount band and
+// period (see RecurringSeriesIndex). The last findash.recurring.lookback of history is read once in
+// the background when the application is ready, archived years first; after that each committed
+// create, update and delete is applied to the index on its own, so the series stay current without
+// rescanning. Only a bulk change, which does not say which rows it touched, makes the index reload;
+// the previous series are served until it is done. Until the first load finishes series() is empty.
+@Component
+@EnableConfigurationProperties(RecurringProperties.class)
+public class RecurringDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringDetector.class);
+
+    // In date order along idx_transactions_date_id, so nearly every row is appended to its band
+    private static final String LOAD_SQL = "SELECT id, date, merchant_id, type_id, category_id, amount_cents "
+            + "FROM transactions WHERE date >= ? ORDER BY date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionPartitions partitions;
+    private final TransactionTemplate readOnly;
+    private final RecurringProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BackgroundReloader<RecurringSeriesIndex> reloader;
+
+    // Guarded by lock
+    private RecurringSeriesIndex index;
+    private volatile boolean ready;
+    // Series detected since the last change. Readers store it under the read lock, so a change (under the
+    // write lock) can never be overwritten by a result computed before it
+    private volatile Detected detected;
+
+    public RecurringDetector(JdbcTemplate jdbcTemplate, DimensionDictionary dictionary,
+                             TransactionPartitions partitions, PlatformTransactionManager transactionManager,
+                             RecurringProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.partitions = partitions;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.properties = properties;
+        this.index = newIndex();
+        this.reloader = new BackgroundReloader<>("recurring-loader", lock.writeLock(),
+                () -> readOnly.execute(status -> load()), RecurringDetector::apply, this::install,
+                e -> log.error("Loading recurring transactions failed; series stay as they were until the next "
+                        + "bulk change", e));
+        Gauge.builder("findash.recurring.rows", this, RecurringDetector::trackedRows).register(registry);
+        Gauge.builder("findash.recurring.ready", this, detector -> detector.ready ? 1 : 0).register(registry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Every series found, active or not relative to asOf, or empty while the index is loading
+    public Optional<List<RecurringSeries>> series(LocalDate asOf) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            Detected current = detected;
+            if (current == null || !current.asOf().equals(asOf)) {
+                current = new Detected(asOf, List.copyOf(index.detect(asOf)));
+                detected = current;
+            }
+            return Optional.of(current.series());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reloader.requestReload();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.kind() == TransactionChangedEvent.Kind.BULK) {
+            reloader.requestReload();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!reloader.deferIfLoading(event)) {
+                apply(index, event);
+                detected = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Changes committed while loading may or may not be in the loaded rows; they were applied again,
+    // which is safe because put replaces a kept id and remove ignores an unknown one
+    private void install(RecurringSeriesIndex loaded) {
+        index = loaded;
+        detected = null;
+        ready = true;
+    }
+
+    // Archived years first, then the live table. Dates and names repeat across rows, so each stored
+    // value is converted once (the dictionary is a proxied bean)
+    private RecurringSeriesIndex load() {
+        long started = System.nanoTime();
+        RecurringSeriesIndex loaded = newIndex();
+        LocalDate since = LocalDate.now().minus(properties.getLookback());
+        Map<Long, LocalDate> dates = new HashMap<>();
+        Map<Integer, String> merchants = new HashMap<>();
+        Map<Integer, String> types = new HashMap<>();
+        Map<Integer, String> categories = new HashMap<>();
+        RowCallbackHandler handler = rs -> {
+            LocalDate date = dates.get(rs.getLong(2));
+            if (date == null) {
+                date = rs.getDate(2).toLocalDate();
+                dates.put(rs.getLong(2), date);
+            }
+            loaded.put(rs.getLong(1), date,
+                    merchants.computeIfAbsent(rs.getInt(3), id -> dictionary.name(Dimension.MERCHANT, id)),
+                    types.computeIfAbsent(rs.getInt(4), id -> dictionary.name(Dimension.TYPE, id)),
+                    categories.computeIfAbsent(rs.getInt(5), id -> dictionary.name(Dimension.CATEGORY, id)),
+                    rs.getLong(6));
+        };
+        for (ArchivePartition partition : partitions.archived(since, null)) {
+            JdbcOperations archive = partitions.jdbcTemplate(partition).getJdbcOperations();
+            archive.query(LOAD_SQL, handler, Date.valueOf(since));
+        }
+        jdbcTemplate.query(LOAD_SQL, handler, Date.valueOf(since));
+        log.info("Indexed {} recent occurrences for recurring detection in {} ms",
+                loaded.trackedRows(), (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    private RecurringSeriesIndex newIndex() {
+        return new RecurringSeriesIndex(properties.getWindow(), properties.getMinOccurrences());
+    }
+
+    private static void apply(RecurringSeriesIndex target, TransactionChangedEvent event) {
+        switch (event.kind()) {
+            case CREATED, UPDATED -> {
+                Transaction after = event.after();
+                target.put(after.getId(), after.getDate(), after.getMerchant(), after.getType(),
+                        after.getCategory(), after.getAmount().cents());
+            }
+            case DELETED -> target.remove(event.before().getId());
+            case BULK -> { }
+        }
+    }
+
+    private double trackedRows() {
+        lock.readLock().lock();
+        try {
+            return index.trackedRows();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Detected(LocalDate asOf, List<RecurringSeries> series) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.findash.service;
+
+import com.findash.dto.Periodicity;
+import com.findash.dto.RecurringSeries;
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// The state of RecurringDetector: the most recent occurrences of every merchant, type and amount band,
+// updated one row at a time. Bands are geometric (each BAND_RATIO wide), so a row's band depends on its
+// amount alone. Detection joins runs of adjacent bands of one merchant and type, which keeps a bill that
+// varies a little in one series even across a band edge, then looks for a dominant period in the gaps
+// between the run's recent occurrences. Rows older than a band's window are not kept, so deleting or
+// updating one of them changes nothing here.
+// Not thread-safe; RecurringDetector guards every access with its lock.
+class RecurringSeriesIndex {
+
+    static final double BAND_RATIO = 1.25;
+    // Share of gaps that must match the period
+    static final double MIN_REGULARITY = 0.75;
+    // Largest over smallest amount in one series
+    static final double MAX_AMOUNT_SPREAD = 2.0;
+
+    private static final double LOG_BAND_RATIO = Math.log(BAND_RATIO);
+    private static final Comparator<Occurrence> BY_DATE =
+            Comparator.comparingLong(Occurrence::day).thenComparingLong(Occurrence::id);
+
+    private final int window;
+    private final int minOccurrences;
+    private final Map<Group, TreeMap<Integer, List<Occurrence>>> groups = new HashMap<>();
+    // Where each kept occurrence is, by transaction id
+    private final Map<Long, Slot> slots = new HashMap<>();
+
+    RecurringSeriesIndex(int window, int minOccurrences) {
+        this.window = Math.max(2, window);
+        this.minOccurrences = Math.max(2, minOccurrences);
+    }
+
+    int trackedRows() {
+        return slots.size();
+    }
+
+    // Adds a row, or replaces it if the id is already kept; a row older than a full window is dropped
+    void put(long id, LocalDate date, String merchant, String type, String category, long cents) {
+        remove(id);
+        Group group = new Group(merchant, type);
+        int band = band(cents);
+        List<Occurrence> occurrences = groups.computeIfAbsent(group, key -> new TreeMap<>())
+                .computeIfAbsent(band, key -> new ArrayList<>());
+        Occurrence occurrence = new Occurrence(id, date.toEpochDay(), cents, category);
+        int position = insertionPoint(occurrences, occurrence);
+        if (position == 0 && occurrences.size() >= window) {
+            return;
+        }
+        occurrences.add(position, occurrence);
+        slots.put(id, new Slot(group, band));
+        if (occurrences.size() > window) {
+            slots.remove(occurrences.remove(0).id());
+        }
+    }
+
+    void remove(long id) {
+        Slot slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        TreeMap<Integer, List<Occurrence>> bands = groups.get(slot.group());
+        List<Occurrence> occurrences = bands.get(slot.band());
+        occurrences.removeIf(occurrence -> occurrence.id() == id);
+        if (occurrences.isEmpty()) {
+            bands.remove(slot.band());
+            if (bands.isEmpty()) {
+                groups.remove(slot.group());
+            }
+        }
+    }
+
+    // Every series found, ordered by type, merchant and amount; active relative to asOf
+    List<RecurringSeries> detect(LocalDate asOf) {
+        List<RecurringSeries> found = new ArrayList<>();
+        groups.forEach((group, bands) -> {
+            List<Occurrence> run = new ArrayList<>();
+            int previousBand = Integer.MIN_VALUE;
+            for (Map.Entry<Integer, List<Occurrence>> entry : bands.entrySet()) {
+                if (entry.getKey() != previousBand + 1 && !run.isEmpty()) {
+                    addIfRecurring(found, group, run, asOf);
+                    run = new ArrayList<>();
+                }
+                run.addAll(entry.getValue());
+                previousBand = entry.getKey();
+            }
+            addIfRecurring(found, group, run, asOf);
+        });
+        found.sort(Comparator.comparing(RecurringSeries::type)
+                .thenComparing(RecurringSeries::merchant)
+                .thenComparing(RecurringSeries::amount));
+        return found;
+    }
+
+    private void addIfRecurring(List<RecurringSeries> found, Group group, List<Occurrence> run, LocalDate asOf) {
+        if (run.size() < minOccurrences) {
+            return;
+        }
+        run.sort(BY_DATE);
+        List<Occurrence> recent = run.subList(Math.max(0, run.size() - window), run.size());
+        int count = recent.size();
+        long[] gaps = new long[count - 1];
+        for (int i = 1; i < count; i++) {
+            gaps[i - 1] = recent.get(i).day() - recent.get(i - 1).day();
+        }
+        long[] sortedGaps = gaps.clone();
+        Arrays.sort(sortedGaps);
+        Periodicity periodicity = Periodicity.ofGap(sortedGaps[(sortedGaps.length - 1) / 2]);
+        if (periodicity == null) {
+            return;
+        }
+        int regular = 0;
+        for (long gap : gaps) {
+            if (periodicity.matches(gap)) {
+                regular++;
+            }
+        }
+        double regularity = (double) regular / gaps.length;
+        if (regularity < MIN_REGULARITY) {
+            return;
+        }
+
+        long[] amounts = recent.stream().mapToLong(Occurrence::cents).sorted().toArray();
+        long smallest = Math.min(Math.abs(amounts[0]), Math.abs(amounts[count - 1]));
+        long largest = Math.max(Math.abs(amounts[0]), Math.abs(amounts[count - 1]));
+        if (largest > MAX_AMOUNT_SPREAD * smallest) {
+            return;
+        }
+        Occurrence last = recent.get(count - 1);
+        LocalDate lastDate = LocalDate.ofEpochDay(last.day());
+        LocalDate nextDate = periodicity.after(lastDate, 1);
+        found.add(new RecurringSeries(group.merchant(), group.type(), last.category(), periodicity,
+                Money.ofCents(amounts[(count - 1) / 2]), Money.ofCents(amounts[0]), Money.ofCents(amounts[count - 1]),
+                count, Math.round(regularity * 100) / 100.0, LocalDate.ofEpochDay(recent.get(0).day()), lastDate,
+                nextDate, !nextDate.plusDays(periodicity.lateness()).isBefore(asOf)));
+    }
+
+    // Amounts a and b share a band when floor(log(|a|) / log(BAND_RATIO)) is equal; zero has its own
+    static int band(long cents) {
+        return cents == 0 ? Integer.MIN_VALUE : (int) Math.floor(Math.log(Math.abs(cents)) / LOG_BAND_RATIO);
+    }
+
+    private record Group(String merchant, String type) {
+    }
+
+    private record Slot(Group group, int band) {
+    }
+
+    private record Occurrence(long id, long day, long cents, String category) {
+    }
+
+    // Index at which occurrence keeps the list in date order; appends are the common case
+    private static int insertionPoint(List<Occurrence> occurrences, Occurrence occurrence) {
+        int size = occurrences.size();
+        if (size == 0 || BY_DATE.compare(occurrences.get(size - 1), occurrence) <= 0) {
+            return size;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BY_DATE.compare(occurrences.get(middle), occurrence) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,85 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.CashFlowForecast;
+import com.findash.dto.ForecastMonth;
+import com.findash.dto.RecurringSeries;
+import com.findash.model.Money;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "findash.service", histogram = true)
+public class RecurringService {
+    
+    public static final int MAX_FORECAST_MONTHS = 60;
+    
+    @Autowired
+    private RecurringDetector detector;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    // Detected series, only those still active unless all is set; empty while the detector is loading
+    public Optional<List<RecurringSeries>> getSeries(boolean all) {
+        return detector.series(LocalDate.now())
+                .map(series -> all ? series : series.stream().filter(RecurringSeries::active).toList());
+    }
+    
+    // Recurring income and expense of the active series projected over this month and the next
+    // months - 1, with the running balance starting from every transaction recorded so far
+    public Optional<CashFlowForecast> getForecast(int months) {
+        if (months < 1 || months > MAX_FORECAST_MONTHS) {
+            throw new IllegalArgumentException("months must be between 1 and " + MAX_FORECAST_MONTHS);
+        }
+        LocalDate asOf = LocalDate.now();
+        Optional<List<RecurringSeries>> found = getSeries(false);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        List<RecurringSeries> series = found.get();
+        YearMonth first = YearMonth.from(asOf);
+        LocalDate end = first.plusMonths(months - 1).atEndOfMonth();
+        long[] income = new long[months];
+        long[] expense = new long[months];
+        int[] occurrences = new int[months];
+        for (RecurringSeries recurring : series) {
+            long[] totals = "Income".equals(recurring.type()) ? income
+                    : "Expense".equals(recurring.type()) ? expense : null;
+            if (totals == null) {
+                continue;
+            }
+            for (int period = 1; ; period++) {
+                LocalDate date = recurring.periodicity().after(recurring.lastDate(), period);
+                if (date.isAfter(end)) {
+                    break;
+                }
+                // An active series may be a few days late; its overdue occurrence is expected now
+                int month = (int) ChronoUnit.MONTHS.between(first, YearMonth.from(date.isAfter(asOf) ? date : asOf));
+                totals[month] += recurring.amount().cents();
+                occurrences[month]++;
+            }
+        }
+        
+        Money openingBalance = transactionService.getSummary(AggregateFilter.NONE).balance();
+        Money balance = openingBalance;
+        List<ForecastMonth> points = new ArrayList<>(months);
+        for (int i = 0; i < months; i++) {
+            Money net = Money.ofCents(income[i] - expense[i]);
+            balance = balance.plus(net);
+            points.add(new ForecastMonth(first.plusMonths(i), occurrences[i], Money.ofCents(income[i]),
+                    Money.ofCents(expense[i]), net, balance));
+        }
+        return Optional.of(new CashFlowForecast(asOf, openingBalance, points, series));
+    }
+}
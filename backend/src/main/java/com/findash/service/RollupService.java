@@ -0,0 +1,57 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.RollupCheckResult;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class RollupService {
+    
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+    
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+    
+    @Autowired
+    private TransactionCache transactionCache;
+    
+    @Transactional(readOnly = true)
+    public List<AggregateRow> getTotals(Set<AggregateDimension> groupBy, YearMonth startMonth, YearMonth endMonth,
+                                        String category) {
+        return rollupRepository.totals(groupBy, startMonth, endMonth, category);
+    }
+    
+    // Compare every rollup bucket with the live table without changing anything
+    @Transactional(readOnly = true)
+    public RollupCheckResult verify() {
+        long started = System.nanoTime();
+        int mismatches = rollupRepository.countMismatches();
+        return new RollupCheckResult(mismatches, null, elapsedMs(started));
+    }
+    
+    // Recompute all rollups from scratch in one transaction, reporting how far they had drifted
+    public RollupCheckResult rebuild() {
+        long started = System.nanoTime();
+        int mismatches = rollupRepository.countMismatches();
+        int buckets = rollupRepository.rebuild();
+        // Summaries served from rollups may change, so clients must not keep their copies
+        changeVersionRepository.next();
+        transactionCache.invalidateSummariesAfterCommit();
+        return new RollupCheckResult(mismatches, buckets, elapsedMs(started));
+    }
+    
+    private long elapsedMs(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
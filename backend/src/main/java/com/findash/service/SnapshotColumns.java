@@ -0,0 +1,400 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// The columns of TransactionSnapshot: one primitive array per field, rows ordered by id. Strings are
+// dictionary codes, dates epoch days (plus the month as year * 12 + month - 1), amounts cents.
+// A deleted row keeps its slot with type code DELETED until the next compaction.
+// Not thread-safe; TransactionSnapshot guards every access with its lock.
+class SnapshotColumns {
+
+    static final int DELETED = -1;
+    static final int NULL_CODE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Dictionary types = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary merchants = new Dictionary();
+    private final Dictionary paymentMethods = new Dictionary();
+
+    private long[] ids;
+    private int[] days;
+    private int[] months;
+    private long[] cents;
+    private int[] typeCodes;
+    private int[] categoryCodes;
+    private int[] merchantCodes;
+    private int[] paymentMethodCodes;
+    private long[] versions;
+    private int size;
+    private int deleted;
+    private int minMonth = Integer.MAX_VALUE;
+    private int maxMonth = Integer.MIN_VALUE;
+
+    SnapshotColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    SnapshotColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        days = new int[capacity];
+        months = new int[capacity];
+        cents = new long[capacity];
+        typeCodes = new int[capacity];
+        categoryCodes = new int[capacity];
+        merchantCodes = new int[capacity];
+        paymentMethodCodes = new int[capacity];
+        versions = new long[capacity];
+    }
+
+    int liveRows() {
+        return size - deleted;
+    }
+
+    // Adds a row read in id order while loading
+    void append(long id, LocalDate date, String type, String category, String merchant, String paymentMethod,
+                long amountCents, long version) {
+        insertAt(size, id);
+        set(size - 1, date, type, category, merchant, paymentMethod, amountCents, version);
+    }
+
+    // Applies a created or updated row unless the snapshot already holds the same or a newer version.
+    // Deleted rows are only brought back by a create (SQLite may reuse the highest deleted id).
+    void upsert(Transaction transaction, boolean created) {
+        long id = transaction.getId();
+        int index = indexOf(id);
+        if (index >= 0) {
+            boolean live = typeCodes[index] != DELETED;
+            if (live ? versions[index] >= transaction.getRowVersion() : !created) {
+                return;
+            }
+            if (!live) {
+                deleted--;
+            }
+        } else {
+            index = -index - 1;
+            insertAt(index, id);
+        }
+        set(index, transaction.getDate(), transaction.getType(), transaction.getCategory(),
+                transaction.getMerchant(), transaction.getPaymentMethod(), transaction.getAmount().cents(),
+                transaction.getRowVersion());
+    }
+
+    void delete(long id) {
+        int index = indexOf(id);
+        if (index < 0 || typeCodes[index] == DELETED) {
+            return;
+        }
+        typeCodes[index] = DELETED;
+        deleted++;
+        if (deleted > 1024 && deleted > size / 4) {
+            compact();
+        }
+    }
+
+    // Count, total, min, max and average per type and the requested dimensions, in the same order
+    // as TransactionAggregateRepository. Segments of segmentSize rows are scanned in parallel.
+    List<AggregateRow> aggregate(Set<AggregateDimension> groupBy, AggregateFilter filter, int segmentSize) {
+        GroupKey key = new GroupKey(groupBy.contains(AggregateDimension.CATEGORY),
+                groupBy.contains(AggregateDimension.MERCHANT), groupBy.contains(AggregateDimension.MONTH));
+        int startDay = filter.startDate() != null ? (int) filter.startDate().toEpochDay() : Integer.MIN_VALUE;
+        int endDay = filter.endDate() != null ? (int) filter.endDate().toEpochDay() : Integer.MAX_VALUE;
+        boolean[] categoryMask = filter.category() != null ? categories.matchingIgnoreCase(filter.category()) : null;
+
+        int segments = Math.max(1, (size + segmentSize - 1) / segmentSize);
+        GroupTable groups = segments == 1
+                ? scan(0, size, key, startDay, endDay, categoryMask)
+                : IntStream.range(0, segments).parallel()
+                        .mapToObj(segment -> scan(segment * segmentSize, Math.min(size, (segment + 1) * segmentSize),
+                                key, startDay, endDay, categoryMask))
+                        .reduce(GroupTable::merge)
+                        .orElseGet(GroupTable::new);
+
+        List<AggregateRow> rows = new ArrayList<>(groups.size());
+        groups.forEach((groupKey, count, sum, min, max) -> rows.add(key.toRow(groupKey, count, sum, min, max)));
+        rows.sort(AggregateRow.ORDER);
+        return rows;
+    }
+
+    private GroupTable scan(int from, int to, GroupKey key, int startDay, int endDay, boolean[] categoryMask) {
+        GroupTable groups = new GroupTable();
+        for (int row = from; row < to; row++) {
+            int type = typeCodes[row];
+            int day = days[row];
+            if (type == DELETED || day < startDay || day > endDay
+                    || (categoryMask != null && !categoryMask[categoryCodes[row]])) {
+                continue;
+            }
+            groups.add(key.of(type, categoryCodes[row], merchantCodes[row], months[row]), cents[row]);
+        }
+        return groups;
+    }
+
+    // Binary search by id: the row's index, or -(insertion point) - 1
+    private int indexOf(long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    private void set(int index, LocalDate date, String type, String category, String merchant, String paymentMethod,
+                     long amountCents, long version) {
+        int month = date.getYear() * 12 + date.getMonthValue() - 1;
+        days[index] = (int) date.toEpochDay();
+        months[index] = month;
+        minMonth = Math.min(minMonth, month);
+        maxMonth = Math.max(maxMonth, month);
+        cents[index] = amountCents;
+        typeCodes[index] = types.code(type);
+        categoryCodes[index] = categories.code(category);
+        merchantCodes[index] = merchants.code(merchant);
+        paymentMethodCodes[index] = paymentMethods.code(paymentMethod);
+        versions[index] = version;
+    }
+
+    private void insertAt(int index, long id) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            days = Arrays.copyOf(days, capacity);
+            months = Arrays.copyOf(months, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            merchantCodes = Arrays.copyOf(merchantCodes, capacity);
+            paymentMethodCodes = Arrays.copyOf(paymentMethodCodes, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        if (index < size) {
+            // Only when an id arrives out of order; loads and new rows append
+            int moved = size - index;
+            System.arraycopy(ids, index, ids, index + 1, moved);
+            System.arraycopy(days, index, days, index + 1, moved);
+            System.arraycopy(months, index, months, index + 1, moved);
+            System.arraycopy(cents, index, cents, index + 1, moved);
+            System.arraycopy(typeCodes, index, typeCodes, index + 1, moved);
+            System.arraycopy(categoryCodes, index, categoryCodes, index + 1, moved);
+            System.arraycopy(merchantCodes, index, merchantCodes, index + 1, moved);
+            System.arraycopy(paymentMethodCodes, index, paymentMethodCodes, index + 1, moved);
+            System.arraycopy(versions, index, versions, index + 1, moved);
+        }
+        ids[index] = id;
+        size++;
+    }
+
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < size; row++) {
+            if (typeCodes[row] == DELETED) {
+                continue;
+            }
+            ids[target] = ids[row];
+            days[target] = days[row];
+            months[target] = months[row];
+            cents[target] = cents[row];
+            typeCodes[target] = typeCodes[row];
+            categoryCodes[target] = categoryCodes[row];
+            merchantCodes[target] = merchantCodes[row];
+            paymentMethodCodes[target] = paymentMethodCodes[row];
+            versions[target] = versions[row];
+            target++;
+        }
+        size = target;
+        deleted = 0;
+    }
+
+    // Packs the grouped dimensions of a row into one long (mixed radix over the dictionary sizes)
+    // and turns it back into an AggregateRow
+    private class GroupKey {
+
+        private final boolean byCategory;
+        private final boolean byMerchant;
+        private final boolean byMonth;
+        private final long categoryRadix = categories.size();
+        private final long merchantRadix = merchants.size();
+        private final long monthRadix;
+
+        GroupKey(boolean byCategory, boolean byMerchant, boolean byMonth) {
+            this.byCategory = byCategory;
+            this.byMerchant = byMerchant;
+            this.byMonth = byMonth;
+            this.monthRadix = maxMonth >= minMonth ? maxMonth - minMonth + 1L : 1L;
+        }
+
+        long of(int type, int category, int merchant, int month) {
+            long key = type;
+            if (byCategory) {
+                key = key * categoryRadix + category;
+            }
+            if (byMerchant) {
+                key = key * merchantRadix + merchant;
+            }
+            if (byMonth) {
+                key = key * monthRadix + (month - minMonth);
+            }
+            return key;
+        }
+
+        AggregateRow toRow(long key, long count, long sum, long min, long max) {
+            String month = null;
+            String merchant = null;
+            String category = null;
+            if (byMonth) {
+                int value = (int) (key % monthRadix) + minMonth;
+                month = YearMonth.of(value / 12, value % 12 + 1).toString();
+                key /= monthRadix;
+            }
+            if (byMerchant) {
+                merchant = merchants.value((int) (key % merchantRadix));
+                key /= merchantRadix;
+            }
+            if (byCategory) {
+                category = categories.value((int) (key % categoryRadix));
+                key /= categoryRadix;
+            }
+            Money total = Money.ofCents(sum);
+            return new AggregateRow(types.value((int) key), category, merchant, month, count, total,
+                    Money.ofCents(min), Money.ofCents(max), total.dividedBy(count));
+        }
+    }
+
+    // Distinct values of one string column, numbered in order of first appearance
+    static class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String value(int code) {
+            return code == NULL_CODE ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        // Which codes equal the value ignoring case, as LOWER(category) = LOWER(:category) does
+        boolean[] matchingIgnoreCase(String value) {
+            String wanted = value.toLowerCase(Locale.ROOT);
+            boolean[] mask = new boolean[values.size()];
+            for (int code = 0; code < mask.length; code++) {
+                mask[code] = values.get(code).toLowerCase(Locale.ROOT).equals(wanted);
+            }
+            return mask;
+        }
+    }
+
+    // Open-addressing map from group key to count/sum/min/max, so a scan allocates per group, not per row
+    static class GroupTable {
+
+        private long[] keys = new long[16];
+        private long[] counts = new long[16];
+        private long[] sums = new long[16];
+        private long[] mins = new long[16];
+        private long[] maxs = new long[16];
+        private int size;
+
+        interface GroupConsumer {
+            void accept(long key, long count, long sum, long min, long max);
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(long key, long amount) {
+            accumulate(key, 1, amount, amount, amount);
+        }
+
+        GroupTable merge(GroupTable other) {
+            other.forEach(this::accumulate);
+            return this;
+        }
+
+        void forEach(GroupConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (counts[slot] > 0) {
+                    consumer.accept(keys[slot], counts[slot], sums[slot], mins[slot], maxs[slot]);
+                }
+            }
+        }
+
+        private void accumulate(long key, long count, long sum, long min, long max) {
+            int slot = slotOf(key);
+            if (counts[slot] == 0) {
+                keys[slot] = key;
+                mins[slot] = min;
+                maxs[slot] = max;
+                size++;
+            } else {
+                mins[slot] = Math.min(mins[slot], min);
+                maxs[slot] = Math.max(maxs[slot], max);
+            }
+            counts[slot] += count;
+            sums[slot] = Math.addExact(sums[slot], sum);
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private int slotOf(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (counts[slot] > 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            long[] oldSums = sums;
+            long[] oldMins = mins;
+            long[] oldMaxs = maxs;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            counts = new long[capacity];
+            sums = new long[capacity];
+            mins = new long[capacity];
+            maxs = new long[capacity];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldCounts[slot] > 0) {
+                    int target = slotOf(oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    counts[target] = oldCounts[slot];
+                    sums[target] = oldSums[slot];
+                    mins[target] = oldMins[slot];
+                    maxs[target] = oldMaxs[slot];
+                }
+            }
+        }
+    }
+}
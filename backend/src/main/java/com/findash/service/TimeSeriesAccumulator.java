@@ -0,0 +1,110 @@
+package com.findash.service;
+
+import com.findash.dto.TimeSeriesInterval;
+import com.findash.dto.TimeSeriesPoint;
+import com.findash.model.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Folds date-ordered totals into time series buckets in one pass. Only the open bucket, the last
+// window buckets (for the moving averages) and the finished points are held, so memory depends on
+// the number of buckets, not on how many rows are fed in. Empty buckets are emitted as zeros.
+class TimeSeriesAccumulator {
+
+    private final TimeSeriesInterval interval;
+    private final LocalDate endDate;
+    private final boolean byCategory;
+    private final List<TimeSeriesPoint> points = new ArrayList<>();
+
+    // Income and expense of the last window buckets, as ring buffers
+    private final long[] recentIncome;
+    private final long[] recentExpense;
+    private int recentCount;
+
+    private LocalDate bucketStart;
+    private LocalDate nextBucketStart;
+    private long balance;
+    private long income;
+    private long expense;
+    private long count;
+    // Income - expense by category in the open bucket
+    private final Map<String, Long> categories = new TreeMap<>();
+
+    TimeSeriesAccumulator(TimeSeriesInterval interval, int window, LocalDate startDate, LocalDate endDate,
+                          long openingBalanceCents, boolean byCategory) {
+        this.interval = interval;
+        this.endDate = endDate;
+        this.byCategory = byCategory;
+        this.recentIncome = new long[window];
+        this.recentExpense = new long[window];
+        this.bucketStart = interval.bucketStart(startDate);
+        this.nextBucketStart = interval.next(bucketStart);
+        this.balance = openingBalanceCents;
+    }
+
+    // Rows must arrive in date order; several rows may share a date
+    void add(LocalDate date, String category, long incomeCents, long expenseCents, long rows) {
+        if (date.isBefore(bucketStart)) {
+            throw new IllegalStateException("Rows out of date order at " + date);
+        }
+        while (!date.isBefore(nextBucketStart)) {
+            closeBucket();
+        }
+        income += incomeCents;
+        expense += expenseCents;
+        count += rows;
+        if (byCategory && category != null) {
+            // Signed like net, so a category holding both refunds and purchases does not add them up
+            categories.merge(category, incomeCents - expenseCents, Long::sum);
+        }
+    }
+
+    // Closes the remaining buckets up to the end date and returns every point
+    List<TimeSeriesPoint> finish() {
+        while (!bucketStart.isAfter(endDate)) {
+            closeBucket();
+        }
+        return points;
+    }
+
+    private void closeBucket() {
+        balance += income - expense;
+        int window = recentIncome.length;
+        int slot = recentCount % window;
+        recentIncome[slot] = income;
+        recentExpense[slot] = expense;
+        recentCount++;
+        int averaged = Math.min(recentCount, window);
+        long incomeSum = 0;
+        long expenseSum = 0;
+        for (int i = 0; i < averaged; i++) {
+            incomeSum += recentIncome[i];
+            expenseSum += recentExpense[i];
+        }
+
+        Map<String, Money> categoryTotals = null;
+        if (byCategory) {
+            categoryTotals = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : categories.entrySet()) {
+                categoryTotals.put(entry.getKey(), Money.ofCents(entry.getValue()));
+            }
+        }
+        Money averageIncome = Money.ofCents(incomeSum).dividedBy(averaged);
+        Money averageExpense = Money.ofCents(expenseSum).dividedBy(averaged);
+        points.add(new TimeSeriesPoint(bucketStart, count, Money.ofCents(income), Money.ofCents(expense),
+                Money.ofCents(income - expense), Money.ofCents(balance), averageIncome, averageExpense,
+                Money.ofCents(incomeSum - expenseSum).dividedBy(averaged), categoryTotals));
+
+        bucketStart = nextBucketStart;
+        nextBucketStart = interval.next(bucketStart);
+        income = 0;
+        expense = 0;
+        count = 0;
+        categories.clear();
+    }
+}
@@ -0,0 +1,120 @@
+package com.findash.service;
+
+import com.findash.config.ArchiveProperties;
+import com.findash.dto.ArchivePartition;
+import com.findash.repository.TransactionPartitions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves closed years out of the live transactions table into per-year archive files (see
+// TransactionPartitions), so the live table, its indexes and VACUUM only grow with the open years.
+// A pass closes every year before the open ones in one transaction (from then on writes dated in
+// them are rejected), then for each closed year, oldest first: copies its rows into a new archive
+// file and, in a second transaction, marks it archived and deletes the rows from the live table.
+// A pass interrupted between the two picks the year up again next time. Runs on POST /api/archive
+// and, with findash.archive.enabled=true, in the background every findash.archive.interval.
+@Component
+public class TransactionArchiveService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    private final TransactionPartitions partitions;
+    private final ArchiveProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writes;
+    private final TransactionTemplate reads;
+    private volatile ScheduledExecutorService scheduler;
+
+    public TransactionArchiveService(TransactionPartitions partitions, ArchiveProperties properties,
+                                     JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager) {
+        this.partitions = partitions;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.writes = new TransactionTemplate(transactionManager);
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+    }
+
+    // Every closed year, oldest first
+    public List<ArchivePartition> getPartitions() {
+        return reads.execute(status -> partitions.all());
+    }
+
+    // Closes and archives every year before the open ones; returns the years archived by this pass
+    public synchronized List<ArchivePartition> archiveClosedYears() {
+        LocalDate openFrom = LocalDate.now().withDayOfYear(1).minusYears(Math.max(1, properties.getOpenYears()) - 1);
+        List<ArchivePartition> closed = writes.execute(status -> partitions.close(openFrom));
+        partitions.refresh();
+
+        List<ArchivePartition> archived = new ArrayList<>();
+        for (ArchivePartition partition : closed) {
+            long started = System.nanoTime();
+            ArchivePartition written = partitions.writeArchive(partition);
+            writes.executeWithoutResult(status -> {
+                partitions.moveToArchive(written);
+                // Rows left the live table: the snapshot reloads and caches start over
+                eventPublisher.publishEvent(TransactionChangedEvent.bulk());
+            });
+            archived.add(written);
+            log.info("Archived {} transactions of {} to {} in {} ms", written.rowCount(), written.name(),
+                    partitions.path(written), (System.nanoTime() - started) / 1_000_000);
+        }
+        if (!archived.isEmpty()) {
+            // Deleting from an FTS5 index only records delete markers; merging drops them with the rows
+            writes.executeWithoutResult(status ->
+                    jdbcTemplate.update("INSERT INTO transactions_fts (transactions_fts) VALUES ('optimize')"));
+        }
+        if (!archived.isEmpty() && properties.isVacuum()) {
+            long started = System.nanoTime();
+            jdbcTemplate.execute("VACUUM");
+            log.info("Vacuumed the live database in {} ms", (System.nanoTime() - started) / 1_000_000);
+        }
+        return archived;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "archive-pass");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runPass, 0, properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runPass() {
+        try {
+            archiveClosedYears();
+        } catch (RuntimeException e) {
+            log.error("Archive pass failed; closed years stay readable in the live table until the next pass", e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.findash.service;
+
+import com.findash.dto.BatchOperation;
+import com.findash.dto.BatchOperationResult;
+import com.findash.dto.BatchResult;
+import com.findash.dto.BulkResult;
+import com.findash.dto.TransactionMatch;
+import com.findash.dto.TransactionPatch;
+import com.findash.model.Transaction;
+import com.findash.repository.ArchivedTransactionRepository;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import com.findash.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Multi-row writes: delete by id list, update by filter and batches of mixed operations. Each call
+// is one transaction under one change version, rows are changed with set-based statements
+// (TransactionBulkRepository), and listeners get a single BULK event rather than one per row.
+@Service
+@Transactional
+@Timed(value = "findash.service", histogram = true)
+public class TransactionBatchService {
+    
+    public static final int MAX_IDS = 100_000;
+    public static final int MAX_OPERATIONS = 1000;
+    
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+    
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private ArchivedTransactionRepository archivedRepository;
+    
+    @Autowired
+    private TransactionPartitions partitions;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Ids that do not exist or are in a closed year are skipped; affected counts the rows actually deleted
+    public BulkResult deleteTransactions(List<Long> ids) {
+        long version = changeVersionRepository.next();
+        int affected = delete(ids, version);
+        publishIfChanged(affected, version);
+        return new BulkResult(affected, version);
+    }
+    
+    // Rows that already hold the new values, or are in a closed year, are not counted or re-versioned
+    public BulkResult updateTransactions(TransactionMatch where, TransactionPatch set) {
+        long version = changeVersionRepository.next();
+        int affected = patch(where, set, version);
+        publishIfChanged(affected, version);
+        return new BulkResult(affected, version);
+    }
+    
+    // Applies the operations in order; an invalid operation rejects the whole batch
+    public BatchResult applyBatch(List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("operations is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("A batch holds at most " + MAX_OPERATIONS + " operations");
+        }
+        long version = changeVersionRepository.next();
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        int affected = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationResult result;
+            try {
+                result = apply(operations.get(i), version);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operation " + i + ": " + e.getMessage());
+            }
+            results.add(result);
+            affected += result.affected();
+        }
+        publishIfChanged(affected, version);
+        return new BatchResult(affected, results, version);
+    }
+    
+    private BatchOperationResult apply(BatchOperation operation, long version) {
+        if (operation == null || operation.op() == null) {
+            throw new IllegalArgumentException("op is required");
+        }
+        return switch (operation.op()) {
+            case CREATE -> {
+                Transaction transaction = validated(operation.transaction());
+                transaction.setId(null);
+                transaction.setRowVersion(version);
+                bulkRepository.insertAll(List.of(transaction));
+                yield new BatchOperationResult(operation.op(), 1, transaction.getId());
+            }
+            case UPDATE -> {
+                if (operation.id() == null) {
+                    throw new IllegalArgumentException("id is required");
+                }
+                Transaction details = validated(operation.transaction());
+                int updated = bulkRepository.updateById(operation.id(), details, version).isPresent() ? 1 : 0;
+                if (updated == 0 && readOnly(operation.id())) {
+                    // As PUT /{id} does; an id that does not exist at all is only reported as unchanged
+                    throw new IllegalArgumentException("Transaction " + operation.id() + " is archived and read-only");
+                }
+                yield new BatchOperationResult(operation.op(), updated, operation.id());
+            }
+            case DELETE -> new BatchOperationResult(operation.op(), delete(operation.ids(), version), null);
+            case PATCH -> new BatchOperationResult(operation.op(), patch(operation.where(), operation.set(), version), null);
+        };
+    }
+    
+    private int delete(List<Long> ids, long version) {
+        checkIds(ids);
+        List<Long> deleted = bulkRepository.deleteByIds(ids);
+        changeVersionRepository.recordDeletions(deleted, version);
+        return deleted.size();
+    }
+    
+    private int patch(TransactionMatch where, TransactionPatch set, long version) {
+        if (where == null || !where.hasConditions()) {
+            throw new IllegalArgumentException("where needs at least one condition");
+        }
+        if (set == null || !set.hasChanges()) {
+            throw new IllegalArgumentException("set needs at least one field");
+        }
+        if (where.ids() != null && !where.ids().isEmpty()) {
+            checkIds(where.ids());
+        }
+        requireNotBlank("description", set.description());
+        requireNotBlank("category", set.category());
+        requireNotBlank("merchant", set.merchant());
+        requireNotBlank("type", set.type());
+        return bulkRepository.updateWhere(where, set, version);
+    }
+    
+    // A row in a closed year, archived or still waiting to be moved
+    private boolean readOnly(Long id) {
+        return transactionRepository.existsById(id) || archivedRepository.findById(id).isPresent();
+    }
+    
+    private Transaction validated(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("transaction is required");
+        }
+        if (transaction.getNotes() == null) {
+            transaction.setNotes("");
+        }
+        Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        partitions.requireOpen(transaction.getDate());
+        return transaction;
+    }
+    
+    private static void checkIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids is required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+    }
+    
+    // Null leaves a field unchanged; blank is rejected as the entity's @NotBlank would reject it
+    private static void requireNotBlank(String field, String value) {
+        if (value != null && value.isBlank()) {
+            throw new IllegalArgumentException(field + " must not be blank");
+        }
+    }
+    
+    private void publishIfChanged(int affected, long version) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(TransactionChangedEvent.bulk(version));
+        }
+    }
+}
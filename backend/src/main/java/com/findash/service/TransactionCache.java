@@ -0,0 +1,153 @@
+package com.findash.service;
+
+import com.findash.config.CacheProperties;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.CacheRegionStats;
+import com.findash.dto.TransactionSummary;
+import com.findash.model.Transaction;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Read cache in front of the hot TransactionService queries. Writes publish a TransactionChangedEvent;
+// once that transaction commits, only the entries that could contain the old or new row are dropped.
+@Component
+@EnableConfigurationProperties(CacheProperties.class)
+public class TransactionCache {
+    
+    // Key of the single entry in the full-list region
+    static final String ALL = "all";
+    
+    public record DateRange(LocalDate startDate, LocalDate endDate) {
+        boolean contains(LocalDate date) {
+            return !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+    
+    private final CacheRegion<Long, Transaction> byId;
+    private final CacheRegion<String, List<Transaction>> byType;
+    private final CacheRegion<String, List<Transaction>> byCategory;
+    private final CacheRegion<DateRange, List<Transaction>> byDateRange;
+    private final CacheRegion<AggregateFilter, TransactionSummary> summaries;
+    private final CacheRegion<String, List<Transaction>> all;
+    private final CacheRegion<String, Long> changeVersion;
+    private final long maxRows;
+    
+    public TransactionCache(CacheProperties properties) {
+        byId = new CacheRegion<>("transactionById", properties.getMaxEntries(), properties.getTtl());
+        byType = new CacheRegion<>("transactionsByType", properties.getMaxRows(), properties.getTtl());
+        byCategory = new CacheRegion<>("transactionsByCategory", properties.getMaxRows(), properties.getTtl());
+        byDateRange = new CacheRegion<>("transactionsByDateRange", properties.getMaxRows(), properties.getTtl());
+        summaries = new CacheRegion<>("summaries", properties.getMaxEntries(), properties.getTtl());
+        all = new CacheRegion<>("allTransactions", properties.getMaxRows(), properties.getTtl());
+        changeVersion = new CacheRegion<>("changeVersion", 1, properties.getTtl());
+        maxRows = properties.getMaxRows();
+    }
+    
+    public CacheRegion<Long, Transaction> byId() {
+        return byId;
+    }
+    
+    public CacheRegion<String, List<Transaction>> byType() {
+        return byType;
+    }
+    
+    public CacheRegion<String, List<Transaction>> byCategory() {
+        return byCategory;
+    }
+    
+    public CacheRegion<DateRange, List<Transaction>> byDateRange() {
+        return byDateRange;
+    }
+    
+    public CacheRegion<AggregateFilter, TransactionSummary> summaries() {
+        return summaries;
+    }
+    
+    public CacheRegion<String, List<Transaction>> all() {
+        return all;
+    }
+    
+    // Holds the committed change version under ALL, so ETag checks need no query
+    public CacheRegion<String, Long> changeVersion() {
+        return changeVersion;
+    }
+    
+    // Largest list any list region will hold
+    public long getMaxRows() {
+        return maxRows;
+    }
+    
+    public List<CacheRegionStats> stats() {
+        return List.of(byId.stats(), byType.stats(), byCategory.stats(), byDateRange.stats(),
+                summaries.stats(), all.stats(), changeVersion.stats());
+    }
+    
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byType.invalidateAll();
+        byCategory.invalidateAll();
+        byDateRange.invalidateAll();
+        summaries.invalidateAll();
+        all.invalidateAll();
+        changeVersion.invalidateAll();
+    }
+    
+    // Summaries may be served from the rollup table, so a rollup rebuild makes them stale
+    // (and bumps the change version)
+    public void invalidateSummariesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateSummaries();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateSummaries();
+            }
+        });
+    }
+    
+    private void invalidateSummaries() {
+        summaries.invalidateAll();
+        changeVersion.invalidateAll();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.kind() == TransactionChangedEvent.Kind.BULK) {
+            invalidateAll();
+            return;
+        }
+        all.invalidateAll();
+        if (event.kind() == TransactionChangedEvent.Kind.UPDATED && event.before() == null) {
+            // The old type, category and date are unknown, so any filtered entry may hold the row
+            byType.invalidateAll();
+            byCategory.invalidateAll();
+            byDateRange.invalidateAll();
+            summaries.invalidateAll();
+        }
+        for (Transaction state : event.states()) {
+            byId.invalidate(state.getId());
+            byType.invalidateIf(type -> type.equals(state.getType()));
+            // Queries match the category's name_key = lower(?); Java's case folding is a superset of SQLite's
+            byCategory.invalidateIf(category -> category.equalsIgnoreCase(state.getCategory()));
+            byDateRange.invalidateIf(range -> range.contains(state.getDate()));
+            summaries.invalidateIf(filter -> matches(filter, state));
+        }
+        // Last, so a reader that sees the new version can no longer find old data in any region
+        changeVersion.invalidateAll();
+    }
+    
+    private static boolean matches(AggregateFilter filter, Transaction transaction) {
+        return (filter.startDate() == null || !transaction.getDate().isBefore(filter.startDate()))
+                && (filter.endDate() == null || !transaction.getDate().isAfter(filter.endDate()))
+                && (filter.category() == null || filter.category().equalsIgnoreCase(transaction.getCategory()));
+    }
+}
@@ -0,0 +1,302 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.findash.config.PushProperties;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.TransactionChange;
+import com.findash.dto.TransactionDelta;
+import com.findash.dto.TransactionSummary;
+import com.findash.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pushes committed transaction changes to open event streams (GET /api/transactions/events), so a
+// dashboard keeps its list and totals current without refetching them. Events are sent in commit order:
+// "upsert" with a created or updated row, "delete" with a deleted id and "changes" when many rows
+// changed at once, after which the client fetches ?since= the last version it applied. Each carries
+// the totals after the change, and its version as the event id, so a reconnecting EventSource resumes
+// with a "delta" of what it missed. A new stream starts with "hello" (version and totals).
+// The commit only queues the event. One dispatcher serializes it once for every subscriber and offers
+// it to each subscriber's bounded buffer; a separate sender writes the buffer to the socket, so a slow
+// client only holds up its own sender, and one whose buffer fills up is disconnected (it resumes from
+// its last event when it reconnects).
+@Component
+@EnableConfigurationProperties(PushProperties.class)
+public class TransactionChangeBroadcaster implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionChangeBroadcaster.class);
+
+    // Commits waiting for the dispatcher; when it falls this far behind the rest become one "changes"
+    private static final int MAX_QUEUED_EVENTS = 10_000;
+
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final PushProperties properties;
+    private final BlockingQueue<TransactionChangedEvent> events = new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS);
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private final Message heartbeat;
+    private final Counter evicted;
+
+    public TransactionChangeBroadcaster(TransactionService transactionService, ObjectMapper objectMapper,
+                                        PushProperties properties, MeterRegistry registry) {
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.heartbeat = new Message(0, SseEmitter.event().comment("heartbeat").build());
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "sse-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+        Gauge.builder("findash.push.subscribers", subscribers, Set::size).register(registry);
+        this.evicted = Counter.builder("findash.push.evicted").register(registry);
+    }
+
+    // Opens a stream, or empty when findash.push.max-subscribers are already open. Given the id of the
+    // last event a client received, "hello" is preceded by a "delta" of the changes since then
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = newEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new LinkedBlockingDeque<>(properties.getBufferSize()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Registered before the version is read, so no commit falls between the first events and the stream
+        subscribers.add(subscriber);
+
+        List<Message> first = new ArrayList<>();
+        TransactionDelta delta = resumeFrom(lastEventId);
+        long version = delta != null ? delta.version() : transactionService.getChangeVersion();
+        if (delta != null) {
+            first.add(new Message(0, event("delta", version, delta)));
+        }
+        first.add(new Message(0, event("hello", version, withTotals(version, null, null, totals()))));
+        subscriber.start(version, first);
+        return Optional.of(emitter);
+    }
+
+    // After TransactionCache dropped its entries, so the version and totals read for this event include it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.version() == 0 || subscribers.isEmpty()) {
+            return;
+        }
+        if (!events.offer(event)) {
+            overflowed.set(true);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.interrupt();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter().complete();
+        }
+        senders.shutdownNow();
+    }
+
+    // Overridden by tests to see what a subscriber is sent, which outside a servlet request is not written
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void dispatch() {
+        List<TransactionChangedEvent> batch = new ArrayList<>();
+        long heartbeatMillis = Math.max(1, properties.getHeartbeat().toMillis());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TransactionChangedEvent first = events.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    broadcast(heartbeat);
+                    continue;
+                }
+                batch.add(first);
+                events.drainTo(batch);
+                broadcast(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                overflowed.set(true);
+                log.error("Pushing {} transaction changes failed; subscribers are told to fetch them", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Totals are read once per batch, after every change in it
+    private void broadcast(List<TransactionChangedEvent> batch) {
+        TransactionSummary totals = totals();
+        for (TransactionChangedEvent event : batch) {
+            long version = event.version();
+            broadcast(switch (event.kind()) {
+                case CREATED, UPDATED -> new Message(version,
+                        event("upsert", version, withTotals(version, event.after(), null, totals)));
+                case DELETED -> new Message(version,
+                        event("delete", version, withTotals(version, null, event.before().getId(), totals)));
+                case BULK -> new Message(version, event("changes", version, withTotals(version, null, null, totals)));
+            });
+        }
+        if (overflowed.getAndSet(false)) {
+            // No id: a client resuming after it must still be sent everything since its last real event
+            long version = transactionService.getChangeVersion();
+            broadcast(new Message(0, event("changes", 0, withTotals(version, null, null, totals()))));
+        }
+    }
+
+    private void broadcast(Message message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private TransactionDelta resumeFrom(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            // One version less, so the rows of the last event (all of a bulk change) are sent again
+            return transactionService.getChangesSince(Math.max(0, Long.parseLong(lastEventId.trim()) - 1));
+        } catch (IllegalArgumentException e) {
+            // Not a version of this database; the client starts over from "hello"
+            return null;
+        }
+    }
+
+    private TransactionSummary totals() {
+        return transactionService.getSummary(AggregateFilter.NONE);
+    }
+
+    private static TransactionChange withTotals(long version, Transaction transaction, Long id,
+                                                TransactionSummary totals) {
+        return new TransactionChange(version, transaction, id, totals.totalIncome(), totals.totalExpense(),
+                totals.balance());
+    }
+
+    // Serialized once, then written as is to every subscriber
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, long version, Object data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+        if (version > 0) {
+            event.id(Long.toString(version));
+        }
+        try {
+            return event.data(objectMapper.writeValueAsString(data)).build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // version is 0 for events every subscriber gets, otherwise the change version they carry
+    private record Message(long version, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingDeque<Message> buffer;
+        // Set while a sender task owns the emitter; starts set so nothing is sent before start
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+        // Changes up to this version are already in the first events
+        private volatile long startVersion = Long.MAX_VALUE;
+
+        private Subscriber(SseEmitter emitter, BlockingDeque<Message> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        void start(long version, List<Message> first) {
+            startVersion = version;
+            for (int i = first.size() - 1; i >= 0; i--) {
+                if (!buffer.offerFirst(first.get(i))) {
+                    evict();
+                    return;
+                }
+            }
+            sending.set(false);
+            sendIfIdle();
+        }
+
+        // Called by the dispatcher only; never blocks on the client
+        void offer(Message message) {
+            if (!buffer.offerLast(message)) {
+                evict();
+                return;
+            }
+            sendIfIdle();
+        }
+
+        private void sendIfIdle() {
+            if (!buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                Message message;
+                while ((message = buffer.pollFirst()) != null) {
+                    if (message.version() == 0 || message.version() > startVersion) {
+                        emitter.send(message.data());
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Disconnected or already completed; the container ends the exchange
+                subscribers.remove(this);
+                return;
+            }
+            sending.set(false);
+            sendIfIdle();
+        }
+
+        // Completing waits for a write in progress, so it runs on a sender too
+        private void evict() {
+            if (subscribers.remove(this)) {
+                evicted.increment();
+                buffer.clear();
+                senders.execute(emitter::complete);
+            }
+        }
+    }
+}
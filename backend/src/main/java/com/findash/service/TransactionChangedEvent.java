@@ -0,0 +1,49 @@
+package com.findash.service;
+
+import com.findash.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Published inside the writing transaction whenever transactions change. before and after are
+// detached snapshots: before is null for creates and for updates written without reading the row
+// first, after is null for deletes, and BULK changes (imports) carry neither, so listeners must treat
+// them as "anything may have changed". version is the change version the write committed under, or
+// 0 for a BULK change that moved rows without changing them (archiving).
+public record TransactionChangedEvent(Kind kind, Transaction before, Transaction after, long version) {
+
+    public enum Kind { CREATED, UPDATED, DELETED, BULK }
+
+    public static TransactionChangedEvent created(Transaction after) {
+        return new TransactionChangedEvent(Kind.CREATED, null, after.copy(), after.getRowVersion());
+    }
+
+    public static TransactionChangedEvent updated(Transaction before, Transaction after) {
+        return new TransactionChangedEvent(Kind.UPDATED, before != null ? before.copy() : null, after.copy(),
+                after.getRowVersion());
+    }
+
+    public static TransactionChangedEvent deleted(Transaction before, long version) {
+        return new TransactionChangedEvent(Kind.DELETED, before.copy(), null, version);
+    }
+
+    public static TransactionChangedEvent bulk(long version) {
+        return new TransactionChangedEvent(Kind.BULK, null, null, version);
+    }
+
+    public static TransactionChangedEvent bulk() {
+        return bulk(0);
+    }
+
+    // The known states of the changed row, old and new
+    public List<Transaction> states() {
+        List<Transaction> states = new ArrayList<>(2);
+        if (before != null) {
+            states.add(before);
+        }
+        if (after != null) {
+            states.add(after);
+        }
+        return states;
+    }
+}
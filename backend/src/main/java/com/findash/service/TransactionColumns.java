@@ -0,0 +1,323 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.findash.dto.TransactionField;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Collects transactions column by column for the compact list formats. Strings with few distinct values
+// (category, merchant, type, payment method) are stored once in a dictionary and referenced by index,
+// dates as epoch days and amounts as cents, so a large pull carries no repeated field names or values.
+//
+// Columnar JSON:
+//   {"rows":2,"amountScale":2,"columns":{"id":[7,5],"date":[20103,20101],"amount":[-1250,300000],
+//    "category":{"values":["Food & Dining","Salary"],"codes":[0,1]},"notes":["",null]}}
+//
+// Binary (all integers are unsigned LEB128 varints, signed ones zigzag-encoded first):
+//   "FDC1", rows, column count, then per column: name, encoding ordinal (one byte) and data
+//   INTEGER, EPOCH_DAY  null bitmap, then the difference of each non-null value from the previous one
+//   SCALED              scale (one byte), null bitmap, then each non-null value
+//   DICTIONARY          distinct count, the distinct values, then code + 1 per row (0 = null)
+//   TEXT                per row UTF-8 length + 1 (0 = null) followed by the bytes
+//   A null bitmap is 0 when the column has no nulls, otherwise 1 followed by ceil(rows / 8) bytes,
+//   least significant bit first; strings are a length followed by UTF-8 bytes.
+public class TransactionColumns {
+
+    public static final int AMOUNT_SCALE = Money.SCALE;
+
+    private static final byte[] MAGIC = {'F', 'D', 'C', '1'};
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final List<Column> columns = new ArrayList<>();
+    private int rows;
+
+    public TransactionColumns(Set<TransactionField> fields) {
+        for (TransactionField field : fields) {
+            columns.add(switch (field.getEncoding()) {
+                case INTEGER, EPOCH_DAY, SCALED -> new NumberColumn(field);
+                case DICTIONARY -> new DictionaryColumn(field);
+                case TEXT -> new TextColumn(field);
+            });
+        }
+    }
+
+    public void add(Transaction transaction) {
+        for (Column column : columns) {
+            column.add(column.field.valueOf(transaction), rows);
+        }
+        rows++;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("rows", rows);
+        generator.writeNumberField("amountScale", AMOUNT_SCALE);
+        generator.writeObjectFieldStart("columns");
+        for (Column column : columns) {
+            generator.writeFieldName(column.field.getParam());
+            column.writeJson(generator);
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    public void writeBinary(OutputStream out) throws IOException {
+        BinaryWriter writer = new BinaryWriter(out);
+        writer.writeBytes(MAGIC);
+        writer.writeVarint(rows);
+        writer.writeVarint(columns.size());
+        for (Column column : columns) {
+            writer.writeString(column.field.getParam());
+            writer.writeByte(column.field.getEncoding().ordinal());
+            column.writeBinary(writer);
+        }
+        writer.flush();
+    }
+
+    private abstract class Column {
+
+        final TransactionField field;
+
+        Column(TransactionField field) {
+            this.field = field;
+        }
+
+        abstract void add(Object value, int row);
+
+        abstract void writeJson(JsonGenerator generator) throws IOException;
+
+        abstract void writeBinary(BinaryWriter writer) throws IOException;
+    }
+
+    private class NumberColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+        private final BitSet nulls = new BitSet();
+
+        NumberColumn(TransactionField field) {
+            super(field);
+        }
+
+        @Override
+        void add(Object value, int row) {
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row * 2);
+            }
+            if (value == null) {
+                nulls.set(row);
+            } else if (value instanceof LocalDate date) {
+                values[row] = date.toEpochDay();
+            } else if (value instanceof Money amount) {
+                values[row] = amount.cents();
+            } else {
+                values[row] = ((Number) value).longValue();
+            }
+        }
+
+        @Override
+        void writeJson(JsonGenerator generator) throws IOException {
+            if (nulls.isEmpty()) {
+                generator.writeArray(values, 0, rows);
+                return;
+            }
+            generator.writeStartArray();
+            for (int row = 0; row < rows; row++) {
+                if (nulls.get(row)) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(values[row]);
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        void writeBinary(BinaryWriter writer) throws IOException {
+            boolean delta = field.getEncoding() != TransactionField.Encoding.SCALED;
+            if (!delta) {
+                writer.writeByte(AMOUNT_SCALE);
+            }
+            if (nulls.isEmpty()) {
+                writer.writeByte(0);
+            } else {
+                writer.writeByte(1);
+                writer.writeBytes(Arrays.copyOf(nulls.toByteArray(), (rows + 7) / 8));
+            }
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                if (!nulls.get(row)) {
+                    writer.writeZigzag(delta ? values[row] - previous : values[row]);
+                    previous = values[row];
+                }
+            }
+        }
+    }
+
+    private class DictionaryColumn extends Column {
+
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[INITIAL_CAPACITY];
+
+        DictionaryColumn(TransactionField field) {
+            super(field);
+        }
+
+        @Override
+        void add(Object value, int row) {
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, row * 2);
+            }
+            if (value == null) {
+                codes[row] = -1;
+                return;
+            }
+            codes[row] = codesByValue.computeIfAbsent((String) value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        @Override
+        void writeJson(JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("values");
+            for (String value : dictionary) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("codes");
+            for (int row = 0; row < rows; row++) {
+                if (codes[row] < 0) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(codes[row]);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        void writeBinary(BinaryWriter writer) throws IOException {
+            writer.writeVarint(dictionary.size());
+            for (String value : dictionary) {
+                writer.writeString(value);
+            }
+            for (int row = 0; row < rows; row++) {
+                writer.writeVarint(codes[row] + 1L);
+            }
+        }
+    }
+
+    private class TextColumn extends Column {
+
+        private final List<String> values = new ArrayList<>();
+
+        TextColumn(TransactionField field) {
+            super(field);
+        }
+
+        @Override
+        void add(Object value, int row) {
+            values.add((String) value);
+        }
+
+        @Override
+        void writeJson(JsonGenerator generator) throws IOException {
+            generator.writeStartArray();
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        void writeBinary(BinaryWriter writer) throws IOException {
+            for (String value : values) {
+                if (value == null) {
+                    writer.writeVarint(0);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writer.writeVarint(bytes.length + 1L);
+                    writer.writeBytes(bytes);
+                }
+            }
+        }
+    }
+
+    // Buffers small writes so each varint does not become a call on the response stream
+    private static class BinaryWriter {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+
+        BinaryWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                flushBuffer();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeVarint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeZigzag(long value) throws IOException {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
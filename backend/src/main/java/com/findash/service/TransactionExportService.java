@@ -0,0 +1,207 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.ExportFormat;
+import com.findash.model.Dimension;
+import com.findash.repository.DimensionDictionary;
+import com.findash.repository.TransactionExportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Exports transactions as CSV or XLSX straight from a database cursor (see TransactionExportRepository).
+// The cursor thread only copies each row into a chunk of findash.export.chunk-size rows; chunks are
+// formatted, and gzipped when asked, in parallel on the common fork-join pool and written in the order
+// they were read. At most two chunks per pool thread are in flight: when the window is full the cursor
+// waits for the oldest chunk and writes it, so memory stays the same however many rows are exported.
+// An export holds a read connection for as long as its client downloads, so at most
+// findash.export.max-concurrent run at once; callers claim a slot with tryStart before exporting.
+@Service
+public class TransactionExportService {
+    
+    @Autowired
+    private TransactionExportRepository exportRepository;
+    
+    @Autowired
+    private DimensionDictionary dictionary;
+    
+    @Value("${findash.export.chunk-size:4096}")
+    private int chunkSize;
+    
+    @Value("${findash.export.max-concurrent:2}")
+    private int maxConcurrent;
+    
+    private final AtomicInteger running = new AtomicInteger();
+    
+    // Claims an export slot; false when max-concurrent exports are already running. A claimed slot is
+    // given back with finished once the export is over, however it ended
+    public boolean tryStart() {
+        if (running.incrementAndGet() > maxConcurrent) {
+            running.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    public void finished() {
+        running.decrementAndGet();
+    }
+    
+    // Writes every transaction matching the filter, newest first, to out; gzip applies to CSV only
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, AggregateFilter filter, boolean gzip, OutputStream out) throws IOException {
+        // Fails before anything is written when the combination is not supported
+        format.fileName(gzip);
+        ExportRun run = new ExportRun(format, gzip, out);
+        try {
+            run.start();
+            exportRepository.forEach(filter, run::add);
+            run.finish();
+        } catch (UncheckedIOException e) {
+            run.cancel();
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            run.cancel();
+            throw e;
+        }
+    }
+    
+    private class ExportRun {
+        private final boolean gzip;
+        private final OutputStream out;
+        private final XlsxWriter xlsx;
+        private final int window = 2 * Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        private final Deque<CompletableFuture<Formatted>> inFlight = new ArrayDeque<>();
+        // Names by stored id, filled as ids first appear in the export
+        private final Map<Dimension, Map<Integer, String>> names = new EnumMap<>(Dimension.class);
+        private ExportChunk chunk;
+        private int sheet = 1;
+        // Last row written to the current sheet, counting its header
+        private int sheetRow = 1;
+        
+        ExportRun(ExportFormat format, boolean gzip, OutputStream out) {
+            this.gzip = gzip;
+            this.out = out;
+            this.xlsx = format == ExportFormat.XLSX ? new XlsxWriter(out, ExportChunk.xlsxHeaderRow()) : null;
+            for (Dimension dimension : Dimension.values()) {
+                names.put(dimension, new HashMap<>());
+            }
+        }
+        
+        // XLSX writes its header with each sheet
+        void start() {
+            if (xlsx == null) {
+                write(new Formatted(sheet, gzip ? ExportChunk.gzip(ExportChunk.csvHeader()) : ExportChunk.csvHeader()));
+            }
+        }
+        
+        // Columns as listed in TransactionExportRepository.SELECT_COLUMNS
+        void add(ResultSet rs) throws SQLException {
+            if (chunk == null) {
+                chunk = new ExportChunk(chunkSize, sheet, sheetRow + 1);
+            }
+            chunk.add(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                    name(Dimension.CATEGORY, rs.getInt(4)),
+                    name(Dimension.MERCHANT, rs.getInt(5)),
+                    rs.getLong(6),
+                    name(Dimension.TYPE, rs.getInt(7)),
+                    name(Dimension.PAYMENT_METHOD, rs.getInt(8)),
+                    rs.getString(9));
+            sheetRow++;
+            boolean sheetFull = xlsx != null && sheetRow == XlsxWriter.MAX_ROWS;
+            if (chunk.isFull() || sheetFull) {
+                submit();
+            }
+            if (sheetFull) {
+                sheet++;
+                sheetRow = 1;
+            }
+        }
+        
+        void finish() {
+            if (chunk != null) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldest();
+            }
+            try {
+                if (xlsx != null) {
+                    xlsx.finish();
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(false));
+            inFlight.clear();
+        }
+        
+        private void submit() {
+            ExportChunk full = chunk;
+            chunk = null;
+            inFlight.add(CompletableFuture.supplyAsync(() -> {
+                byte[] bytes = xlsx != null ? full.toXlsxRows() : full.toCsv();
+                return new Formatted(full.sheet, gzip ? ExportChunk.gzip(bytes) : bytes);
+            }));
+            while (inFlight.size() > window) {
+                writeOldest();
+            }
+        }
+        
+        private void writeOldest() {
+            try {
+                write(inFlight.poll().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        
+        private void write(Formatted formatted) {
+            try {
+                if (xlsx != null) {
+                    xlsx.write(formatted.sheet(), formatted.bytes());
+                } else {
+                    out.write(formatted.bytes());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private String name(Dimension dimension, int id) {
+            Map<Integer, String> byId = names.get(dimension);
+            String name = byId.get(id);
+            if (name == null && !byId.containsKey(id)) {
+                name = dictionary.name(dimension, id);
+                byId.put(id, name);
+            }
+            return name;
+        }
+    }
+    
+    private record Formatted(int sheet, byte[] bytes) {
+    }
+}
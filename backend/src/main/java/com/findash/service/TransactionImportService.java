@@ -0,0 +1,266 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.findash.dto.ImportError;
+import com.findash.dto.ImportResult;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams a CSV or NDJSON statement file, validating each row as it is read and writing valid rows
+// in chunks. Each chunk is one transaction of multi-row INSERTs; invalid rows are reported, not fatal.
+@Service
+public class TransactionImportService {
+    
+    public enum Format { CSV, NDJSON }
+    
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> REQUIRED_COLUMNS = List.of("date", "description", "category", "merchant", "amount", "type");
+    
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+    
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+    
+    @Autowired
+    private TransactionPartitions partitions;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${findash.import.chunk-size:10000}")
+    private int chunkSize;
+    
+    public ImportResult importTransactions(InputStream input, Format format) throws IOException {
+        ImportRun run = new ImportRun(new TransactionTemplate(transactionManager));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+        return run.result();
+    }
+    
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (CsvReader.MalformedRecordException e) {
+            // Nothing is committed yet, so the whole request is refused
+            throw new IllegalArgumentException("CSV header is malformed: " + e.getMessage());
+        }
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + required);
+            }
+        }
+        
+        List<String> record;
+        while ((record = readRecord(csv, run)) != null) {
+            int line = csv.getRecordLine();
+            run.rowsRead++;
+            String missing = missingColumn(record, columns);
+            if (missing != null) {
+                run.reject(line, "Missing column: " + missing);
+                continue;
+            }
+            try {
+                Transaction t = new Transaction();
+                t.setDate(LocalDate.parse(field(record, columns, "date")));
+                t.setDescription(field(record, columns, "description"));
+                t.setCategory(field(record, columns, "category"));
+                t.setMerchant(field(record, columns, "merchant"));
+                t.setAmount(Money.parse(field(record, columns, "amount")));
+                t.setType(field(record, columns, "type"));
+                t.setPaymentMethod(emptyToNull(field(record, columns, "paymentmethod")));
+                t.setNotes(field(record, columns, "notes"));
+                run.accept(line, t);
+            } catch (DateTimeParseException e) {
+                run.reject(line, "Invalid date: " + e.getParsedString());
+            } catch (NumberFormatException e) {
+                // Money.parse explains what is wrong: not a number, too many decimals or out of range
+                run.reject(line, e.getMessage());
+            }
+        }
+    }
+    
+    // Next record, or null once the input ends or a record is malformed. A malformed record is reported
+    // against its line and ends the read; the rows before it are still imported
+    private static List<String> readRecord(CsvReader csv, ImportRun run) throws IOException {
+        try {
+            return csv.readRecord();
+        } catch (CsvReader.MalformedRecordException e) {
+            run.rowsRead++;
+            run.reject(e.getLine(), e.getMessage() + "; the rest of the file was not read");
+            return null;
+        }
+    }
+    
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String json;
+        int line = 0;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                run.accept(line, objectMapper.readValue(json, Transaction.class));
+            } catch (JsonProcessingException e) {
+                run.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+    
+    private static String normalizeColumn(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    // First required column a short or ragged row has no value for, or null when it has them all
+    private static String missingColumn(List<String> record, Map<String, Integer> columns) {
+        for (String required : REQUIRED_COLUMNS) {
+            if (columns.get(required) >= record.size()) {
+                return required;
+            }
+        }
+        return null;
+    }
+    
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        return record.get(index).trim();
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    // Per-request state: the pending chunk, its source line numbers and running counters
+    private class ImportRun {
+        private final TransactionTemplate transactionTemplate;
+        private final long startedNanos = System.nanoTime();
+        private final List<Transaction> chunk = new ArrayList<>();
+        private final List<Integer> chunkLines = new ArrayList<>();
+        private final List<ImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        
+        ImportRun(TransactionTemplate transactionTemplate) {
+            this.transactionTemplate = transactionTemplate;
+        }
+        
+        void accept(int line, Transaction transaction) {
+            transaction.setId(null);
+            if (transaction.getNotes() == null) {
+                transaction.setNotes("");
+            }
+            Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            try {
+                partitions.requireOpen(transaction.getDate());
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            chunk.add(transaction);
+            chunkLines.add(line);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        void reject(int line, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+        
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                Integer inserted = transactionTemplate.execute(status -> {
+                    long version = changeVersionRepository.next();
+                    chunk.forEach(transaction -> transaction.setRowVersion(version));
+                    int rows = bulkRepository.insertAll(chunk);
+                    eventPublisher.publishEvent(TransactionChangedEvent.bulk(version));
+                    return rows;
+                });
+                rowsImported += inserted != null ? inserted : 0;
+            } catch (DataAccessException e) {
+                // The whole chunk rolled back; report every row in it
+                String message = "Rejected by database: " + e.getMostSpecificCause().getMessage();
+                chunkLines.forEach(line -> reject(line, message));
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+        
+        ImportResult result() {
+            long elapsedNanos = Math.max(System.nanoTime() - startedNanos, 1);
+            long rowsPerSecond = rowsImported * 1_000_000_000L / elapsedNanos;
+            return new ImportResult(rowsRead, rowsImported, rowsRejected, errors,
+                    elapsedNanos / 1_000_000, rowsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.findash.config.IngestProperties;
+import com.findash.model.Transaction;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind ingestion for created transactions. A request thread assigns the row an id from a
+// reserved block, puts it on a lock-free queue and waits only until the journal thread has appended
+// it to the IngestJournal and forced the file; every row that arrived meanwhile shares that fsync.
+// The writer thread then inserts journaled rows into SQLite, up to batch-size rows per transaction.
+//
+// On startup the journal is replayed before the web server starts: rows whose ids were never used
+// (neither present nor tombstoned, and ids are never reused) are inserted, so replay is idempotent
+// and cannot resurrect a row deleted after it was written. Journal segments are deleted once a WAL
+// checkpoint has moved their rows into the database file.
+//
+// A row the database refuses outright (a constraint, or a year closed by an archive pass after the row
+// was journaled) is never retried: its batch is written row by row and the refused rows are appended
+// to rejected.ndjson in the journal directory, so they neither wedge the writer nor stop a restart.
+// Any other failure (busy database, full disk) is retried. Enabled with findash.ingest.enabled=true.
+@Component
+@ConditionalOnProperty(name = "findash.ingest.enabled", havingValue = "true")
+@EnableConfigurationProperties(IngestProperties.class)
+public class TransactionIngestService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestService.class);
+
+    // Starts before the web server accepts requests and stops after graceful shutdown has drained them
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long JOURNAL_WAIT_SECONDS = 60;
+    private static final String REJECTED_FILE = "rejected.ndjson";
+
+    private final IngestProperties properties;
+    private final TransactionBulkRepository bulkRepository;
+    private final TransactionPartitions partitions;
+    private final ChangeVersionRepository changeVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writes;
+    private final IngestJournal journal;
+    private final DistributionSummary groupSizes;
+
+    // Rows waiting for the journal thread, and journaled groups waiting for the writer thread
+    private final Queue<Accepted> accepted = new ConcurrentLinkedQueue<>();
+    private final Queue<Journaled> journaled = new ConcurrentLinkedQueue<>();
+    // Rows accepted but not yet committed to the database
+    private final AtomicInteger pending = new AtomicInteger();
+    // Journal position before which every row is committed and checkpointed into the database file
+    private final AtomicLong durable = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread journalThread;
+    private volatile Thread writerThread;
+
+    // Guarded by idLock; a lock rather than synchronized, since reserving blocks on the database
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long nextId;
+    private long idLimit;
+
+    public TransactionIngestService(IngestProperties properties, TransactionBulkRepository bulkRepository,
+                                    TransactionPartitions partitions, ChangeVersionRepository changeVersionRepository, JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.properties = properties;
+        this.bulkRepository = bulkRepository;
+        this.partitions = partitions;
+        this.changeVersionRepository = changeVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.writes = new TransactionTemplate(transactionManager);
+        this.journal = new IngestJournal(Path.of(properties.getJournalDir()), properties.getSegmentSize().toBytes());
+        this.groupSizes = DistributionSummary.builder("findash.ingest.group.size")
+                .description("Rows made durable by one journal fsync")
+                .register(registry);
+        Gauge.builder("findash.ingest.pending", pending, AtomicInteger::get).register(registry);
+    }
+
+    // Assigns the row its id and returns once it is durable in the journal; it reaches the database
+    // shortly after. Throws QueueFullException while max-pending rows are still waiting.
+    public Transaction submit(Transaction transaction) {
+        if (!running) {
+            throw new IllegalStateException("Ingestion is not running");
+        }
+        // Before the row is journaled: a journaled row must always be insertable
+        partitions.requireOpen(transaction.getDate());
+        if (pending.incrementAndGet() > properties.getMaxPending()) {
+            pending.decrementAndGet();
+            throw new QueueFullException(Math.max(1, (properties.getRetryAfter().toMillis() + 999) / 1000));
+        }
+        Accepted entry;
+        try {
+            transaction.setId(nextId());
+            if (transaction.getNotes() == null) {
+                transaction.setNotes("");
+            }
+            entry = new Accepted(transaction.copy(), objectMapper.writeValueAsBytes(transaction),
+                    new CompletableFuture<>());
+        } catch (JsonProcessingException e) {
+            pending.decrementAndGet();
+            throw new IllegalArgumentException("Transaction cannot be serialized: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+        accepted.add(entry);
+        LockSupport.unpark(journalThread);
+        try {
+            entry.journaled().get(JOURNAL_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ingest journal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not write the ingest journal", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the ingest journal", e);
+        }
+        return transaction;
+    }
+
+    @Override
+    public void start() {
+        try {
+            List<byte[]> records = journal.recover();
+            if (!records.isEmpty()) {
+                replay(records);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the ingest journal in " + properties.getJournalDir(), e);
+        }
+        running = true;
+        journalThread = startThread(this::runJournal, "ingest-journal");
+        writerThread = startThread(this::runWriter, "ingest-writer");
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(journalThread);
+        join(journalThread);
+        // A request that got past the running check after the journal thread's last look
+        Accepted late;
+        while ((late = accepted.poll()) != null) {
+            pending.decrementAndGet();
+            late.journaled().completeExceptionally(new IllegalStateException("Ingestion stopped"));
+        }
+        LockSupport.unpark(writerThread);
+        join(writerThread);
+        try {
+            journal.release(durable.get());
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Closing the ingest journal failed; it will be replayed on the next start", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (nextId == idLimit) {
+                int size = properties.getIdBlockSize();
+                Long first = writes.execute(status -> bulkRepository.reserveIds(size));
+                nextId = first;
+                idLimit = first + size;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    // Appends whatever has been accepted as one group, so concurrent requests share an fsync
+    private void runJournal() {
+        List<Accepted> group = new ArrayList<>();
+        long released = 0;
+        while (true) {
+            Accepted entry;
+            while (group.size() < properties.getBatchSize() && (entry = accepted.poll()) != null) {
+                group.add(entry);
+            }
+            if (group.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                long durableNow = durable.get();
+                if (durableNow > released) {
+                    released = release(durableNow, released);
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            List<byte[]> payloads = new ArrayList<>(group.size());
+            List<Transaction> rows = new ArrayList<>(group.size());
+            for (Accepted next : group) {
+                payloads.add(next.payload());
+                rows.add(next.row());
+            }
+            try {
+                long end = journal.append(payloads);
+                journaled.add(new Journaled(rows, end));
+                LockSupport.unpark(writerThread);
+                groupSizes.record(group.size());
+                group.forEach(next -> next.journaled().complete(null));
+            } catch (IOException e) {
+                log.error("Appending {} transactions to the ingest journal failed", group.size(), e);
+                pending.addAndGet(-group.size());
+                group.forEach(next -> next.journaled().completeExceptionally(e));
+            }
+            group.clear();
+        }
+    }
+
+    // Commits journaled rows in batches; a failed batch is retried until it succeeds, since its rows
+    // have already been acknowledged, except for rows the database refuses (see writeBatch)
+    private void runWriter() {
+        List<Transaction> batch = new ArrayList<>();
+        long batchEnd = 0;
+        long applied = 0;
+        while (true) {
+            Journaled group;
+            while (batch.size() < properties.getBatchSize() && (group = journaled.poll()) != null) {
+                batch.addAll(group.rows());
+                batchEnd = group.end();
+            }
+            if (batch.isEmpty()) {
+                if (!running && !journalThread.isAlive() && journaled.isEmpty()) {
+                    break;
+                }
+                if (applied > durable.get()) {
+                    checkpoint(applied);
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Writing {} ingested transactions failed; retrying", batch.size(), e);
+                sleep(RETRY_DELAY_MS);
+                continue;
+            }
+            applied = batchEnd;
+            // Under sustained load the writer is never idle, so also checkpoint every segment's worth
+            if (applied - durable.get() >= properties.getSegmentSize().toBytes()) {
+                checkpoint(applied);
+            }
+        }
+        if (applied > durable.get()) {
+            checkpoint(applied);
+        }
+    }
+
+    // Writes and empties the batch. When the database refuses it, its rows are written one at a time
+    // instead and the refused ones set aside; any other failure is thrown with the rows not yet written
+    // left in the batch.
+    private void writeBatch(List<Transaction> batch) {
+        try {
+            write(batch);
+            pending.addAndGet(-batch.size());
+            batch.clear();
+            return;
+        } catch (RuntimeException e) {
+            if (!refused(e)) {
+                throw e;
+            }
+            log.warn("The database refused a batch of {} ingested transactions; writing them one at a time",
+                    batch.size(), e);
+        }
+        Iterator<Transaction> rows = batch.iterator();
+        while (rows.hasNext()) {
+            Transaction row = rows.next();
+            try {
+                write(List.of(row));
+            } catch (RuntimeException e) {
+                if (!refused(e)) {
+                    throw e;
+                }
+                reject(row, e);
+            }
+            rows.remove();
+            pending.decrementAndGet();
+        }
+    }
+
+    private void write(List<Transaction> batch) {
+        writes.executeWithoutResult(status -> {
+            long version = changeVersionRepository.next();
+            batch.forEach(transaction -> transaction.setRowVersion(version));
+            bulkRepository.insertWithIds(batch);
+            batch.forEach(transaction -> eventPublisher.publishEvent(TransactionChangedEvent.created(transaction)));
+        });
+    }
+
+    // Rows committed with synchronous=NORMAL may still be only in the WAL; once a checkpoint has
+    // copied the whole WAL into the (synced) database file, their journal records can go
+    private void checkpoint(long applied) {
+        try {
+            Map<String, Object> result = jdbcTemplate.queryForMap("PRAGMA wal_checkpoint(PASSIVE)");
+            Number busy = (Number) result.get("busy");
+            Number logFrames = (Number) result.get("log");
+            Number checkpointed = (Number) result.get("checkpointed");
+            if (busy.intValue() == 0 && logFrames.longValue() == checkpointed.longValue()) {
+                durable.set(applied);
+                LockSupport.unpark(journalThread);
+            }
+        } catch (RuntimeException e) {
+            log.warn("WAL checkpoint for the ingest journal failed", e);
+        }
+    }
+
+    private long release(long durableNow, long released) {
+        try {
+            journal.release(durableNow);
+            return durableNow;
+        } catch (IOException e) {
+            log.warn("Deleting ingest journal segments failed", e);
+            return released;
+        }
+    }
+
+    private void replay(List<byte[]> records) {
+        List<Transaction> rows = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            try {
+                rows.add(objectMapper.readValue(record, Transaction.class));
+            } catch (IOException e) {
+                log.error("Skipping unreadable ingest journal record", e);
+            }
+        }
+        int restored = 0;
+        for (int from = 0; from < rows.size(); from += properties.getBatchSize()) {
+            List<Transaction> chunk = rows.subList(from, Math.min(from + properties.getBatchSize(), rows.size()));
+            try {
+                restored += insertMissing(chunk);
+                continue;
+            } catch (RuntimeException e) {
+                if (!refused(e)) {
+                    throw e;
+                }
+            }
+            // As in writeBatch: a refused row is set aside rather than stopping the application from starting
+            for (Transaction row : chunk) {
+                try {
+                    restored += insertMissing(List.of(row));
+                } catch (RuntimeException e) {
+                    if (!refused(e)) {
+                        throw e;
+                    }
+                    reject(row, e);
+                }
+            }
+        }
+        log.info("Replayed the ingest journal: {} of {} journaled transactions were missing from the database",
+                restored, rows.size());
+        checkpoint(journal.end());
+        release(durable.get(), 0);
+    }
+
+    // Inserts the rows whose ids were never used; returns how many
+    private int insertMissing(List<Transaction> rows) {
+        Integer inserted = writes.execute(status -> {
+            Set<Long> used = bulkRepository.findUsedIds(rows.stream().map(Transaction::getId).toList());
+            List<Transaction> missing = rows.stream().filter(row -> !used.contains(row.getId())).toList();
+            if (missing.isEmpty()) {
+                return 0;
+            }
+            long version = changeVersionRepository.next();
+            missing.forEach(row -> row.setRowVersion(version));
+            bulkRepository.insertWithIds(missing);
+            eventPublisher.publishEvent(TransactionChangedEvent.bulk(version));
+            return missing.size();
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    // The row was acknowledged, so it is kept where an operator can find it rather than dropped
+    private void reject(Transaction row, RuntimeException cause) {
+        Path file = Path.of(properties.getJournalDir()).resolve(REJECTED_FILE);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            json = "{\"id\":" + row.getId() + "}";
+        }
+        log.error("The database refused ingested transaction {}; it was moved to {}: {}", row.getId(), file, json,
+                cause);
+        try {
+            Files.writeString(file, json + "\n", StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Could not append refused transaction {} to {}", row.getId(), file, e);
+        }
+    }
+
+    // Whether the database refuses the rows themselves (a constraint or a trigger such as the closed-period
+    // check), so writing them again can never succeed
+    private static boolean refused(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLiteException sqlite) {
+                int primary = sqlite.getResultCode().code & 0xff;
+                return primary == SQLiteErrorCode.SQLITE_CONSTRAINT.code
+                        || primary == SQLiteErrorCode.SQLITE_MISMATCH.code
+                        || primary == SQLiteErrorCode.SQLITE_TOOBIG.code;
+            }
+        }
+        return false;
+    }
+
+    private static Thread startThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Too many rows are waiting to be written; the client should retry after the given delay
+    public static class QueueFullException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        public QueueFullException(long retryAfterSeconds) {
+            super("Ingestion queue is full, retry after " + retryAfterSeconds + "s");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private record Accepted(Transaction row, byte[] payload, CompletableFuture<Void> journaled) {
+    }
+
+    private record Journaled(List<Transaction> rows, long end) {
+    }
+}
@@ -1,70 +1,344 @@
 package com.findash.service;
 
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.SearchHit;
+import com.findash.dto.SearchPage;
+import com.findash.dto.TransactionDelta;
+import com.findash.dto.TransactionPage;
+import com.findash.dto.TransactionSummary;
+import com.findash.exception.NotFoundException;
+import com.findash.model.Money;
 import com.findash.model.Transaction;
+import com.findash.repository.ArchivedTransactionRepository;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionAggregateRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
 import com.findash.repository.TransactionRepository;
+import com.findash.repository.TransactionRollupRepository;
+import com.findash.repository.TransactionSearchRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// Every public method is timed as findash.service{class, method}. Reads that can reach back into
+// closed years add the matching archived partitions' rows (see TransactionPartitions); archived rows
+// are older than every live row and cannot be changed.
 @Service
 @Transactional
+@Timed(value = "findash.service", histogram = true)
 public class TransactionService {
     
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private TransactionAggregateRepository aggregateRepository;
+    
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+    
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+    
+    @Autowired
+    private TransactionSearchRepository searchRepository;
+    
+    @Autowired
+    private ArchivedTransactionRepository archivedRepository;
+    
+    @Autowired
+    private TransactionPartitions partitions;
+    
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+    
+    @Autowired
+    private TransactionCache transactionCache;
+    
+    // Present only with findash.snapshot.enabled=true
+    @Autowired(required = false)
+    private TransactionSnapshot snapshot;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAllByOrderByDateDesc();
+        List<Transaction> transactions = new ArrayList<>(transactionRepository.findAllByOrderByDateDesc());
+        archivedRepository.forEach(transactions::add);
+        return transactions;
+    }
+    
+    // Keyset pagination over (date DESC, id DESC); cursor is the token returned with the previous page.
+    // Pages run through the live table first and continue into the archived years.
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Transaction> rows;
+        TransactionCursor after = null;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findPage(fetchLimit);
+        } else {
+            after = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageAfter(after.date(), after.id(), fetchLimit);
+        }
+        if (rows.size() <= pageSize) {
+            if (!rows.isEmpty()) {
+                after = TransactionCursor.of(rows.get(rows.size() - 1));
+            }
+            rows = new ArrayList<>(rows);
+            rows.addAll(archivedRepository.findPage(after != null ? after.date() : null,
+                    after != null ? after.id() : null, pageSize + 1 - rows.size()));
+        }
+        
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, pageSize);
+        return new TransactionPage(page, TransactionCursor.of(page.get(pageSize - 1)).encode());
+    }
+    
+    // Streams every transaction, newest first and then on into the archived years, to the consumer
+    // without materializing the result set. Each live row is detached once consumed so the persistence context stays empty. Tables up to the
+    // cache's row limit are also collected on the way and served from memory until the next write.
+    @Transactional(readOnly = true)
+    public void streamTransactions(Consumer<Transaction> consumer) {
+        CacheRegion<String, List<Transaction>> region = transactionCache.all();
+        List<Transaction> cached = region.getIfPresent(TransactionCache.ALL);
+        if (cached != null) {
+            cached.forEach(consumer);
+            return;
+        }
+        
+        long loadGeneration = region.currentGeneration();
+        List<Transaction> collected = new ArrayList<>();
+        // Holds at most one row past the cache's limit, which is enough to tell it is too large to cache
+        Consumer<Transaction> collect = transaction -> {
+            consumer.accept(transaction);
+            if (collected.size() <= transactionCache.getMaxRows()) {
+                collected.add(transaction);
+            }
+        };
+        try (Stream<Transaction> rows = transactionRepository.streamAllByOrderByDateDescIdDesc()) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                collect.accept(transaction);
+                entityManager.detach(transaction);
+            }
+        }
+        archivedRepository.forEach(collect);
+        if (collected.size() <= transactionCache.getMaxRows()) {
+            region.put(TransactionCache.ALL, List.copyOf(collected), loadGeneration);
+        }
     }
     
+    @Transactional(readOnly = true)
     public Optional<Transaction> getTransactionById(Long id) {
-        return transactionRepository.findById(id);
+        return Optional.ofNullable(transactionCache.byId()
+                .get(id, key -> transactionRepository.findById(key).or(() -> archivedRepository.findById(key))
+                        .orElse(null)));
+    }
+    
+    // Version of the last committed write; changes whenever any list or summary could have changed
+    @Transactional(readOnly = true)
+    public long getChangeVersion() {
+        return transactionCache.changeVersion().get(TransactionCache.ALL, key -> changeVersionRepository.current());
+    }
+    
+    // Rows inserted, updated or deleted after the given version, read from one consistent snapshot
+    @Transactional(readOnly = true)
+    public TransactionDelta getChangesSince(long since) {
+        long version = changeVersionRepository.current();
+        if (since < 0 || since > version) {
+            throw new IllegalArgumentException("Unknown version: " + since);
+        }
+        return new TransactionDelta(version,
+                transactionRepository.findByRowVersionGreaterThanOrderByRowVersionAscIdAsc(since),
+                changeVersionRepository.deletedSince(since));
     }
     
     public Transaction createTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        partitions.requireOpen(transaction.getDate());
+        transaction.setRowVersion(changeVersionRepository.next());
+        Transaction saved = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(TransactionChangedEvent.created(saved));
+        return saved;
     }
     
+    // One UPDATE ... RETURNING instead of loading the entity and flushing a dirty check; the old
+    // state is not read, so listeners get an update event without a before state
     public Transaction updateTransaction(Long id, Transaction transactionDetails) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
-        
-        transaction.setDate(transactionDetails.getDate());
-        transaction.setDescription(transactionDetails.getDescription());
-        transaction.setCategory(transactionDetails.getCategory());
-        transaction.setMerchant(transactionDetails.getMerchant());
-        transaction.setAmount(transactionDetails.getAmount());
-        transaction.setType(transactionDetails.getType());
-        transaction.setPaymentMethod(transactionDetails.getPaymentMethod());
-        transaction.setNotes(transactionDetails.getNotes());
-        
-        return transactionRepository.save(transaction);
+        partitions.requireOpen(transactionDetails.getDate());
+        Transaction updated = bulkRepository.updateById(id, transactionDetails, changeVersionRepository.next())
+                .orElseThrow(() -> notLive(id));
+        eventPublisher.publishEvent(TransactionChangedEvent.updated(null, updated));
+        return updated;
     }
     
+    // One DELETE ... RETURNING; the returned row is the state the delete event carries
     public void deleteTransaction(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
-        transactionRepository.delete(transaction);
+        long version = changeVersionRepository.next();
+        Transaction deleted = bulkRepository.deleteById(id)
+                .orElseThrow(() -> notLive(id));
+        changeVersionRepository.recordDeletion(id, version);
+        eventPublisher.publishEvent(TransactionChangedEvent.deleted(deleted, version));
+    }
+    
+    // Why a write by id matched no open row: an archived row, or a live one in a closed year that is still
+    // waiting to be moved, is read-only like a write dated in its year
+    private RuntimeException notLive(Long id) {
+        if (transactionRepository.existsById(id) || archivedRepository.findById(id).isPresent()) {
+            return new IllegalArgumentException("Transaction " + id + " is archived and read-only");
+        }
+        return new NotFoundException("Transaction not found with id: " + id);
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByType(String type) {
-        return transactionRepository.findByType(type);
+        return transactionCache.byType().get(type,
+                key -> concat(transactionRepository.findByType(key), archivedRepository.findByType(key)));
     }
     
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByCategory(String category) {
-        return transactionRepository.findByCategory(category);
+        return transactionCache.byCategory()
+                .get(category, key -> concat(transactionRepository.findByCategory(key),
+                        archivedRepository.findByCategory(key)));
     }
     
+    // In merchant order; archived rows are merged in by a stable sort that keeps each merchant's live rows first
+    @Transactional(readOnly = true)
+    public List<Transaction> getTransactionsByMerchantPrefix(String prefix) {
+        List<Transaction> live = transactionRepository.findByMerchantPrefix(prefix);
+        List<Transaction> archived = archivedRepository.findByMerchantPrefix(prefix);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<Transaction> transactions = new ArrayList<>(live);
+        transactions.addAll(archived);
+        transactions.sort(Comparator.comparing(transaction -> transaction.getMerchant().toLowerCase(Locale.ROOT)));
+        return transactions;
+    }
+    
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByDateBetween(startDate, endDate);
+        return transactionCache.byDateRange().get(new TransactionCache.DateRange(startDate, endDate),
+                range -> concat(transactionRepository.findByDateBetween(range.startDate(), range.endDate()),
+                        archivedRepository.findByDateBetween(range.startDate(), range.endDate())));
+    }
+    
+    @Transactional(readOnly = true)
+    public Money getTotalByType(String type) {
+        Long totalCents = transactionRepository.getTotalCentsByType(type);
+        return Money.ofCents((totalCents != null ? totalCents : 0L) + archivedRepository.getTotalCentsByType(type));
+    }
+    
+    // Count, total, min, max and average per type (and any extra dimensions) in one grouped query,
+    // or from the in-memory snapshot when it is enabled and loaded
+    @Transactional(readOnly = true)
+    public List<AggregateRow> getAggregates(Set<AggregateDimension> groupBy, AggregateFilter filter) {
+        return aggregate(groupBy, filter);
+    }
+    
+    // Served from the rollup table when the date range covers whole months, otherwise from the live table
+    @Transactional(readOnly = true)
+    public TransactionSummary getSummary(AggregateFilter filter) {
+        return transactionCache.summaries().get(filter, this::loadSummary);
+    }
+    
+    private TransactionSummary loadSummary(AggregateFilter filter) {
+        Set<AggregateDimension> byTypeOnly = EnumSet.noneOf(AggregateDimension.class);
+        boolean startAligned = filter.startDate() == null || filter.startDate().getDayOfMonth() == 1;
+        boolean endAligned = filter.endDate() == null
+                || filter.endDate().equals(YearMonth.from(filter.endDate()).atEndOfMonth());
+        if (startAligned && endAligned) {
+            return TransactionSummary.from(rollupRepository.totals(byTypeOnly,
+                    filter.startDate() != null ? YearMonth.from(filter.startDate()) : null,
+                    filter.endDate() != null ? YearMonth.from(filter.endDate()) : null,
+                    filter.category()));
+        }
+        return TransactionSummary.from(aggregate(byTypeOnly, filter));
+    }
+    
+    private List<AggregateRow> aggregate(Set<AggregateDimension> groupBy, AggregateFilter filter) {
+        if (snapshot != null) {
+            Optional<List<AggregateRow>> rows = snapshot.aggregate(groupBy, filter);
+            if (rows.isPresent()) {
+                // The snapshot holds the live table only
+                return AggregateRow.merge(rows.get(), aggregateRepository.aggregateArchived(groupBy, filter));
+            }
+        }
+        return aggregateRepository.aggregate(groupBy, filter);
+    }
+    
+    // Full-text search over description, merchant and notes; every word must match, as a prefix.
+    // Only the open years are indexed; archived partitions carry no full-text index.
+    @Transactional(readOnly = true)
+    public SearchPage search(String query, String type, LocalDate startDate, LocalDate endDate, int page, int size) {
+        String match = toMatchExpression(query);
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        List<SearchHit> hits = searchRepository.search(match, type, startDate, endDate,
+                pageSize + 1, pageNumber * pageSize);
+        boolean hasMore = hits.size() > pageSize;
+        return new SearchPage(hasMore ? hits.subList(0, pageSize) : hits, pageNumber, pageSize, hasMore);
+    }
+    
+    private static List<Transaction> concat(List<Transaction> live, List<Transaction> archived) {
+        if (archived.isEmpty()) {
+            return List.copyOf(live);
+        }
+        List<Transaction> transactions = new ArrayList<>(live);
+        transactions.addAll(archived);
+        return List.copyOf(transactions);
     }
     
-    public Double getTotalByType(String type) {
-        Double total = transactionRepository.getTotalByType(type);
-        return total != null ? total : 0.0;
+    // Turns free text into an FTS5 query: each word becomes a quoted prefix term, so user input
+    // can never be parsed as FTS syntax (NEAR, column filters, unbalanced quotes)
+    static String toMatchExpression(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : WHITESPACE.split(query.trim())) {
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(word.replace("\"", "\"\"")).append("\"*");
+        }
+        return match.toString();
     }
 }
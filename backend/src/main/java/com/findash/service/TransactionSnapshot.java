@@ -0,0 +1,159 @@
+package com.findash.service;
+
+import com.findash.config.SnapshotProperties;
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.model.Dimension;
+import com.findash.repository.DimensionDictionary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory columnar copy of the live transactions table (the open years) that answers aggregates
+// with a parallel scan over primitive arrays instead of a grouped SQLite query. Loaded in the
+// background once the application is ready and kept current from TransactionChangedEvent after each
+// commit; until the first load finishes (and while reloading after a bulk import) queries fall back
+// to SQL.
+// Enabled with findash.snapshot.enabled=true.
+@Component
+@ConditionalOnProperty(name = "findash.snapshot.enabled", havingValue = "true")
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class TransactionSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSnapshot.class);
+
+    private static final String LOAD_SQL = "SELECT id, date, type_id, category_id, merchant_id, payment_method_id, "
+            + "amount_cents, row_version FROM transactions ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DimensionDictionary dictionary;
+    private final TransactionTemplate readOnly;
+    private final SnapshotProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BackgroundReloader<SnapshotColumns> reloader;
+
+    // Guarded by lock
+    private SnapshotColumns columns = new SnapshotColumns();
+    private volatile boolean ready;
+
+    public TransactionSnapshot(JdbcTemplate jdbcTemplate, DimensionDictionary dictionary,
+                               PlatformTransactionManager transactionManager, SnapshotProperties properties,
+                               MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.properties = properties;
+        this.reloader = new BackgroundReloader<>("snapshot-loader", lock.writeLock(),
+                () -> readOnly.execute(status -> load()), TransactionSnapshot::apply, this::install,
+                e -> log.error("Loading the transaction snapshot failed; aggregates will use SQL", e));
+        Gauge.builder("findash.snapshot.rows", this, TransactionSnapshot::liveRows).register(registry);
+        Gauge.builder("findash.snapshot.ready", this, snapshot -> snapshot.ready ? 1 : 0).register(registry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // The aggregate, or empty while the snapshot is not loaded so the caller can use SQL
+    public Optional<List<AggregateRow>> aggregate(Set<AggregateDimension> groupBy, AggregateFilter filter) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            return Optional.of(columns.aggregate(groupBy, filter, properties.getSegmentSize()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reloader.requestReload();
+    }
+
+    // Runs before TransactionCache drops its entries, so a summary recomputed right after the
+    // invalidation already sees the change here
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.kind() == TransactionChangedEvent.Kind.BULK) {
+                // Under the lock, so a load finishing concurrently cannot mark itself ready
+                ready = false;
+                reloader.requestReload();
+            } else if (!reloader.deferIfLoading(event)) {
+                apply(columns, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Changes committed while loading may or may not be in the loaded rows; they were applied again,
+    // which is safe because upserts compare row versions and deletes are idempotent
+    private void install(SnapshotColumns loaded) {
+        columns = loaded;
+        ready = !reloader.isReloadRequested();
+    }
+
+    private SnapshotColumns load() {
+        long started = System.nanoTime();
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+        SnapshotColumns loaded = new SnapshotColumns((int) Math.min(Integer.MAX_VALUE - 8, count + count / 8));
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            loaded.append(rs.getLong("id"), rs.getDate("date").toLocalDate(),
+                    dictionary.name(Dimension.TYPE, rs.getInt("type_id")),
+                    dictionary.name(Dimension.CATEGORY, rs.getInt("category_id")),
+                    dictionary.name(Dimension.MERCHANT, rs.getInt("merchant_id")),
+                    dictionary.name(Dimension.PAYMENT_METHOD, rs.getInt("payment_method_id")),
+                    rs.getLong("amount_cents"), rs.getLong("row_version"));
+        });
+        log.info("Loaded {} transactions into the snapshot in {} ms",
+                loaded.liveRows(), (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    private static void apply(SnapshotColumns target, TransactionChangedEvent event) {
+        switch (event.kind()) {
+            case CREATED -> target.upsert(event.after(), true);
+            case UPDATED -> target.upsert(event.after(), false);
+            case DELETED -> target.delete(event.before().getId());
+            case BULK -> { }
+        }
+    }
+
+    private double liveRows() {
+        lock.readLock().lock();
+        try {
+            return columns.liveRows();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.findash.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Streams an Office Open XML workbook: a ZIP package whose worksheets are written row by row as they
+// arrive, so nothing but the deflater's window is held in memory. Cells are inline strings and plain
+// numbers (no shared-string table, which would need every string up front). A sheet holds at most
+// MAX_ROWS rows including its header; the caller moves on to the next sheet before that. The workbook,
+// its relationships and the content types list the sheets, so they are written last (ZIP readers go
+// by the central directory, not entry order).
+final class XlsxWriter {
+
+    static final int MAX_ROWS = 1_048_576;
+
+    // Indexes into cellXfs of STYLES
+    static final int STYLE_DEFAULT = 0;
+    static final int STYLE_DATE = 1;
+    static final int STYLE_AMOUNT = 2;
+    static final int STYLE_HEADER = 3;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIP_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_RELATIONSHIP_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // Header frozen, widths roughly fitting id, date, description, category, merchant, amount, type,
+    // payment method and notes
+    private static final String SHEET_START = XML_DECLARATION + "<worksheet xmlns=\"" + MAIN_NS + "\">"
+            + "<sheetViews><sheetView workbookViewId=\"0\"><pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\""
+            + " state=\"frozen\"/></sheetView></sheetViews>"
+            + "<cols><col min=\"1\" max=\"1\" width=\"10\"/><col min=\"2\" max=\"2\" width=\"11\"/>"
+            + "<col min=\"3\" max=\"3\" width=\"40\"/><col min=\"4\" max=\"5\" width=\"20\"/>"
+            + "<col min=\"6\" max=\"6\" width=\"12\"/><col min=\"7\" max=\"8\" width=\"14\"/>"
+            + "<col min=\"9\" max=\"9\" width=\"30\"/></cols><sheetData>";
+    private static final String SHEET_END = "</sheetData></worksheet>";
+
+    // Built-in number formats 14 (short date) and 4 (#,##0.00); the header is bold
+    private static final String STYLES = XML_DECLARATION + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"4\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final byte[] headerRow;
+    private int sheets;
+    private boolean sheetOpen;
+
+    XlsxWriter(OutputStream out, byte[] headerRow) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Formatting runs in parallel; the single deflater should not be what the export waits on
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.headerRow = headerRow;
+    }
+
+    // Appends formatted rows to the given sheet (1-based), first closing the current one if it is earlier
+    void write(int sheet, byte[] rows) throws IOException {
+        while (sheets < sheet) {
+            nextSheet();
+        }
+        zip.write(rows);
+    }
+
+    // Completes the package; the underlying stream is left open
+    void finish() throws IOException {
+        if (sheets == 0) {
+            nextSheet();
+        }
+        closeSheet();
+
+        StringBuilder workbook = new StringBuilder(XML_DECLARATION).append("<workbook xmlns=\"").append(MAIN_NS)
+                .append("\" xmlns:r=\"").append(RELATIONSHIP_NS).append("\"><sheets>");
+        StringBuilder workbookRelationships = new StringBuilder(XML_DECLARATION).append("<Relationships xmlns=\"")
+                .append(PACKAGE_RELATIONSHIP_NS).append("\">");
+        StringBuilder contentTypes = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            workbook.append("<sheet name=\"Transactions").append(sheet > 1 ? " " + sheet : "")
+                    .append("\" sheetId=\"").append(sheet).append("\" r:id=\"rId").append(sheet).append("\"/>");
+            workbookRelationships.append("<Relationship Id=\"rId").append(sheet).append("\" Type=\"")
+                    .append(RELATIONSHIP_NS).append("/worksheet\" Target=\"worksheets/sheet").append(sheet)
+                    .append(".xml\"/>");
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        workbook.append("</sheets></workbook>");
+        workbookRelationships.append("<Relationship Id=\"rId").append(sheets + 1).append("\" Type=\"")
+                .append(RELATIONSHIP_NS).append("/styles\" Target=\"styles.xml\"/></Relationships>");
+        contentTypes.append("</Types>");
+
+        entry("xl/workbook.xml", workbook.toString());
+        entry("xl/_rels/workbook.xml.rels", workbookRelationships.toString());
+        entry("xl/styles.xml", STYLES);
+        entry("_rels/.rels", XML_DECLARATION + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIP_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        entry("[Content_Types].xml", contentTypes.toString());
+        zip.finish();
+    }
+
+    private void nextSheet() throws IOException {
+        closeSheet();
+        sheets++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        zip.write(SHEET_START.getBytes(StandardCharsets.UTF_8));
+        zip.write(headerRow);
+        sheetOpen = true;
+    }
+
+    private void closeSheet() throws IOException {
+        if (sheetOpen) {
+            zip.write(SHEET_END.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            sheetOpen = false;
+        }
+    }
+
+    private void entry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,247 @@
+-- Schema objects Hibernate does not manage. Runs on every startup after Hibernate's
+-- ddl-auto=update, so every statement must be idempotent. Statements end with ^;
+-- because trigger bodies contain plain semicolons.
+
+-- Lookup tables for the dimensions (see Dimension and DimensionDictionary). Each distinct name is
+-- stored once, exactly as written; transactions hold its id. Rows are never deleted or renamed.
+-- name_key serves case-insensitive filters and merchant prefix search through its index.
+CREATE TABLE IF NOT EXISTS categories (
+    id       INTEGER PRIMARY KEY,
+    name     TEXT    NOT NULL UNIQUE,
+    name_key TEXT    GENERATED ALWAYS AS (lower(name)) VIRTUAL
+)^;
+
+CREATE INDEX IF NOT EXISTS idx_categories_name_key ON categories (name_key)^;
+
+CREATE TABLE IF NOT EXISTS merchants (
+    id       INTEGER PRIMARY KEY,
+    name     TEXT    NOT NULL UNIQUE,
+    name_key TEXT    GENERATED ALWAYS AS (lower(name)) VIRTUAL
+)^;
+
+CREATE INDEX IF NOT EXISTS idx_merchants_name_key ON merchants (name_key)^;
+
+CREATE TABLE IF NOT EXISTS transaction_types (
+    id       INTEGER PRIMARY KEY,
+    name     TEXT    NOT NULL UNIQUE,
+    name_key TEXT    GENERATED ALWAYS AS (lower(name)) VIRTUAL
+)^;
+
+CREATE TABLE IF NOT EXISTS payment_methods (
+    id       INTEGER PRIMARY KEY,
+    name     TEXT    NOT NULL UNIQUE,
+    name_key TEXT    GENERATED ALWAYS AS (lower(name)) VIRTUAL
+)^;
+
+-- Monthly totals, counts and amount ranges per (category, type) id, kept current by the
+-- triggers below in the same transaction as the write. Amounts are integer cents; dates are
+-- epoch millis at local midnight, so periods are computed in local time. A removed row that
+-- held its bucket's smallest or largest amount has the range recomputed from the bucket's month.
+CREATE TABLE IF NOT EXISTS transaction_rollups (
+    period      TEXT    NOT NULL,
+    category_id INTEGER NOT NULL,
+    type_id     INTEGER NOT NULL,
+    total_cents INTEGER NOT NULL,
+    txn_count   INTEGER NOT NULL,
+    min_cents   INTEGER NOT NULL,
+    max_cents   INTEGER NOT NULL,
+    PRIMARY KEY (period, category_id, type_id)
+) WITHOUT ROWID^;
+
+-- Triggers are recreated on every startup so changes to their bodies reach existing databases
+DROP TRIGGER IF EXISTS trg_transactions_rollup_insert^;
+CREATE TRIGGER trg_transactions_rollup_insert AFTER INSERT ON transactions
+BEGIN
+    INSERT INTO transaction_rollups (period, category_id, type_id, total_cents, txn_count, min_cents, max_cents)
+    VALUES (strftime('%Y-%m', NEW.date / 1000, 'unixepoch', 'localtime'), NEW.category_id, NEW.type_id,
+            NEW.amount_cents, 1, NEW.amount_cents, NEW.amount_cents)
+    ON CONFLICT (period, category_id, type_id) DO UPDATE
+        SET total_cents = total_cents + excluded.total_cents,
+            txn_count = txn_count + 1,
+            min_cents = MIN(min_cents, excluded.min_cents),
+            max_cents = MAX(max_cents, excluded.max_cents);
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_rollup_delete^;
+CREATE TRIGGER trg_transactions_rollup_delete AFTER DELETE ON transactions
+BEGIN
+    UPDATE transaction_rollups
+       SET total_cents = total_cents - OLD.amount_cents,
+           txn_count = txn_count - 1
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id;
+    DELETE FROM transaction_rollups
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id
+       AND txn_count <= 0;
+    UPDATE transaction_rollups
+       SET min_cents = (SELECT MIN(amount_cents) FROM transactions
+                         WHERE type_id = OLD.type_id AND category_id = OLD.category_id
+                           AND date >= strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', 'utc') * 1000
+                           AND date < strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', '+1 month', 'utc') * 1000),
+           max_cents = (SELECT MAX(amount_cents) FROM transactions
+                         WHERE type_id = OLD.type_id AND category_id = OLD.category_id
+                           AND date >= strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', 'utc') * 1000
+                           AND date < strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', '+1 month', 'utc') * 1000)
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id
+       AND OLD.amount_cents IN (min_cents, max_cents);
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_rollup_update^;
+CREATE TRIGGER trg_transactions_rollup_update AFTER UPDATE OF date, category_id, type_id, amount_cents ON transactions
+BEGIN
+    UPDATE transaction_rollups
+       SET total_cents = total_cents - OLD.amount_cents,
+           txn_count = txn_count - 1
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id;
+    DELETE FROM transaction_rollups
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id
+       AND txn_count <= 0;
+    UPDATE transaction_rollups
+       SET min_cents = (SELECT MIN(amount_cents) FROM transactions
+                         WHERE type_id = OLD.type_id AND category_id = OLD.category_id
+                           AND date >= strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', 'utc') * 1000
+                           AND date < strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', '+1 month', 'utc') * 1000),
+           max_cents = (SELECT MAX(amount_cents) FROM transactions
+                         WHERE type_id = OLD.type_id AND category_id = OLD.category_id
+                           AND date >= strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', 'utc') * 1000
+                           AND date < strftime('%s', OLD.date / 1000, 'unixepoch', 'localtime', 'start of month', '+1 month', 'utc') * 1000)
+     WHERE period = strftime('%Y-%m', OLD.date / 1000, 'unixepoch', 'localtime')
+       AND category_id = OLD.category_id
+       AND type_id = OLD.type_id
+       AND OLD.amount_cents IN (min_cents, max_cents);
+    INSERT INTO transaction_rollups (period, category_id, type_id, total_cents, txn_count, min_cents, max_cents)
+    VALUES (strftime('%Y-%m', NEW.date / 1000, 'unixepoch', 'localtime'), NEW.category_id, NEW.type_id,
+            NEW.amount_cents, 1, NEW.amount_cents, NEW.amount_cents)
+    ON CONFLICT (period, category_id, type_id) DO UPDATE
+        SET total_cents = total_cents + excluded.total_cents,
+            txn_count = txn_count + 1,
+            min_cents = MIN(min_cents, excluded.min_cents),
+            max_cents = MAX(max_cents, excluded.max_cents);
+END^;
+
+-- No backfill here: in a database from before the lookup tables, transaction_rollups still has text
+-- columns when this runs. DimensionMigration replaces the table and rebuilds its buckets.
+
+-- Full-text index over description, merchant and notes. External content: the index stores
+-- only tokens and reads column values back through the view below, kept in sync by triggers.
+CREATE VIEW IF NOT EXISTS transactions_fts_content AS
+SELECT t.id, t.description, m.name AS merchant, t.notes
+  FROM transactions t
+  JOIN merchants m ON m.id = t.merchant_id^;
+
+CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(
+    description,
+    merchant,
+    notes,
+    content = 'transactions_fts_content',
+    content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+)^;
+
+DROP TRIGGER IF EXISTS trg_transactions_fts_insert^;
+CREATE TRIGGER trg_transactions_fts_insert AFTER INSERT ON transactions
+BEGIN
+    INSERT INTO transactions_fts (rowid, description, merchant, notes)
+    VALUES (NEW.id, NEW.description, (SELECT name FROM merchants WHERE id = NEW.merchant_id), NEW.notes);
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_fts_delete^;
+CREATE TRIGGER trg_transactions_fts_delete AFTER DELETE ON transactions
+BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, description, merchant, notes)
+    VALUES ('delete', OLD.id, OLD.description, (SELECT name FROM merchants WHERE id = OLD.merchant_id), OLD.notes);
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_fts_update^;
+CREATE TRIGGER trg_transactions_fts_update AFTER UPDATE OF description, merchant_id, notes ON transactions
+BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, description, merchant, notes)
+    VALUES ('delete', OLD.id, OLD.description, (SELECT name FROM merchants WHERE id = OLD.merchant_id), OLD.notes);
+    INSERT INTO transactions_fts (rowid, description, merchant, notes)
+    VALUES (NEW.id, NEW.description, (SELECT name FROM merchants WHERE id = NEW.merchant_id), NEW.notes);
+END^;
+
+-- Index rows that existed before the FTS table; a no-op once anything has been indexed
+INSERT INTO transactions_fts (rowid, description, merchant, notes)
+SELECT id, description, merchant, notes
+  FROM transactions_fts_content
+ WHERE NOT EXISTS (SELECT 1 FROM transactions_fts_docsize)^;
+
+-- Change version for conditional GETs and delta sync (see ChangeVersionRepository). One row,
+-- bumped once per write transaction; transactions.row_version holds the version that last
+-- touched each row and deleted rows leave a tombstone carrying the version that removed them.
+CREATE TABLE IF NOT EXISTS change_version (
+    id      INTEGER PRIMARY KEY CHECK (id = 1),
+    version INTEGER NOT NULL
+)^;
+
+INSERT OR IGNORE INTO change_version (id, version) VALUES (1, 0)^;
+
+CREATE TABLE IF NOT EXISTS transaction_tombstones (
+    id      INTEGER PRIMARY KEY,
+    version INTEGER NOT NULL
+)^;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_tombstones_version ON transaction_tombstones (version, id)^;
+
+-- Id blocks for PooledIdGenerator and bulk inserts: next_id is the first id not yet handed out.
+-- Synced past the highest existing id on startup, so rows inserted without the allocator (older
+-- versions, external tools) can never collide with a reserved block.
+CREATE TABLE IF NOT EXISTS id_allocator (
+    name    TEXT    PRIMARY KEY,
+    next_id INTEGER NOT NULL
+) WITHOUT ROWID^;
+
+INSERT OR IGNORE INTO id_allocator (name, next_id) SELECT 'transactions', COALESCE(MAX(id), 0) + 1 FROM transactions^;
+
+UPDATE id_allocator
+   SET next_id = (SELECT MAX(id) + 1 FROM transactions)
+ WHERE name = 'transactions'
+   AND next_id <= (SELECT COALESCE(MAX(id), 0) FROM transactions)^;
+
+-- Closed years (see TransactionPartitions). An archived year's rows live in their own read-only file
+-- and row_count, first_id and last_id describe it; a closed year with row_count NULL is still in
+-- transactions, waiting to be moved. Dates are epoch millis at local midnight, end_date exclusive.
+CREATE TABLE IF NOT EXISTS transaction_partitions (
+    name       TEXT    PRIMARY KEY,
+    start_date INTEGER NOT NULL,
+    end_date   INTEGER NOT NULL,
+    file       TEXT    NOT NULL,
+    row_count  INTEGER,
+    first_id   INTEGER,
+    last_id    INTEGER
+) WITHOUT ROWID^;
+
+-- Closed years are read-only: no row may be written into one or moved out of one. The rows of a year
+-- being archived can only be deleted once the archive pass has marked it archived.
+DROP TRIGGER IF EXISTS trg_transactions_closed_insert^;
+CREATE TRIGGER trg_transactions_closed_insert BEFORE INSERT ON transactions
+WHEN NEW.date < (SELECT MAX(end_date) FROM transaction_partitions)
+BEGIN
+    SELECT RAISE(ABORT, 'Transaction date is in a closed period');
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_closed_update^;
+CREATE TRIGGER trg_transactions_closed_update BEFORE UPDATE ON transactions
+WHEN MIN(OLD.date, NEW.date) < (SELECT MAX(end_date) FROM transaction_partitions)
+BEGIN
+    SELECT RAISE(ABORT, 'Transaction date is in a closed period');
+END^;
+
+DROP TRIGGER IF EXISTS trg_transactions_closed_delete^;
+CREATE TRIGGER trg_transactions_closed_delete BEFORE DELETE ON transactions
+WHEN EXISTS (SELECT 1 FROM transaction_partitions
+              WHERE row_count IS NULL AND OLD.date >= start_date AND OLD.date < end_date)
+BEGIN
+    SELECT RAISE(ABORT, 'Transaction date is in a closed period');
+END^;
@@ -0,0 +1,106 @@
+package com.findash.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter(int maxQueued) {
+        return filter(maxQueued, Duration.ofMillis(50));
+    }
+
+    private AdmissionControlFilter filter(int maxQueued, Duration queueTimeout) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueued(maxQueued);
+        properties.setQueueTimeout(queueTimeout);
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        return new AdmissionControlFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void doFilter_shedsRequestsBeyondTheLimitWithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        // The second request arrives while the first still holds the only permit
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"),
+                        inner, (innerRequest, innerResponse) -> fail("admitted over the limit")));
+
+        assertEquals(429, inner.getStatus());
+        assertEquals("2", inner.getHeader("Retry-After"));
+
+        // The permit is back once the first request completed
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), after, (request, response) -> { });
+        assertEquals(200, after.getStatus());
+    }
+
+    @Test
+    void doFilter_rejectsQueuedRequestWhenTheWaitRunsOut() throws Exception {
+        AdmissionControlFilter filter = filter(10);
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"),
+                        inner, (innerRequest, innerResponse) -> fail("admitted over the limit")));
+
+        assertEquals(429, inner.getStatus());
+    }
+
+    @Test
+    void doFilter_releasesThePermitOfALongLivedStreamOnceTheHandlerReturns() throws Exception {
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/transactions/events");
+        stream.setAsyncSupported(true);
+
+        filter.doFilter(stream, new MockHttpServletResponse(), (request, response) -> {
+            request.setAttribute(AdmissionControlFilter.LONG_LIVED, Boolean.TRUE);
+            request.startAsync();
+        });
+
+        // The stream is still open, yet the next request gets the only permit
+        assertTrue(stream.isAsyncStarted());
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), next, (request, response) -> { });
+        assertEquals(200, next.getStatus());
+    }
+
+    @Test
+    void doFilter_admitsAQueuedRequestBeforeOneArrivingLater() throws Exception {
+        AdmissionControlFilter filter = filter(10, Duration.ofSeconds(5));
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread queued = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                        (request, response) -> admitted.add("queued"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // The queued request waits for the only permit until the first request completes
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    queued.start();
+                    while (queued.getState() != Thread.State.TIMED_WAITING) {
+                        Thread.onSpinWait();
+                    }
+                });
+        // Arrives the moment the permit is back, before the queued request has woken up to take it
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                (request, response) -> admitted.add("later"));
+        queued.join();
+
+        assertEquals(List.of("queued", "later"), admitted);
+    }
+}
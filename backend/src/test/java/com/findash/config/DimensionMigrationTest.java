@@ -0,0 +1,150 @@
+package com.findash.config;
+
+import com.findash.dto.SearchHit;
+import com.findash.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Starts against a database in the shape it had before the dimension lookup tables: text category,
+// merchant, type and payment_method columns with generated lowercase keys, and rollup and full-text
+// tables keyed by those names. After startup every row points at lookup ids holding its old names.
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DimensionMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @DynamicPropertySource
+    static void databaseBeforeLookupTables(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("dimension-migration-test");
+        directory.toFile().deleteOnExit();
+        Path database = directory.resolve("live.db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transactions (id integer, date date NOT NULL, "
+                    + "description varchar(255) NOT NULL, category varchar(255) NOT NULL, "
+                    + "category_key TEXT GENERATED ALWAYS AS (lower(category)) VIRTUAL, "
+                    + "merchant varchar(255) NOT NULL, "
+                    + "merchant_key TEXT GENERATED ALWAYS AS (lower(merchant)) VIRTUAL, "
+                    + "amount_cents INTEGER NOT NULL DEFAULT 0, type varchar(255) NOT NULL, "
+                    + "payment_method varchar(255), notes varchar(500) NOT NULL, created_at date, updated_at date, "
+                    + "row_version INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (id))");
+            statement.execute("CREATE INDEX idx_transactions_date_id ON transactions (date, id)");
+            statement.execute("CREATE INDEX idx_transactions_type_date ON transactions (type, date)");
+            statement.execute("CREATE INDEX idx_transactions_category_key ON transactions (category_key)");
+            statement.execute("CREATE INDEX idx_transactions_merchant_key ON transactions (merchant_key)");
+            statement.execute("CREATE INDEX idx_transactions_row_version ON transactions (row_version, id)");
+            // Names are kept exactly as written, so the two spellings of Food & Dining stay apart
+            statement.execute("INSERT INTO transactions (id, date, description, category, merchant, amount_cents, "
+                    + "type, payment_method, notes, created_at, updated_at, row_version) VALUES "
+                    + row(1, LocalDate.of(2025, 1, 10), "Coffee beans", "Food & Dining", "Blue Bottle", 1850,
+                            "Expense", "Credit Card") + ", "
+                    + row(2, LocalDate.of(2025, 1, 20), "Team lunch", "Food & Dining", "Cafe Milano", 4200,
+                            "Expense", null) + ", "
+                    + row(3, LocalDate.of(2025, 1, 31), "Monthly salary", "Income", "Acme Corp", 350000,
+                            "Income", "Bank Transfer") + ", "
+                    + row(4, LocalDate.of(2025, 2, 3), "Espresso", "food & dining", "Blue Bottle", 2500,
+                            "Expense", "Credit Card"));
+            statement.execute("CREATE TABLE transaction_rollups (period TEXT NOT NULL, category TEXT NOT NULL, "
+                    + "type TEXT NOT NULL, total_cents INTEGER NOT NULL, txn_count INTEGER NOT NULL, "
+                    + "PRIMARY KEY (period, category, type)) WITHOUT ROWID");
+            statement.execute("INSERT INTO transaction_rollups SELECT strftime('%Y-%m', date / 1000, 'unixepoch', "
+                    + "'localtime'), category, type, SUM(amount_cents), COUNT(*) FROM transactions GROUP BY 1, 2, 3");
+            statement.execute("CREATE VIRTUAL TABLE transactions_fts USING fts5(description, merchant, notes, "
+                    + "content = 'transactions', content_rowid = 'id', tokenize = 'unicode61 remove_diacritics 2', "
+                    + "prefix = '2 3')");
+            statement.execute("INSERT INTO transactions_fts (transactions_fts) VALUES ('rebuild')");
+        }
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database);
+    }
+
+    @Test
+    void migration_dropsTheTextColumns() {
+        List<String> columns = jdbcTemplate.queryForList("SELECT name FROM pragma_table_xinfo('transactions')",
+                String.class);
+
+        for (String column : List.of("category", "category_key", "merchant", "merchant_key", "type",
+                "payment_method")) {
+            assertFalse(columns.contains(column), column);
+        }
+    }
+
+    @Test
+    void migration_pointsEveryRowAtTheIdsOfItsNames() {
+        List<List<Object>> rows = jdbcTemplate.query("SELECT t.id, c.name, m.name, ty.name, p.name "
+                + "FROM transactions t JOIN categories c ON c.id = t.category_id "
+                + "JOIN merchants m ON m.id = t.merchant_id JOIN transaction_types ty ON ty.id = t.type_id "
+                + "LEFT JOIN payment_methods p ON p.id = t.payment_method_id ORDER BY t.id",
+                (rs, rowNum) -> Arrays.asList(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5)));
+
+        assertEquals(List.of(
+                Arrays.asList(1L, "Food & Dining", "Blue Bottle", "Expense", "Credit Card"),
+                Arrays.asList(2L, "Food & Dining", "Cafe Milano", "Expense", null),
+                Arrays.asList(3L, "Income", "Acme Corp", "Income", "Bank Transfer"),
+                Arrays.asList(4L, "food & dining", "Blue Bottle", "Expense", "Credit Card")), rows);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories", Integer.class));
+        assertEquals("Food & Dining", transactionService.getTransactionById(2L).orElseThrow().getCategory());
+    }
+
+    @Test
+    void migration_rebuildsTheRollupsByIdWithAmountRanges() {
+        List<Map<String, Object>> rollups = jdbcTemplate.queryForList("SELECT r.period, c.name AS category, "
+                + "ty.name AS type, r.total_cents, r.txn_count, r.min_cents, r.max_cents FROM transaction_rollups r "
+                + "JOIN categories c ON c.id = r.category_id JOIN transaction_types ty ON ty.id = r.type_id "
+                + "ORDER BY r.period, c.name, ty.name");
+
+        assertEquals(List.of(
+                rollup("2025-01", "Food & Dining", "Expense", 6050, 2, 1850, 4200),
+                rollup("2025-01", "Income", "Income", 350000, 1, 350000, 350000),
+                rollup("2025-02", "food & dining", "Expense", 2500, 1, 2500, 2500)), rollups);
+    }
+
+    @Test
+    void migration_reindexesTheRowsForSearch() {
+        List<Long> byMerchant = transactionService.search("bottle", null, null, null, 0, 10).results().stream()
+                .map(hit -> hit.transaction().getId()).sorted().toList();
+        List<SearchHit> byDescription = transactionService.search("lunch", null, null, null, 0, 10).results();
+
+        assertEquals(List.of(1L, 4L), byMerchant);
+        assertEquals(1, byDescription.size());
+        assertEquals("Cafe Milano", byDescription.get(0).transaction().getMerchant());
+    }
+
+    private static String row(long id, LocalDate date, String description, String category, String merchant,
+                              long cents, String type, String paymentMethod) {
+        long millis = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return "(" + id + ", " + millis + ", '" + description + "', '" + category + "', '" + merchant + "', " + cents
+                + ", '" + type + "', " + (paymentMethod != null ? "'" + paymentMethod + "'" : "NULL") + ", '', "
+                + millis + ", " + millis + ", 1)";
+    }
+
+    // Small integers come back from SQLite as Integer
+    private static Map<String, Object> rollup(String period, String category, String type, int total, int count,
+                                              int min, int max) {
+        return Map.of("period", period, "category", category, "type", type, "total_cents", total,
+                "txn_count", count, "min_cents", min, "max_cents", max);
+    }
+}
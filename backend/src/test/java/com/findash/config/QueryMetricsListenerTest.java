@@ -0,0 +1,24 @@
+package com.findash.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMetricsListenerTest {
+
+    @Test
+    void normalize_collapsesLiteralsAndWhitespace() {
+        String shape = QueryMetricsListener.normalize(
+                "SELECT *\n  FROM transactions\n WHERE category = 'Food' AND amount > 12.50 LIMIT 20");
+
+        assertEquals("SELECT * FROM transactions WHERE category = ? AND amount > ? LIMIT ?", shape);
+    }
+
+    @Test
+    void normalize_mapsEveryBatchSizeToOneShape() {
+        assertEquals("INSERT INTO t (a, b) VALUES (?...), ...",
+                QueryMetricsListener.normalize("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)"));
+        assertEquals(QueryMetricsListener.normalize("SELECT * FROM t WHERE id IN (?, ?, ?)"),
+                QueryMetricsListener.normalize("SELECT * FROM t WHERE id IN (?, ?)"));
+    }
+}
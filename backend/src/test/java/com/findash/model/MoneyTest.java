@@ -0,0 +1,47 @@
+package com.findash.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_readsDecimalTextExactly() {
+        assertEquals(1234, Money.parse("12.34").cents());
+        assertEquals(-350, Money.parse("-3.5").cents());
+        assertEquals(1200, Money.parse(" 12 ").cents());
+        assertEquals(10, Money.parse("0.10000").cents());
+        assertEquals(10000, Money.parse("1E+2").cents());
+        assertThrows(NumberFormatException.class, () -> Money.parse("0.125"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12,50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("99999999999999999999"));
+    }
+
+    @Test
+    void toString_alwaysHasTwoDecimals() {
+        assertEquals("3500.00", Money.ofCents(350000).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+    }
+
+    @Test
+    void dividedBy_roundsHalfEven() {
+        assertEquals(Money.ofCents(2), Money.ofCents(5).dividedBy(2));
+        assertEquals(Money.ofCents(4), Money.ofCents(7).dividedBy(2));
+        assertEquals(Money.ofCents(-4), Money.ofCents(-7).dividedBy(2));
+        assertEquals(Money.ofCents(333), Money.ofCents(1000).dividedBy(3));
+    }
+
+    @Test
+    void json_isAPlainNumberWithCents() throws Exception {
+        assertEquals("-12.50", objectMapper.writeValueAsString(Money.ofCents(-1250)));
+        assertEquals(Money.ofCents(10), objectMapper.readValue("0.1", Money.class));
+        assertEquals(Money.ofCents(4200), objectMapper.readValue("42", Money.class));
+        assertEquals(Money.ofCents(199), objectMapper.readValue("\"1.99\"", Money.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.findash.repository;
+
+import com.findash.model.Dimension;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Interns names in real write transactions and reads them back from other threads, which only see
+// what the transactions that added them committed.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/dimension-dictionary-test.db",
+        "spring.jpa.show-sql=false"
+})
+class DimensionDictionaryTest {
+
+    @Autowired
+    private DimensionDictionary dictionary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void intern_inARolledBackTransactionIsNeverSeenByOtherThreads() throws Exception {
+        String rolledBack = "Rolled back " + System.nanoTime();
+        String committed = "Committed " + System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Integer rolledBackId = transactionTemplate.execute(status -> {
+            Integer id = dictionary.intern(Dimension.CATEGORY, rolledBack);
+            // Visible to the transaction that added it, at once
+            assertEquals(id, dictionary.id(Dimension.CATEGORY, rolledBack));
+            assertEquals(rolledBack, dictionary.name(Dimension.CATEGORY, id));
+            status.setRollbackOnly();
+            return id;
+        });
+        assertEquals(DimensionDictionary.NONE, onOtherThread(() -> dictionary.id(Dimension.CATEGORY, rolledBack)));
+        assertEquals(DimensionDictionary.NONE, dictionary.id(Dimension.CATEGORY, rolledBack));
+
+        // The rolled-back rowid is handed out again; it must now mean the committed name everywhere
+        Integer committedId = transactionTemplate.execute(status -> dictionary.intern(Dimension.CATEGORY, committed));
+        assertEquals(rolledBackId, committedId);
+        assertEquals(committed, onOtherThread(() -> dictionary.name(Dimension.CATEGORY, committedId)));
+        assertEquals(committedId, onOtherThread(() -> dictionary.id(Dimension.CATEGORY, committed)));
+        assertEquals(DimensionDictionary.NONE, onOtherThread(() -> dictionary.id(Dimension.CATEGORY, rolledBack)));
+    }
+
+    private static <T> T onOtherThread(Supplier<T> read) throws InterruptedException, ExecutionException {
+        return CompletableFuture.supplyAsync(read).get();
+    }
+}
@@ -0,0 +1,91 @@
+package com.findash.repository;
+
+import com.findash.dto.TransactionMatch;
+import com.findash.dto.TransactionPatch;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the direct-SQL writes against a real SQLite file; each test rolls back.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/bulk-repository-test.db",
+        "spring.jpa.show-sql=false"
+})
+@Transactional
+class TransactionBulkRepositoryTest {
+
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A row last updated on 1970-01-01
+    private Transaction insertStale() {
+        LocalDate date = LocalDate.now().withDayOfMonth(1);
+        Transaction transaction = new Transaction(null, date, "Lunch", "Food & Dining", "Stale Cafe",
+                Money.parse("12.50"), "Expense", "Card", "", date, date);
+        transaction.setRowVersion(1L);
+        bulkRepository.insertAll(List.of(transaction));
+        jdbcTemplate.update("UPDATE transactions SET updated_at = 0 WHERE id = ?", transaction.getId());
+        return transaction;
+    }
+
+    @Test
+    void updateById_stampsUpdatedAt() {
+        Transaction stale = insertStale();
+        stale.setDescription("Dinner");
+
+        Transaction updated = bulkRepository.updateById(stale.getId(), stale, 2L).orElseThrow();
+
+        assertEquals("Dinner", updated.getDescription());
+        assertEquals(LocalDate.now(), updated.getUpdatedAt());
+        assertEquals(2L, updated.getRowVersion());
+    }
+
+    @Test
+    void updateWhere_stampsUpdatedAtOfChangedRows() {
+        Transaction stale = insertStale();
+
+        int updated = bulkRepository.updateWhere(
+                new TransactionMatch(List.of(stale.getId()), null, null, null, null, null),
+                new TransactionPatch(null, "Groceries", null, null, null, null), 3L);
+
+        assertEquals(1, updated);
+        assertEquals(LocalDate.now(), jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM transactions WHERE id = ?", Date.class, stale.getId()).toLocalDate());
+    }
+
+    @Test
+    void writes_skipRowsOfAClosedYearThatIsNotMovedYet() {
+        LocalDate date = LocalDate.of(2000, 6, 1);
+        Transaction closed = new Transaction(null, date, "Lunch", "Food & Dining", "Closed Cafe",
+                Money.parse("-9.00"), "Expense", "Card", "", date, date);
+        closed.setRowVersion(1L);
+        bulkRepository.insertAll(List.of(closed));
+        jdbcTemplate.update("INSERT INTO transaction_partitions (name, start_date, end_date, file) VALUES (?, ?, ?, ?)",
+                "2000", Date.valueOf(date.withDayOfYear(1)), Date.valueOf(LocalDate.of(2001, 1, 1)), "2000.db");
+        Transaction details = new Transaction(null, LocalDate.now(), "Dinner", "Food & Dining", "Closed Cafe",
+                Money.parse("-9.00"), "Expense", "Card", "", date, date);
+
+        assertTrue(bulkRepository.updateById(closed.getId(), details, 2L).isEmpty());
+        assertEquals(0, bulkRepository.updateWhere(new TransactionMatch(null, "Closed Cafe", null, null, null, null),
+                new TransactionPatch("Dinner", null, null, null, null, null), 2L));
+        assertEquals(0, bulkRepository.updateWhere(new TransactionMatch(List.of(closed.getId()), null, null, null,
+                null, null), new TransactionPatch("Dinner", null, null, null, null, null), 2L));
+        assertEquals(List.of(), bulkRepository.deleteByIds(List.of(closed.getId())));
+        assertTrue(bulkRepository.deleteById(closed.getId()).isEmpty());
+        assertEquals("Lunch", jdbcTemplate.queryForObject(
+                "SELECT description FROM transactions WHERE id = ?", String.class, closed.getId()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.findash.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs each repository query against a real SQLite file, captures the SQL Hibernate actually sent,
+// and checks its EXPLAIN QUERY PLAN: the expected index is used, the table is never scanned
+// without an index, and no temporary b-tree is built for sorting.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/query-plan-test.db",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.findash.repository.TransactionQueryPlanTest$CapturingInspector"
+})
+class TransactionQueryPlanTest {
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearCapturedStatements() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void findByType_usesTypeDateIndex() {
+        transactionRepository.findByType("Expense");
+        assertPlanUses("idx_transactions_type_id_date");
+    }
+
+    @Test
+    void findByCategory_usesCategoryLookupAndIdIndexes() {
+        transactionRepository.findByCategory("food & dining");
+        assertPlanUses("idx_categories_name_key");
+        assertPlanUses("idx_transactions_category_id");
+    }
+
+    @Test
+    void findByDateBetween_usesDateIndex() {
+        transactionRepository.findByDateBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+        assertPlanUses("idx_transactions_date_id");
+    }
+
+    @Test
+    void findByMerchantPrefix_usesMerchantLookupAndIdIndexes() {
+        transactionRepository.findByMerchantPrefix("whole");
+        assertPlanUses("idx_merchants_name_key");
+        assertPlanUses("idx_transactions_merchant_id");
+    }
+
+    @Test
+    void findAllByOrderByDateDesc_readsInIndexOrder() {
+        transactionRepository.findAllByOrderByDateDesc();
+        assertPlanUses("idx_transactions_date_id");
+    }
+
+    @Test
+    void findPage_readsInIndexOrder() {
+        transactionRepository.findPage(Limit.of(10));
+        assertPlanUses("idx_transactions_date_id");
+    }
+
+    @Test
+    void findPageAfter_seeksIntoDateIndex() {
+        transactionRepository.findPageAfter(LocalDate.of(2025, 6, 1), 5L, Limit.of(10));
+        List<String> plan = assertPlanUses("idx_transactions_date_id");
+        assertTrue(plan.stream().anyMatch(step -> step.startsWith("SEARCH")), "expected an index seek: " + plan);
+    }
+
+    @Test
+    void findByRowVersionGreaterThan_readsInIndexOrder() {
+        transactionRepository.findByRowVersionGreaterThanOrderByRowVersionAscIdAsc(5L);
+        assertPlanUses("idx_transactions_row_version");
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void streamAllByOrderByDateDescIdDesc_readsInIndexOrder() {
+        try (var rows = transactionRepository.streamAllByOrderByDateDescIdDesc()) {
+            rows.findFirst();
+        }
+        assertPlanUses("idx_transactions_date_id");
+    }
+
+    private List<String> assertPlanUses(String index) {
+        String sql = CapturingInspector.statements.stream()
+                .filter(statement -> statement.trim().toLowerCase().startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("no SELECT captured"));
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN QUERY PLAN " + sql).stream()
+                .map(row -> String.valueOf(row.get("detail")))
+                .collect(Collectors.toList());
+
+        assertTrue(plan.stream().anyMatch(step -> step.contains(index)), "expected " + index + " in plan " + plan + " for " + sql);
+        assertTrue(plan.stream().noneMatch(step -> step.startsWith("SCAN") && !step.contains("USING")), "full table scan in " + plan);
+        assertTrue(plan.stream().noneMatch(step -> step.contains("TEMP B-TREE")), "sort without index in " + plan);
+        return plan;
+    }
+}
@@ -0,0 +1,67 @@
+package com.findash.repository;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Checks the trigger-maintained buckets against the live table they summarize; each test rolls back.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/rollup-repository-test.db",
+        "spring.jpa.show-sql=false"
+})
+@Transactional
+class TransactionRollupRepositoryTest {
+
+    private static final String CATEGORY = "Rollup Test";
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionAggregateRepository aggregateRepository;
+
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+
+    private Transaction insert(LocalDate date, String amount) {
+        Transaction transaction = new Transaction(null, date, "Lunch", CATEGORY, "Cafe", Money.parse(amount),
+                "Expense", "Card", "", date, date);
+        transaction.setRowVersion(1L);
+        bulkRepository.insertAll(List.of(transaction));
+        return transaction;
+    }
+
+    @Test
+    void totals_keepTheAmountRangeOfTheLiveQueryAcrossDeletesAndUpdates() {
+        YearMonth month = YearMonth.now();
+        insert(month.atDay(1), "12.50");
+        Transaction largest = insert(month.atDay(1), "40.00");
+        Transaction smallest = insert(month.atDay(1), "7.25");
+
+        bulkRepository.deleteById(largest.getId());
+        smallest.setAmount(Money.parse("9.00"));
+        bulkRepository.updateById(smallest.getId(), smallest, 2L);
+
+        Set<AggregateDimension> byType = EnumSet.noneOf(AggregateDimension.class);
+        List<AggregateRow> fromRollups = rollupRepository.totals(byType, month, month, CATEGORY);
+        assertEquals(aggregateRepository.aggregate(byType,
+                new AggregateFilter(month.atDay(1), month.atEndOfMonth(), CATEGORY)), fromRollups);
+        assertEquals(Money.parse("9.00"), fromRollups.get(0).min());
+        assertEquals(Money.parse("12.50"), fromRollups.get(0).max());
+        assertEquals(0, rollupRepository.countMismatches());
+    }
+}
@@ -0,0 +1,69 @@
+package com.findash.service;
+
+import com.findash.model.BudgetGoal;
+import com.findash.model.CategoryBudget;
+import com.findash.model.Money;
+import com.findash.repository.BudgetGoalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    @Mock
+    private BudgetGoalRepository budgetGoalRepository;
+
+    @InjectMocks
+    private BudgetService budgetService;
+
+    private BudgetGoal goal(CategoryBudget... budgets) {
+        BudgetGoal goal = new BudgetGoal();
+        goal.setMonthlyIncome(Money.parse("3500"));
+        goal.setSavingsGoal(Money.parse("700"));
+        goal.setCategoryBudgets(new ArrayList<>(List.of(budgets)));
+        return goal;
+    }
+
+    @Test
+    void createGoal_defaultsStartDateToToday() {
+        when(budgetGoalRepository.save(any(BudgetGoal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BudgetGoal created = budgetService.createGoal(goal(new CategoryBudget("Shopping", Money.parse("200"))));
+
+        assertEquals(LocalDate.now(), created.getStartDate());
+    }
+
+    @Test
+    void createGoal_rejectsDuplicateCategoriesIgnoringCase() {
+        BudgetGoal goal = goal(new CategoryBudget("Shopping", Money.parse("200")),
+                new CategoryBudget("shopping", Money.parse("50")));
+
+        assertThrows(IllegalArgumentException.class, () -> budgetService.createGoal(goal));
+        verify(budgetGoalRepository, never()).save(any());
+    }
+
+    @Test
+    void updateGoal_replacesCategoryLimitsAndKeepsStartDate() {
+        BudgetGoal existing = goal(new CategoryBudget("Shopping", Money.parse("200")));
+        existing.setStartDate(LocalDate.of(2025, 1, 1));
+        when(budgetGoalRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(budgetGoalRepository.save(existing)).thenReturn(existing);
+
+        BudgetGoal updated = budgetService.updateGoal(1L, goal(new CategoryBudget("Travel", Money.parse("80"))));
+
+        assertEquals(List.of("Travel"), updated.getCategoryBudgets().stream().map(CategoryBudget::getCategory).toList());
+        assertEquals(LocalDate.of(2025, 1, 1), updated.getStartDate());
+    }
+}
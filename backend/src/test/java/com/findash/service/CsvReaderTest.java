@@ -0,0 +1,38 @@
+package com.findash.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_handlesQuotesEscapesAndLineEndings() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "date,description\r\n2025-01-01,\"Coffee, large\"\r\n\n2025-01-02,\"Say \"\"hi\"\"\"\n2025-01-03,\"two\nlines\"\n2025-01-04,"));
+
+        assertEquals(List.of("date", "description"), reader.readRecord());
+        assertEquals(List.of("2025-01-01", "Coffee, large"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("2025-01-02", "Say \"hi\""), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertEquals(List.of("2025-01-03", "two\nlines"), reader.readRecord());
+        assertEquals(List.of("2025-01-04", ""), reader.readRecord());
+        assertEquals(7, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_rejectsUnterminatedQuote() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\nc,\"open\n"));
+        reader.readRecord();
+
+        CsvReader.MalformedRecordException e = assertThrows(CsvReader.MalformedRecordException.class,
+                reader::readRecord);
+        assertEquals(2, e.getLine());
+    }
+}
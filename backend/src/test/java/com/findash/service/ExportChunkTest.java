@@ -0,0 +1,75 @@
+package com.findash.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportChunkTest {
+
+    private static long millis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private ExportChunk chunk() {
+        ExportChunk chunk = new ExportChunk(4, 1, 2);
+        chunk.add(9, millis(LocalDate.of(2025, 3, 2)), "Dinner, \"Chez Nous\"", "Food", "Bistro <&>", -4250,
+                "Expense", null, "split\nthree ways");
+        chunk.add(8, millis(LocalDate.of(2025, 3, 1)), " Salary ", "Salary", "Employer", 350005, "Income",
+                "Transfer", "");
+        return chunk;
+    }
+
+    @Test
+    void toCsv_quotesOnlyWhatNeedsItAndReadsBackWithCsvReader() throws IOException {
+        String csv = new String(chunk().toCsv(), StandardCharsets.UTF_8);
+
+        assertTrue(csv.startsWith("9,2025-03-02,\"Dinner, \"\"Chez Nous\"\"\",Food,Bistro <&>,-42.50,Expense,,"));
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        assertEquals(List.of("9", "2025-03-02", "Dinner, \"Chez Nous\"", "Food", "Bistro <&>", "-42.50", "Expense", "",
+                "split\nthree ways"), reader.readRecord());
+        assertEquals(List.of("8", "2025-03-01", " Salary ", "Salary", "Employer", "3500.05", "Income", "Transfer", ""),
+                reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void toXlsxRows_writesSerialDatesNumbersAndEscapedInlineStrings() {
+        String xml = new String(chunk().toXlsxRows(), StandardCharsets.UTF_8);
+
+        // 2025-03-02 is day 45718 counted from 1899-12-30
+        assertTrue(xml.startsWith("<row r=\"2\"><c r=\"A2\"><v>9</v></c><c r=\"B2\" s=\"1\"><v>45718</v></c>"));
+        assertTrue(xml.contains("<c r=\"E2\" t=\"inlineStr\"><is><t>Bistro &lt;&amp;&gt;</t></is></c>"));
+        assertTrue(xml.contains("<c r=\"F2\" s=\"2\"><v>-42.50</v></c>"));
+        // No payment method: the cell is left out
+        assertFalse(xml.contains("r=\"H2\""));
+        assertTrue(xml.contains("<row r=\"3\">"));
+        assertTrue(xml.contains("<t xml:space=\"preserve\"> Salary </t>"));
+    }
+
+    @Test
+    void gzip_membersConcatenateIntoOneStream() throws IOException {
+        byte[] header = ExportChunk.csvHeader();
+        byte[] rows = chunk().toCsv();
+        byte[] first = ExportChunk.gzip(header);
+        byte[] second = ExportChunk.gzip(rows);
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+
+        byte[] expected = new byte[header.length + rows.length];
+        System.arraycopy(header, 0, expected, 0, header.length);
+        System.arraycopy(rows, 0, expected, header.length, rows.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(joined))) {
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+}
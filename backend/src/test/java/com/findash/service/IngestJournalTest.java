@@ -0,0 +1,95 @@
+package com.findash.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> records) {
+        return records.stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    @Test
+    void recover_returnsAppendedRecordsInOrder() throws IOException {
+        try (IngestJournal journal = new IngestJournal(directory, 1024)) {
+            assertTrue(journal.recover().isEmpty());
+            journal.append(List.of(bytes("a"), bytes("bb")));
+            assertEquals(8 + 1 + 8 + 2 + 8 + 3, journal.append(List.of(bytes("ccc"))));
+        }
+
+        try (IngestJournal journal = new IngestJournal(directory, 1024)) {
+            assertEquals(List.of("a", "bb", "ccc"), strings(journal.recover()));
+            assertEquals(30, journal.end());
+        }
+    }
+
+    @Test
+    void recover_dropsTornTailAndAppendsAfterLastCompleteRecord() throws IOException {
+        try (IngestJournal journal = new IngestJournal(directory, 1024)) {
+            journal.recover();
+            journal.append(List.of(bytes("first"), bytes("second")));
+        }
+        // Cut the second record short, as a crash in the middle of a write would
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        try (IngestJournal journal = new IngestJournal(directory, 1024)) {
+            assertEquals(List.of("first"), strings(journal.recover()));
+            journal.append(List.of(bytes("third")));
+        }
+
+        try (IngestJournal journal = new IngestJournal(directory, 1024)) {
+            assertEquals(List.of("first", "third"), strings(journal.recover()));
+        }
+    }
+
+    @Test
+    void release_deletesSegmentsBeforeDurablePosition() throws IOException {
+        try (IngestJournal journal = new IngestJournal(directory, 16)) {
+            journal.recover();
+            long first = journal.append(List.of(bytes("0123456789")));
+            journal.append(List.of(bytes("abcdefghij")));
+            journal.append(List.of(bytes("klmnopqrst")));
+            assertEquals(3, journal.segmentCount());
+
+            journal.release(first);
+            assertEquals(2, journal.segmentCount());
+
+            journal.release(journal.end());
+            assertEquals(1, journal.segmentCount());
+        }
+
+        try (IngestJournal journal = new IngestJournal(directory, 16)) {
+            assertTrue(journal.recover().isEmpty());
+            assertEquals(54, journal.end());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.findash.service;
+
+import com.findash.dto.Periodicity;
+import com.findash.dto.RecurringSeries;
+import com.findash.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringSeriesIndexTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 7);
+
+    private RecurringSeriesIndex index() {
+        RecurringSeriesIndex index = new RecurringSeriesIndex(6, 3);
+        for (int month = 0; month < 5; month++) {
+            index.put(100 + month, LocalDate.of(2025, 1, 31).plusMonths(month), "Employer", "Income", "Salary",
+                    350000);
+        }
+        // A bill that moves across a band edge stays one series
+        long[] bill = {10000, 12600, 11000, 12800};
+        for (int month = 0; month < bill.length; month++) {
+            index.put(200 + month, LocalDate.of(2025, 2, 5).plusMonths(month), "Electric Co", "Expense",
+                    "Bills & Utilities", bill[month]);
+        }
+        // Irregular purchases
+        int[] days = {1, 2, 9, 30, 31, 70};
+        for (int i = 0; i < days.length; i++) {
+            index.put(300 + i, LocalDate.of(2025, 1, 1).plusDays(days[i]), "Cafe", "Expense", "Food", 450);
+        }
+        return index;
+    }
+
+    @Test
+    void detect_findsMonthlySeriesAndIgnoresIrregularOnes() {
+        List<RecurringSeries> series = index().detect(AS_OF);
+
+        assertEquals(2, series.size());
+        RecurringSeries bill = series.get(0);
+        assertEquals("Electric Co", bill.merchant());
+        assertEquals(Periodicity.MONTHLY, bill.periodicity());
+        assertEquals(4, bill.occurrences());
+        assertEquals(Money.ofCents(11000), bill.amount());
+        assertEquals(LocalDate.of(2025, 6, 5), bill.nextDate());
+        assertTrue(bill.active());
+
+        RecurringSeries salary = series.get(1);
+        assertEquals("Income", salary.type());
+        assertEquals(1.0, salary.regularity());
+        assertEquals(LocalDate.of(2025, 5, 31), salary.lastDate());
+        assertEquals(LocalDate.of(2025, 6, 30), salary.nextDate());
+    }
+
+    @Test
+    void detect_marksSeriesInactiveOnceAnOccurrenceIsMissed() {
+        List<RecurringSeries> series = index().detect(LocalDate.of(2025, 8, 1));
+
+        assertTrue(series.stream().noneMatch(RecurringSeries::active));
+    }
+
+    @Test
+    void removeAndPut_updateSeriesIncrementally() {
+        RecurringSeriesIndex index = index();
+
+        index.remove(201);
+        index.remove(202);
+        assertEquals(List.of("Employer"), index.detect(AS_OF).stream().map(RecurringSeries::merchant).toList());
+
+        // Moving a salary row to another merchant takes it out of the series
+        index.put(104, LocalDate.of(2025, 5, 31), "Bonus Ltd", "Income", "Salary", 350000);
+        assertEquals(LocalDate.of(2025, 4, 30), index.detect(AS_OF).get(0).lastDate());
+    }
+
+    @Test
+    void put_keepsOnlyTheMostRecentWindow() {
+        RecurringSeriesIndex index = new RecurringSeriesIndex(3, 3);
+        for (int week = 0; week < 5; week++) {
+            index.put(week, LocalDate.of(2025, 3, 3).plusWeeks(week), "Gym", "Expense", "Health & Fitness", 4999);
+        }
+        index.put(99, LocalDate.of(2024, 1, 1), "Gym", "Expense", "Health & Fitness", 4999);
+
+        assertEquals(3, index.trackedRows());
+        RecurringSeries gym = index.detect(LocalDate.of(2025, 4, 1)).get(0);
+        assertEquals(Periodicity.WEEKLY, gym.periodicity());
+        assertEquals(LocalDate.of(2025, 3, 17), gym.firstDate());
+    }
+}
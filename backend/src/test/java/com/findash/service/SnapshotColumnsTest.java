@@ -0,0 +1,90 @@
+package com.findash.service;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotColumnsTest {
+
+    private static final EnumSet<AggregateDimension> BY_TYPE = EnumSet.noneOf(AggregateDimension.class);
+
+    private SnapshotColumns columns() {
+        SnapshotColumns columns = new SnapshotColumns();
+        columns.append(1, LocalDate.of(2025, 1, 5), "Expense", "Food", "Cafe", "Card", -1250, 1);
+        columns.append(2, LocalDate.of(2025, 1, 20), "Expense", "Travel", "Rail", null, -4000, 1);
+        columns.append(4, LocalDate.of(2025, 2, 3), "Expense", "Food", "Market", "Cash", -750, 1);
+        columns.append(5, LocalDate.of(2025, 2, 28), "Income", "Salary", "Employer", null, 300000, 1);
+        return columns;
+    }
+
+    private Transaction transaction(long id, LocalDate date, String category, String amount, String type,
+                                    long rowVersion) {
+        Transaction transaction = new Transaction(id, date, "", category, "Shop", Money.parse(amount), type,
+                null, "", date, date);
+        transaction.setRowVersion(rowVersion);
+        return transaction;
+    }
+
+    @Test
+    void aggregate_groupsLikeSqlAndOrdersByDimensions() {
+        List<AggregateRow> rows = columns().aggregate(
+                EnumSet.of(AggregateDimension.CATEGORY, AggregateDimension.MONTH), AggregateFilter.NONE, 2);
+
+        assertEquals(4, rows.size());
+        assertEquals(new AggregateRow("Expense", "Food", null, "2025-01", 1, Money.ofCents(-1250),
+                Money.ofCents(-1250), Money.ofCents(-1250), Money.ofCents(-1250)), rows.get(0));
+        assertEquals("2025-02", rows.get(1).month());
+        assertEquals("Travel", rows.get(2).category());
+        assertEquals(new AggregateRow("Income", "Salary", null, "2025-02", 1, Money.ofCents(300000),
+                Money.ofCents(300000), Money.ofCents(300000), Money.ofCents(300000)), rows.get(3));
+    }
+
+    @Test
+    void aggregate_appliesDateAndCaseInsensitiveCategoryFilter() {
+        AggregateFilter filter = new AggregateFilter(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 2, 28), "FOOD");
+
+        List<AggregateRow> rows = columns().aggregate(BY_TYPE, filter, 64);
+
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.get(0).count());
+        assertEquals(Money.ofCents(-750), rows.get(0).total());
+    }
+
+    @Test
+    void upsert_ignoresStaleVersionsAndInsertsOutOfOrderIds() {
+        SnapshotColumns columns = columns();
+        columns.upsert(transaction(4, LocalDate.of(2025, 2, 3), "Food", "-9.99", "Expense", 3), false);
+        columns.upsert(transaction(4, LocalDate.of(2025, 2, 3), "Food", "-1.00", "Expense", 2), false);
+        columns.upsert(transaction(3, LocalDate.of(2025, 3, 1), "Food", "-1.00", "Expense", 4), true);
+
+        List<AggregateRow> rows = columns.aggregate(BY_TYPE, AggregateFilter.NONE, 64);
+
+        assertEquals(5, columns.liveRows());
+        assertEquals(4, rows.get(0).count());
+        assertEquals(Money.ofCents(-1250 - 4000 - 999 - 100), rows.get(0).total());
+        assertEquals(Money.ofCents(-4000), rows.get(0).min());
+    }
+
+    @Test
+    void delete_removesRowUntilRecreated() {
+        SnapshotColumns columns = columns();
+        columns.delete(5);
+        columns.upsert(transaction(5, LocalDate.of(2025, 2, 28), "Salary", "100", "Income", 2), false);
+
+        assertEquals(List.of("Expense"),
+                columns.aggregate(BY_TYPE, AggregateFilter.NONE, 64).stream().map(AggregateRow::type).toList());
+
+        columns.upsert(transaction(5, LocalDate.of(2025, 3, 1), "Salary", "100", "Income", 3), true);
+
+        assertEquals(Money.ofCents(10000), columns.aggregate(BY_TYPE, AggregateFilter.NONE, 64).get(1).total());
+    }
+}
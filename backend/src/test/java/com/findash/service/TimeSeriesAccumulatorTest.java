@@ -0,0 +1,77 @@
+package com.findash.service;
+
+import com.findash.dto.TimeSeriesInterval;
+import com.findash.dto.TimeSeriesPoint;
+import com.findash.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesAccumulatorTest {
+
+    @Test
+    void finish_fillsEmptyBucketsAndKeepsRunningBalance() {
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(TimeSeriesInterval.DAY, 2,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4), 10000, false);
+        accumulator.add(LocalDate.of(2025, 1, 1), null, 5000, 1000, 3);
+        accumulator.add(LocalDate.of(2025, 1, 3), null, 0, 3000, 1);
+
+        List<TimeSeriesPoint> points = accumulator.finish();
+
+        assertEquals(4, points.size());
+        assertEquals(LocalDate.of(2025, 1, 2), points.get(1).start());
+        assertEquals(0, points.get(1).count());
+        assertEquals(List.of(Money.ofCents(14000), Money.ofCents(14000), Money.ofCents(11000), Money.ofCents(11000)),
+                points.stream().map(TimeSeriesPoint::balance).toList());
+        // Two-bucket window: (4000 + 0) / 2, then (0 - 3000) / 2
+        assertEquals(Money.ofCents(2000), points.get(1).averageNet());
+        assertEquals(Money.ofCents(-1500), points.get(2).averageNet());
+        assertNull(points.get(0).categories());
+    }
+
+    @Test
+    void add_groupsWeeksFromMondayWithCategoryTotals() {
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(TimeSeriesInterval.WEEK, 4,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 12), 0, true);
+        accumulator.add(LocalDate.of(2025, 1, 1), "Food", 0, 1200, 1);
+        accumulator.add(LocalDate.of(2025, 1, 5), "Food", 0, 800, 1);
+        accumulator.add(LocalDate.of(2025, 1, 6), "Salary", 300000, 0, 1);
+
+        List<TimeSeriesPoint> points = accumulator.finish();
+
+        assertEquals(2, points.size());
+        assertEquals(LocalDate.of(2024, 12, 30), points.get(0).start());
+        assertEquals(Map.of("Food", Money.ofCents(-2000)), points.get(0).categories());
+        assertEquals(Map.of("Salary", Money.ofCents(300000)), points.get(1).categories());
+        assertEquals(Money.ofCents(298000), points.get(1).balance());
+    }
+
+    @Test
+    void add_netsIncomeAgainstExpenseWithinACategory() {
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(TimeSeriesInterval.MONTH, 3,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), 0, true);
+        accumulator.add(LocalDate.of(2025, 1, 3), "Shopping", 0, 10000, 1);
+        // A refund of most of the purchase, booked as income in the same category
+        accumulator.add(LocalDate.of(2025, 1, 9), "Shopping", 8000, 0, 1);
+        accumulator.add(LocalDate.of(2025, 1, 9), "Food", 0, 2500, 1);
+
+        TimeSeriesPoint point = accumulator.finish().get(0);
+
+        assertEquals(Map.of("Food", Money.ofCents(-2500), "Shopping", Money.ofCents(-2000)), point.categories());
+        assertEquals(point.net(), point.categories().values().stream().reduce(Money.ZERO, Money::plus));
+    }
+
+    @Test
+    void add_rejectsRowsBeforeTheOpenBucket() {
+        TimeSeriesAccumulator accumulator = new TimeSeriesAccumulator(TimeSeriesInterval.MONTH, 3,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), 0, false);
+        accumulator.add(LocalDate.of(2025, 2, 10), null, 100, 0, 1);
+
+        assertThrows(IllegalStateException.class,
+                () -> accumulator.add(LocalDate.of(2025, 1, 10), null, 100, 0, 1));
+    }
+}
@@ -0,0 +1,138 @@
+package com.findash.service;
+
+import com.findash.dto.ArchivePartition;
+import com.findash.dto.TransactionPage;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs one archive pass against a fresh SQLite file and archive directory: two closed years with rows
+// are written to archive files and moved out of the live table (which keeps the seeded open-year rows).
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "findash.archive.open-years=2",
+        "findash.archive.vacuum=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionArchiveServiceTest {
+
+    private static final String ROLLUPS = "SELECT period, category_id, type_id, total_cents, txn_count, min_cents, "
+            + "max_cents FROM transaction_rollups ORDER BY period, category_id, type_id";
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionBulkRepository bulkRepository;
+
+    @Autowired
+    private TransactionPartitions partitions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long liveRowsBefore;
+    private List<Long> idsBefore;
+    private List<Map<String, Object>> rollupsBefore;
+    private List<ArchivePartition> archived;
+
+    @DynamicPropertySource
+    static void temporaryFiles(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("archive-test");
+        directory.toFile().deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + directory.resolve("live.db"));
+        registry.add("findash.archive.directory", () -> directory.resolve("archive").toString());
+    }
+
+    @BeforeAll
+    void archiveTwoClosedYears() {
+        int closedYear = LocalDate.now().getYear() - 2;
+        // Inserted in one write transaction, as the import does; the dictionary interns on the same connection
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> bulkRepository.insertAll(List.of(
+                transaction(LocalDate.of(closedYear - 1, 3, 4), "Rent", "Housing", "-900.00", "Expense"),
+                transaction(LocalDate.of(closedYear - 1, 3, 9), "Lunch", "Food & Dining", "-12.50", "Expense"),
+                transaction(LocalDate.of(closedYear - 1, 11, 30), "Salary", "Income", "3200.00", "Income"),
+                transaction(LocalDate.of(closedYear, 6, 1), "Lunch", "Food & Dining", "-14.00", "Expense"),
+                transaction(LocalDate.of(closedYear, 6, 1), "Dinner", "Food & Dining", "-38.20", "Expense"))));
+        liveRowsBefore = liveRows();
+        idsBefore = jdbcTemplate.queryForList("SELECT id FROM transactions ORDER BY date DESC, id DESC", Long.class);
+        rollupsBefore = jdbcTemplate.queryForList(ROLLUPS);
+
+        archived = archiveService.archiveClosedYears();
+    }
+
+    @Test
+    void archiveClosedYears_movesEachClosedYearIntoItsOwnFile() {
+        int closedYear = LocalDate.now().getYear() - 2;
+        assertEquals(List.of(String.valueOf(closedYear - 1), String.valueOf(closedYear)),
+                archived.stream().map(ArchivePartition::name).toList());
+        assertEquals(List.of(3L, 2L), archived.stream().map(ArchivePartition::rowCount).toList());
+        for (ArchivePartition partition : archived) {
+            assertTrue(Files.isRegularFile(partitions.path(partition)));
+            assertEquals(partition.rowCount(), partitions.jdbcTemplate(partition).getJdbcTemplate()
+                    .queryForObject("SELECT COUNT(*) FROM transactions", Long.class));
+        }
+        assertEquals(liveRowsBefore - 5, liveRows());
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE date < ?", Long.class,
+                Date.valueOf(LocalDate.of(closedYear + 1, 1, 1))));
+        assertEquals(archived, archiveService.getPartitions());
+    }
+
+    @Test
+    void archiveClosedYears_keepsTheRollupBucketsOfArchivedYears() {
+        assertEquals(rollupsBefore, jdbcTemplate.queryForList(ROLLUPS));
+    }
+
+    @Test
+    void getTransactionPage_continuesFromTheLiveTableIntoTheArchive() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionPage(cursor, 3);
+            page.transactions().forEach(transaction -> ids.add(transaction.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(idsBefore, ids);
+    }
+
+    private long liveRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+    }
+
+    private static Transaction transaction(LocalDate date, String description, String category, String amount,
+                                           String type) {
+        Transaction transaction = new Transaction(null, date, description, category, "Archive Test", Money.parse(amount),
+                type, "Card", "", date, date);
+        transaction.setRowVersion(1L);
+        return transaction;
+    }
+}
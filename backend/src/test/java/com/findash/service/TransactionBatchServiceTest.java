@@ -0,0 +1,136 @@
+package com.findash.service;
+
+import com.findash.dto.BatchOperation;
+import com.findash.dto.BatchResult;
+import com.findash.dto.BulkResult;
+import com.findash.dto.TransactionMatch;
+import com.findash.dto.TransactionPatch;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import com.findash.repository.ArchivedTransactionRepository;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import com.findash.repository.TransactionRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+
+    @Mock
+    private TransactionBulkRepository bulkRepository;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ArchivedTransactionRepository archivedRepository;
+
+    @Mock
+    private TransactionPartitions partitions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private TransactionBatchService batchService;
+
+    private Transaction transaction(String description) {
+        LocalDate date = LocalDate.of(2025, 3, 1);
+        return new Transaction(null, date, description, "Food", "Cafe", Money.parse("-4.50"), "Expense",
+                null, null, date, date);
+    }
+
+    @Test
+    void deleteTransactions_tombstonesOnlyRowsThatExisted() {
+        when(changeVersionRepository.next()).thenReturn(8L);
+        when(bulkRepository.deleteByIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        BulkResult result = batchService.deleteTransactions(List.of(1L, 2L, 3L));
+
+        assertEquals(new BulkResult(2, 8), result);
+        verify(changeVersionRepository).recordDeletions(List.of(1L, 3L), 8L);
+        verify(eventPublisher).publishEvent(TransactionChangedEvent.bulk(8L));
+    }
+
+    @Test
+    void updateTransactions_requiresAConditionAndNoEventWhenNothingChanged() {
+        TransactionPatch recategorize = new TransactionPatch(null, "Travel", null, null, null, null);
+        TransactionMatch byMerchant = new TransactionMatch(null, "Rail Co", null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.updateTransactions(
+                new TransactionMatch(List.of(), null, null, null, null, null), recategorize));
+        assertThrows(IllegalArgumentException.class, () -> batchService.updateTransactions(
+                byMerchant, new TransactionPatch(null, " ", null, null, null, null)));
+
+        when(bulkRepository.updateWhere(byMerchant, recategorize, 0L)).thenReturn(0);
+        assertEquals(0, batchService.updateTransactions(byMerchant, recategorize).affected());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void applyBatch_runsOperationsInOrderAndReportsEach() {
+        when(changeVersionRepository.next()).thenReturn(5L);
+        doAnswer(inv -> {
+            inv.<List<Transaction>>getArgument(0).get(0).setId(40L);
+            return 1;
+        }).when(bulkRepository).insertAll(any());
+        when(bulkRepository.updateById(eq(9L), any(Transaction.class), eq(5L))).thenReturn(Optional.empty());
+        when(bulkRepository.deleteByIds(List.of(2L))).thenReturn(List.of(2L));
+
+        BatchResult result = batchService.applyBatch(List.of(
+                new BatchOperation(BatchOperation.Op.CREATE, null, transaction("Lunch"), null, null, null),
+                new BatchOperation(BatchOperation.Op.UPDATE, 9L, transaction("Dinner"), null, null, null),
+                new BatchOperation(BatchOperation.Op.DELETE, null, null, List.of(2L), null, null)));
+
+        assertEquals(2, result.affected());
+        assertEquals(40L, result.results().get(0).id());
+        assertEquals(0, result.results().get(1).affected());
+        assertEquals(1, result.results().get(2).affected());
+        verify(eventPublisher).publishEvent(TransactionChangedEvent.bulk(5L));
+    }
+
+    @Test
+    void applyBatch_rejectsAnUpdateOfAReadOnlyRowAsPutDoes() {
+        when(bulkRepository.updateById(eq(9L), any(Transaction.class), anyLong())).thenReturn(Optional.empty());
+        when(archivedRepository.findById(9L)).thenReturn(Optional.of(transaction("Archived")));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batchService.applyBatch(List.of(
+                new BatchOperation(BatchOperation.Op.UPDATE, 9L, transaction("Dinner"), null, null, null))));
+
+        assertEquals("Operation 0: Transaction 9 is archived and read-only", e.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void applyBatch_namesTheInvalidOperation() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batchService.applyBatch(List.of(
+                new BatchOperation(BatchOperation.Op.DELETE, null, null, List.of(2L), null, null),
+                new BatchOperation(BatchOperation.Op.CREATE, null, transaction(""), null, null, null))));
+
+        assertEquals("Operation 1: Description is required", e.getMessage());
+    }
+}
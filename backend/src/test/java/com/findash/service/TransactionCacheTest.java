@@ -0,0 +1,88 @@
+package com.findash.service;
+
+import com.findash.config.CacheProperties;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.TransactionSummary;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCacheTest {
+
+    private final TransactionCache cache = new TransactionCache(new CacheProperties());
+
+    private Transaction transaction(Long id, String category, LocalDate date) {
+        return new Transaction(id, date, "Lunch", category, "Cafe", Money.parse("9.50"), "Expense",
+                "Card", "", date, date);
+    }
+
+    @Test
+    void onTransactionChanged_evictsOnlyEntriesThatCouldHoldTheRow() {
+        LocalDate march = LocalDate.of(2025, 3, 10);
+        cache.byCategory().get("food", key -> List.of());
+        cache.byCategory().get("Travel", key -> List.of());
+        cache.byDateRange().get(new TransactionCache.DateRange(march.withDayOfMonth(1), march.withDayOfMonth(31)),
+                key -> List.of());
+        cache.byDateRange().get(new TransactionCache.DateRange(march.minusMonths(1), march.minusDays(20)),
+                key -> List.of());
+        cache.summaries().get(new AggregateFilter(null, null, "Travel"), key -> TransactionSummary.from(List.of()));
+
+        cache.onTransactionChanged(TransactionChangedEvent.created(transaction(1L, "Food", march)));
+
+        assertNull(cache.byCategory().getIfPresent("food"));
+        assertNotNull(cache.byCategory().getIfPresent("Travel"));
+        assertNull(cache.byDateRange().getIfPresent(
+                new TransactionCache.DateRange(march.withDayOfMonth(1), march.withDayOfMonth(31))));
+        assertNotNull(cache.byDateRange().getIfPresent(
+                new TransactionCache.DateRange(march.minusMonths(1), march.minusDays(20))));
+        assertNotNull(cache.summaries().getIfPresent(new AggregateFilter(null, null, "Travel")));
+    }
+
+    @Test
+    void onTransactionChanged_updateWithoutBeforeStateEvictsFilteredEntries() {
+        LocalDate march = LocalDate.of(2025, 3, 10);
+        cache.byId().get(4L, key -> transaction(key, "Food", march));
+        cache.byId().get(5L, key -> transaction(key, "Food", march));
+        cache.byCategory().get("Travel", key -> List.of());
+        cache.summaries().get(new AggregateFilter(null, null, "Travel"), key -> TransactionSummary.from(List.of()));
+
+        // The row may have been in Travel before the update
+        cache.onTransactionChanged(TransactionChangedEvent.updated(null, transaction(4L, "Food", march)));
+
+        assertNull(cache.byId().getIfPresent(4L));
+        assertNotNull(cache.byId().getIfPresent(5L));
+        assertNull(cache.byCategory().getIfPresent("Travel"));
+        assertNull(cache.summaries().getIfPresent(new AggregateFilter(null, null, "Travel")));
+    }
+
+    @Test
+    void get_doesNotStoreValueLoadedAcrossAnInvalidation() {
+        Transaction stale = transaction(2L, "Food", LocalDate.of(2025, 1, 1));
+
+        // The write commits (and invalidates) while the read is still loading the old row
+        Transaction returned = cache.byId().get(2L, key -> {
+            cache.onTransactionChanged(TransactionChangedEvent.deleted(stale, 3L));
+            return stale;
+        });
+
+        assertSame(stale, returned);
+        assertNull(cache.byId().getIfPresent(2L));
+    }
+
+    @Test
+    void onTransactionChanged_bulkClearsEveryRegion() {
+        cache.byId().get(3L, key -> transaction(key, "Food", LocalDate.of(2025, 1, 1)));
+        cache.byType().get("Income", key -> List.of());
+
+        cache.onTransactionChanged(TransactionChangedEvent.bulk());
+
+        assertNull(cache.byId().getIfPresent(3L));
+        assertNull(cache.byType().getIfPresent("Income"));
+        assertTrue(cache.stats().stream().allMatch(region -> region.entries() == 0));
+    }
+}
@@ -0,0 +1,247 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.findash.config.PushProperties;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.TransactionDelta;
+import com.findash.dto.TransactionSummary;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Drives the broadcaster with events as AFTER_COMMIT listeners get them and reads each subscriber's
+// stream through an emitter that records the events it is sent, in order.
+@ExtendWith(MockitoExtension.class)
+class TransactionChangeBroadcasterTest {
+
+    private static final TransactionSummary TOTALS = TransactionSummary.from(List.of());
+
+    @Mock
+    private TransactionService transactionService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private TransactionChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void stop() {
+        if (broadcaster != null) {
+            broadcaster.destroy();
+        }
+    }
+
+    @Test
+    void subscribe_sendsCommittedChangesInCommitOrder() throws InterruptedException {
+        when(transactionService.getSummary(AggregateFilter.NONE)).thenReturn(TOTALS);
+        when(transactionService.getChangeVersion()).thenReturn(5L);
+        start(16);
+        RecordingEmitter stream = subscribe(null);
+
+        broadcaster.onTransactionChanged(TransactionChangedEvent.created(transaction(6, "Lunch")));
+        broadcaster.onTransactionChanged(TransactionChangedEvent.updated(null, transaction(7, "Dinner")));
+        broadcaster.onTransactionChanged(TransactionChangedEvent.deleted(transaction(6, "Lunch"), 8));
+        broadcaster.onTransactionChanged(TransactionChangedEvent.bulk(9));
+
+        assertEquals("hello 5", stream.next());
+        assertEquals("upsert 6", stream.next());
+        assertEquals("upsert 7", stream.next());
+        assertEquals("delete 8", stream.next());
+        assertEquals("changes 9", stream.next());
+    }
+
+    @Test
+    void subscribe_withLastEventIdSendsTheDeltaBeforeHelloAndNothingItCovers() throws InterruptedException {
+        when(transactionService.getSummary(AggregateFilter.NONE)).thenReturn(TOTALS);
+        // One version back, so the rows of the last event the client saw are sent again
+        when(transactionService.getChangesSince(6L)).thenReturn(new TransactionDelta(9, List.of(), List.of()));
+        start(16);
+        RecordingEmitter stream = subscribe("7");
+
+        // Committed while the delta was read, so already in it
+        broadcaster.onTransactionChanged(TransactionChangedEvent.created(transaction(8, "Lunch")));
+        broadcaster.onTransactionChanged(TransactionChangedEvent.bulk(9));
+        broadcaster.onTransactionChanged(TransactionChangedEvent.created(transaction(10, "Dinner")));
+
+        assertEquals("delta 9", stream.next());
+        assertEquals("hello 9", stream.next());
+        assertEquals("upsert 10", stream.next());
+        assertNull(stream.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_withAnUnknownLastEventIdStartsOver() throws InterruptedException {
+        when(transactionService.getSummary(AggregateFilter.NONE)).thenReturn(TOTALS);
+        when(transactionService.getChangesSince(41L)).thenThrow(new IllegalArgumentException("unknown version"));
+        when(transactionService.getChangeVersion()).thenReturn(5L);
+        start(16);
+
+        assertEquals("hello 5", subscribe("42").next());
+    }
+
+    @Test
+    void onTransactionChanged_evictsASubscriberWhoseBufferFillsUp() throws InterruptedException {
+        when(transactionService.getSummary(AggregateFilter.NONE)).thenReturn(TOTALS);
+        when(transactionService.getChangeVersion()).thenReturn(5L);
+        start(2);
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(null);
+        slow.blockUntil(stalled);
+        assertEquals("hello 5", slow.next());
+
+        // The slow client's sender is stuck on this write; its buffer holds two more
+        for (long version = 6; version <= 9; version++) {
+            broadcaster.onTransactionChanged(TransactionChangedEvent.bulk(version));
+        }
+
+        awaitTrue(() -> registry.get("findash.push.evicted").counter().count() == 1);
+        stalled.countDown();
+        awaitTrue(() -> slow.completed);
+        assertEquals(0, registry.get("findash.push.subscribers").gauge().value());
+    }
+
+    @Test
+    void onTransactionChanged_sendsOneChangesEventWithoutIdWhenTheQueueOverflows() throws InterruptedException {
+        // Holds the dispatcher on the totals of the first event, so the commits after it pile up
+        CountDownLatch dispatching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionService.getSummary(AggregateFilter.NONE)).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("sse-dispatcher") && dispatching.getCount() > 0) {
+                dispatching.countDown();
+                release.await();
+            }
+            return TOTALS;
+        });
+        when(transactionService.getChangeVersion()).thenReturn(5L);
+        start(20_000);
+        RecordingEmitter stream = subscribe(null);
+
+        broadcaster.onTransactionChanged(TransactionChangedEvent.bulk(6));
+        assertTrue(dispatching.await(5, TimeUnit.SECONDS));
+        for (long version = 7; version <= 10_007; version++) {
+            broadcaster.onTransactionChanged(TransactionChangedEvent.bulk(version));
+        }
+        release.countDown();
+
+        assertEquals("hello 5", stream.next());
+        assertEquals("changes 6", stream.next());
+        assertEquals("changes", stream.next());
+        // What did fit in the queue still follows, in order
+        for (long version = 7; version <= 10_006; version++) {
+            assertEquals("changes " + version, stream.next());
+        }
+    }
+
+    private void start(int bufferSize) {
+        PushProperties properties = new PushProperties();
+        properties.setBufferSize(bufferSize);
+        properties.setHeartbeat(Duration.ofHours(1));
+        broadcaster = new TransactionChangeBroadcaster(transactionService, new ObjectMapper().findAndRegisterModules(),
+                properties, registry) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        broadcaster.subscribe(lastEventId).orElseThrow();
+        return emitters.get(emitters.size() - 1);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Transaction transaction(long version, String description) {
+        LocalDate date = LocalDate.of(2026, 1, 5);
+        Transaction transaction = new Transaction(version, date, description, "Food", "Cafe", Money.parse("-4.50"),
+                "Expense", null, "", date, date);
+        transaction.setRowVersion(version);
+        return transaction;
+    }
+
+    // Records each event it is sent as "name id" ("name" alone for an event without id)
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private volatile CountDownLatch gate;
+        private volatile boolean completed;
+
+        RecordingEmitter(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        // Every send after the next waits for the latch, as a client that stopped reading would make it
+        void blockUntil(CountDownLatch latch) {
+            gate = latch;
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event sent");
+            return event;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            StringBuilder text = new StringBuilder();
+            items.forEach(item -> text.append(item.getData()));
+            String name = null;
+            String id = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                }
+            }
+            if (name != null) {
+                events.add(id != null ? name + " " + id : name);
+            }
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.findash.dto.TransactionField;
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionColumnsTest {
+
+    private Transaction transaction(Long id, LocalDate date, String category, String amount, String paymentMethod) {
+        return new Transaction(id, date, "Lunch", category, "Cafe", Money.parse(amount), "Expense",
+                paymentMethod, "", date, date);
+    }
+
+    private TransactionColumns columns() {
+        TransactionColumns columns = new TransactionColumns(EnumSet.of(TransactionField.ID, TransactionField.DATE,
+                TransactionField.CATEGORY, TransactionField.AMOUNT, TransactionField.PAYMENT_METHOD));
+        columns.add(transaction(7L, LocalDate.ofEpochDay(20103), "Food", "-12.5", "Card"));
+        columns.add(transaction(5L, LocalDate.ofEpochDay(20101), "Travel", "3000", null));
+        columns.add(transaction(4L, LocalDate.ofEpochDay(20101), "Food", "0.13", "Card"));
+        return columns;
+    }
+
+    @Test
+    void writeJson_encodesDictionariesEpochDaysAndCents() throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(json)) {
+            columns().writeJson(generator);
+        }
+
+        assertEquals("{\"rows\":3,\"amountScale\":2,\"columns\":{"
+                + "\"id\":[7,5,4],"
+                + "\"date\":[20103,20101,20101],"
+                + "\"category\":{\"values\":[\"Food\",\"Travel\"],\"codes\":[0,1,0]},"
+                + "\"amount\":[-1250,300000,13],"
+                + "\"paymentMethod\":{\"values\":[\"Card\"],\"codes\":[0,null,0]}}}", json.toString());
+    }
+
+    @Test
+    void writeBinary_deltaEncodesIdsAndDates() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionColumns columns = new TransactionColumns(EnumSet.of(TransactionField.ID, TransactionField.DATE));
+        columns.add(transaction(7L, LocalDate.ofEpochDay(100), "Food", "1", "Card"));
+        columns.add(transaction(5L, LocalDate.ofEpochDay(100), "Food", "1", "Card"));
+
+        columns.writeBinary(out);
+
+        assertArrayEquals(new byte[]{
+                'F', 'D', 'C', '1', 2, 2,
+                // id: no nulls, then 7 and -2 zigzag-encoded
+                2, 'i', 'd', 0, 0, 14, 3,
+                // date: no nulls, then 100 (zigzag 200, two varint bytes) and +0
+                4, 'd', 'a', 't', 'e', 1, 0, (byte) 0xC8, 1, 0
+        }, out.toByteArray());
+    }
+}
@@ -0,0 +1,38 @@
+package com.findash.service;
+
+import com.findash.repository.DimensionDictionary;
+import com.findash.repository.TransactionExportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionExportRepository exportRepository;
+
+    @Mock
+    private DimensionDictionary dictionary;
+
+    @InjectMocks
+    private TransactionExportService exportService;
+
+    @Test
+    void tryStart_admitsUpToMaxConcurrentExports() {
+        ReflectionTestUtils.setField(exportService, "maxConcurrent", 2);
+
+        assertTrue(exportService.tryStart());
+        assertTrue(exportService.tryStart());
+        assertFalse(exportService.tryStart());
+
+        exportService.finished();
+        assertTrue(exportService.tryStart());
+        assertFalse(exportService.tryStart());
+    }
+}
@@ -0,0 +1,117 @@
+package com.findash.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.findash.dto.ImportError;
+import com.findash.dto.ImportResult;
+import com.findash.model.Transaction;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    @Mock
+    private TransactionBulkRepository bulkRepository;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private TransactionPartitions partitions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TransactionImportService importService;
+
+    @Test
+    void importTransactions_rejectsShortRowAndImportsTheRest() throws IOException {
+        ReflectionTestUtils.setField(importService, "chunkSize", 100);
+        // The chunk list is reused after the flush, so record what was inserted as it happens
+        List<String> inserted = new ArrayList<>();
+        when(bulkRepository.insertAll(any())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            chunk.forEach(transaction -> inserted.add(transaction.getDescription()));
+            return chunk.size();
+        });
+        String csv = "date,description,category,merchant,amount,type\n"
+                + "2026-01-05,Lunch,Food,Cafe,-12.50,Expense\n"
+                + "2026-01-06,Short\n"
+                + "2026-01-07,Salary,Salary,Employer,3500,Income\n";
+
+        ImportResult result = importService.importTransactions(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransactionImportService.Format.CSV);
+
+        assertEquals(3, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertEquals(List.of(new ImportError(3, "Missing column: category")), result.errors());
+        assertEquals(List.of("Lunch", "Salary"), inserted);
+    }
+
+    @Test
+    void importTransactions_reportsAnUnterminatedQuoteAndKeepsTheRowsBeforeIt() throws IOException {
+        ReflectionTestUtils.setField(importService, "chunkSize", 1);
+        List<String> inserted = new ArrayList<>();
+        when(bulkRepository.insertAll(any())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            chunk.forEach(transaction -> inserted.add(transaction.getDescription()));
+            return chunk.size();
+        });
+        String csv = "date,description,category,merchant,amount,type\n"
+                + "2026-01-05,Lunch,Food,Cafe,-12.50,Expense\n"
+                + "2026-01-06,Dinner,Food,Cafe,-30.00,Expense\n"
+                + "2026-01-07,\"Salary, Jan,Salary,Employer,3500,Income\n";
+
+        ImportResult result = importService.importTransactions(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransactionImportService.Format.CSV);
+
+        assertEquals(3, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertEquals(List.of(new ImportError(4,
+                "Unterminated quoted field starting on line 4; the rest of the file was not read")), result.errors());
+        assertEquals(List.of("Lunch", "Dinner"), inserted);
+    }
+
+    @Test
+    void importTransactions_refusesAMalformedHeader() {
+        String csv = "date,\"description,category\n";
+
+        assertThrows(IllegalArgumentException.class, () -> importService.importTransactions(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransactionImportService.Format.CSV));
+        verifyNoInteractions(bulkRepository);
+    }
+}
@@ -0,0 +1,121 @@
+package com.findash.service;
+
+import com.findash.model.Money;
+import com.findash.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Starts against a database whose year 2000 is closed and a journal holding a row dated in it, as
+// when an archive pass closed the year after the row was acknowledged: the row is set aside in
+// rejected.ndjson instead of failing the replay, and the writer does the same with rows it is refused.
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "findash.ingest.enabled=true",
+        "findash.ingest.batch-size=10"
+})
+class TransactionIngestServiceTest {
+
+    private static Path journalDir;
+
+    @Autowired
+    private TransactionIngestService ingestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void journalWithARowInAClosedYear(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        Path directory = Files.createTempDirectory("ingest-test");
+        directory.toFile().deleteOnExit();
+        Path database = directory.resolve("live.db");
+        journalDir = directory.resolve("journal");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transaction_partitions (name TEXT PRIMARY KEY, "
+                    + "start_date INTEGER NOT NULL, end_date INTEGER NOT NULL, file TEXT NOT NULL, row_count INTEGER, "
+                    + "first_id INTEGER, last_id INTEGER) WITHOUT ROWID");
+            statement.execute("INSERT INTO transaction_partitions (name, start_date, end_date, file) "
+                    + "VALUES ('2000', " + millis(LocalDate.of(2000, 1, 1)) + ", " + millis(LocalDate.of(2001, 1, 1))
+                    + ", 'transactions-2000.db')");
+            // Ids handed out from here on stay clear of the journaled ones
+            statement.execute("CREATE TABLE id_allocator (name TEXT PRIMARY KEY, next_id INTEGER NOT NULL) "
+                    + "WITHOUT ROWID");
+            statement.execute("INSERT INTO id_allocator (name, next_id) VALUES ('transactions', 1000)");
+        }
+        try (IngestJournal journal = new IngestJournal(journalDir, 1024 * 1024)) {
+            journal.recover();
+            journal.append(List.of(record(900, LocalDate.of(2000, 5, 1), "Closed year"),
+                    record(901, LocalDate.now().withDayOfMonth(1), "Open year")));
+        }
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database);
+        registry.add("findash.ingest.journal-dir", journalDir::toString);
+    }
+
+    @Test
+    void replay_setsAsideRowsInClosedYearsAndRestoresTheRest() throws IOException {
+        assertEquals(List.of("Open year"), jdbcTemplate.queryForList(
+                "SELECT description FROM transactions WHERE id IN (900, 901)", String.class));
+        assertTrue(rejected().stream().anyMatch(line -> line.contains("\"id\":900")));
+    }
+
+    @Test
+    void writer_setsAsideRefusedRowsAndWritesTheRest() throws IOException, InterruptedException {
+        Transaction refused = transaction(null);
+        Transaction accepted = transaction("Accepted");
+        ingestService.submit(refused);
+        ingestService.submit(accepted);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && (rows(accepted.getId()) == 0
+                || rejected().stream().noneMatch(line -> line.contains("\"id\":" + refused.getId())))) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, rows(accepted.getId()));
+        assertEquals(0, rows(refused.getId()));
+        assertTrue(rejected().stream().anyMatch(line -> line.contains("\"id\":" + refused.getId())));
+    }
+
+    private int rows(long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id = ?", Integer.class, id);
+    }
+
+    private static List<String> rejected() throws IOException {
+        Path file = journalDir.resolve("rejected.ndjson");
+        return Files.exists(file) ? Files.readAllLines(file) : List.of();
+    }
+
+    // Without a description the row breaks a NOT NULL constraint
+    private static Transaction transaction(String description) {
+        LocalDate date = LocalDate.now().withDayOfMonth(1);
+        return new Transaction(null, date, description, "Food & Dining", "Cafe", Money.parse("12.50"), "Expense",
+                "Card", "", date, date);
+    }
+
+    private static byte[] record(long id, LocalDate date, String description) {
+        return ("{\"id\":" + id + ",\"date\":\"" + date + "\",\"description\":\"" + description + "\","
+                + "\"category\":\"Food & Dining\",\"merchant\":\"Cafe\",\"amount\":\"12.50\",\"type\":\"Expense\","
+                + "\"paymentMethod\":\"Card\",\"notes\":\"\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long millis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,21 +1,41 @@
 package com.findash.service;
 
+import com.findash.config.CacheProperties;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.dto.TransactionPage;
+import com.findash.dto.TransactionSummary;
+import com.findash.exception.NotFoundException;
+import com.findash.model.Money;
 import com.findash.model.Transaction;
+import com.findash.repository.ArchivedTransactionRepository;
+import com.findash.repository.ChangeVersionRepository;
+import com.findash.repository.TransactionAggregateRepository;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionPartitions;
 import com.findash.repository.TransactionRepository;
+import com.findash.repository.TransactionRollupRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +44,30 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionAggregateRepository aggregateRepository;
+
+    @Mock
+    private TransactionBulkRepository bulkRepository;
+
+    @Mock
+    private TransactionRollupRepository rollupRepository;
+
+    @Mock
+    private ArchivedTransactionRepository archivedRepository;
+
+    @Mock
+    private TransactionPartitions partitions;
+
+    @Mock
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionCache transactionCache = new TransactionCache(new CacheProperties());
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -34,7 +78,7 @@ class TransactionServiceTest {
                 "Groceries",
                 "Food",
                 "Market",
-                new BigDecimal("12.34"),
+                Money.parse("12.34"),
                 "Expense",
                 "Card",
                 "Notes",
@@ -54,6 +98,43 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).findAllByOrderByDateDesc();
     }
 
+    @Test
+    void getTransactionPage_returnsCursorWhenMoreRowsExist() {
+        List<Transaction> rows = Arrays.asList(sampleTransaction(3L), sampleTransaction(2L), sampleTransaction(1L));
+        when(transactionRepository.findPage(Limit.of(3))).thenReturn(rows);
+
+        TransactionPage page = transactionService.getTransactionPage(null, 2);
+
+        assertEquals(2, page.transactions().size());
+        TransactionCursor cursor = TransactionCursor.decode(page.nextCursor());
+        assertEquals(LocalDate.of(2023, 1, 1), cursor.date());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void getTransactionPage_resumesAfterCursor() {
+        String cursor = new TransactionCursor(LocalDate.of(2023, 1, 1), 2L).encode();
+        List<Transaction> rows = Arrays.asList(sampleTransaction(1L));
+        when(transactionRepository.findPageAfter(LocalDate.of(2023, 1, 1), 2L, Limit.of(3))).thenReturn(rows);
+
+        TransactionPage page = transactionService.getTransactionPage(cursor, 2);
+
+        assertEquals(rows, page.transactions());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getTransactionPage_continuesIntoArchivedYears() {
+        when(transactionRepository.findPage(Limit.of(3))).thenReturn(List.of(sampleTransaction(9L)));
+        List<Transaction> archived = List.of(sampleTransaction(4L), sampleTransaction(3L));
+        when(archivedRepository.findPage(LocalDate.of(2023, 1, 1), 9L, 2)).thenReturn(archived);
+
+        TransactionPage page = transactionService.getTransactionPage(null, 2);
+
+        assertEquals(List.of(9L, 4L), page.transactions().stream().map(Transaction::getId).toList());
+        assertEquals(4L, TransactionCursor.decode(page.nextCursor()).id());
+    }
+
     @Test
     void getTransactionById_found() {
         Transaction t = sampleTransaction(5L);
@@ -79,49 +160,75 @@ class TransactionServiceTest {
 
     @Test
     void updateTransaction_updatesWhenFound() {
-        Transaction existing = sampleTransaction(3L);
         Transaction details = sampleTransaction(3L);
         details.setDescription("Updated");
-        details.setAmount(new BigDecimal("99.99"));
+        details.setAmount(Money.parse("99.99"));
 
-        when(transactionRepository.findById(3L)).thenReturn(Optional.of(existing));
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(changeVersionRepository.next()).thenReturn(12L);
+        when(bulkRepository.updateById(3L, details, 12L)).thenReturn(Optional.of(details));
 
         Transaction updated = transactionService.updateTransaction(3L, details);
 
         assertEquals("Updated", updated.getDescription());
-        assertEquals(new BigDecimal("99.99"), updated.getAmount());
-        verify(transactionRepository).findById(3L);
-        verify(transactionRepository).save(existing);
+        assertEquals(Money.parse("99.99"), updated.getAmount());
+        verify(transactionRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(argThat((TransactionChangedEvent event) ->
+                event.kind() == TransactionChangedEvent.Kind.UPDATED && event.before() == null
+                        && event.after().getDescription().equals("Updated")));
     }
 
     @Test
     void updateTransaction_throwsWhenNotFound() {
-        when(transactionRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bulkRepository.updateById(eq(99L), any(Transaction.class), anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> transactionService.updateTransaction(99L, sampleTransaction(99L)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateAndDelete_rejectArchivedRowsAsReadOnly() {
+        when(bulkRepository.updateById(eq(12L), any(Transaction.class), anyLong())).thenReturn(Optional.empty());
+        when(bulkRepository.deleteById(12L)).thenReturn(Optional.empty());
+        when(archivedRepository.findById(12L)).thenReturn(Optional.of(sampleTransaction(12L)));
+
+        IllegalArgumentException update = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.updateTransaction(12L, sampleTransaction(12L)));
+        assertEquals("Transaction 12 is archived and read-only", update.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> transactionService.deleteTransaction(12L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        assertThrows(RuntimeException.class, () -> transactionService.updateTransaction(99L, sampleTransaction(99L)));
-        verify(transactionRepository).findById(99L);
-        verify(transactionRepository, never()).save(any());
+    @Test
+    void delete_rejectsARowOfAClosedYearThatIsNotMovedYetAsReadOnly() {
+        when(bulkRepository.deleteById(14L)).thenReturn(Optional.empty());
+        when(transactionRepository.existsById(14L)).thenReturn(true);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.deleteTransaction(14L));
+        assertEquals("Transaction 14 is archived and read-only", e.getMessage());
+        verify(changeVersionRepository, never()).recordDeletion(anyLong(), anyLong());
     }
 
     @Test
     void deleteTransaction_deletesWhenFound() {
         Transaction existing = sampleTransaction(7L);
-        when(transactionRepository.findById(7L)).thenReturn(Optional.of(existing));
+        when(changeVersionRepository.next()).thenReturn(4L);
+        when(bulkRepository.deleteById(7L)).thenReturn(Optional.of(existing));
 
         transactionService.deleteTransaction(7L);
 
-        verify(transactionRepository).findById(7L);
-        verify(transactionRepository).delete(existing);
+        verify(transactionRepository, never()).findById(any());
+        verify(changeVersionRepository).recordDeletion(7L, 4L);
+        verify(eventPublisher).publishEvent(argThat((TransactionChangedEvent event) ->
+                event.kind() == TransactionChangedEvent.Kind.DELETED && event.before().getId() == 7L));
     }
 
     @Test
     void deleteTransaction_throwsWhenNotFound() {
-        when(transactionRepository.findById(123L)).thenReturn(Optional.empty());
+        when(bulkRepository.deleteById(123L)).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> transactionService.deleteTransaction(123L));
-        verify(transactionRepository).findById(123L);
-        verify(transactionRepository, never()).delete(any());
+        assertThrows(NotFoundException.class, () -> transactionService.deleteTransaction(123L));
+        verify(changeVersionRepository, never()).recordDeletion(anyLong(), anyLong());
     }
 
     @Test
@@ -135,13 +242,65 @@ class TransactionServiceTest {
         verify(transactionRepository).findByType("Expense");
     }
 
+    @Test
+    void getTransactionById_servesRepeatedLookupsFromCache() {
+        when(transactionRepository.findById(5L)).thenReturn(Optional.of(sampleTransaction(5L)));
+
+        transactionService.getTransactionById(5L);
+        Optional<Transaction> second = transactionService.getTransactionById(5L);
+
+        assertEquals(5L, second.orElseThrow().getId());
+        verify(transactionRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void getChangesSince_rejectsVersionsFromTheFuture() {
+        when(changeVersionRepository.current()).thenReturn(10L);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getChangesSince(11L));
+        verifyNoInteractions(transactionRepository);
+    }
+
     @Test
     void getTotalByType_handlesNullAndReturnsZero() {
-        when(transactionRepository.getTotalByType("Income")).thenReturn(null);
-        Double total = transactionService.getTotalByType("Income");
-        assertEquals(0.0, total);
+        when(transactionRepository.getTotalCentsByType("Income")).thenReturn(null);
+        Money total = transactionService.getTotalByType("Income");
+        assertEquals(Money.parse("0.00"), total);
+
+        when(transactionRepository.getTotalCentsByType("Expense")).thenReturn(12345L);
+        assertEquals(Money.parse("123.45"), transactionService.getTotalByType("Expense"));
+    }
+
+    @Test
+    void getSummary_usesRollupsForWholeMonths() {
+        List<AggregateRow> rows = Arrays.asList(
+                new AggregateRow("Income", null, null, null, 1, Money.parse("100.00"), null, null, Money.parse("100.00")),
+                new AggregateRow("Expense", null, null, null, 2, Money.parse("30.50"), null, null, Money.parse("15.25")));
+        when(rollupRepository.totals(any(), eq(YearMonth.of(2025, 1)), eq(YearMonth.of(2025, 2)), isNull()))
+                .thenReturn(rows);
+
+        TransactionSummary summary = transactionService.getSummary(
+                new AggregateFilter(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 28), null));
+
+        assertEquals(Money.parse("69.50"), summary.balance());
+        verifyNoInteractions(aggregateRepository);
+    }
+
+    @Test
+    void getSummary_scansLiveTableForPartialMonths() {
+        AggregateFilter filter = new AggregateFilter(LocalDate.of(2025, 1, 15), null, null);
+        when(aggregateRepository.aggregate(any(), eq(filter))).thenReturn(List.of());
+
+        TransactionSummary summary = transactionService.getSummary(filter);
 
-        when(transactionRepository.getTotalByType("Expense")).thenReturn(123.45);
-        assertEquals(123.45, transactionService.getTotalByType("Expense"));
+        assertEquals(Money.parse("0.00"), summary.balance());
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void toMatchExpression_quotesEachWordAsPrefix() {
+        assertEquals("\"whole\"* \"groc\"*", TransactionService.toMatchExpression("  whole groc "));
+        assertEquals("\"\"\"near(\"*", TransactionService.toMatchExpression("\"near("));
+        assertThrows(IllegalArgumentException.class, () -> TransactionService.toMatchExpression(" "));
     }
 }
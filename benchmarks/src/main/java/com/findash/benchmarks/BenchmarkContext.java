@@ -0,0 +1,76 @@
+package com.findash.benchmarks;
+
+import com.findash.FindashApplication;
+import com.findash.config.DataSeeder;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the real application (without the web server) against a SQLite file under
+// findash.bench.data-dir (default bench-data/). Files are kept between runs, so the
+// data for a given size is generated once. The read cache is disabled so benchmarks
+// measure the query path rather than cache hits.
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, long rows, String... extraArgs) {
+        Path dataDir = Path.of(System.getProperty("findash.bench.data-dir", "bench-data"));
+        try {
+            Files.createDirectories(dataDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create " + dataDir, e);
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:sqlite:" + dataDir.resolve(database).toAbsolutePath(),
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--spring.main.allow-bean-definition-overriding=true",
+                "--logging.level.root=WARN",
+                "--findash.cache.ttl=0s",
+                "--findash.bench.rows=" + rows));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(FindashApplication.class, SeedingConfig.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties
+                .run(args.toArray(String[]::new));
+    }
+
+    public static ConfigurableApplicationContext start(long rows) {
+        return start("findash-" + rows + ".db", rows);
+    }
+
+    public static void deleteDatabase(String database) throws IOException {
+        Path dataDir = Path.of(System.getProperty("findash.bench.data-dir", "bench-data"));
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            Files.deleteIfExists(dataDir.resolve(database + suffix));
+        }
+    }
+
+    // Replaces the application's DataSeeder (same bean name) with the skewed generator
+    @Configuration
+    static class SeedingConfig {
+
+        @Bean(name = "dataSeeder")
+        DataSeeder dataSeeder(TransactionRepository transactionRepository, TransactionBulkRepository bulkRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${findash.bench.rows:0}") long rows) {
+            return new SkewedDataSeeder(transactionRepository, bulkRepository,
+                    new TransactionTemplate(transactionManager), rows, SkewedDataSeeder.DEFAULT_SEED);
+        }
+    }
+}
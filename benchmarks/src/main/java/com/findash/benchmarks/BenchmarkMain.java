@@ -0,0 +1,35 @@
+package com.findash.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Entry point of target/benchmarks.jar. Takes the usual JMH options; unless a result file or
+// format is given, results are written as JSON to results/<version>-<timestamp>.json so runs
+// from different releases can be compared with CompareResults.
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean informational = options.stream().anyMatch(option ->
+                option.equals("-h") || option.equals("-l") || option.equals("-lp") || option.equals("-lprof"));
+        if (!informational && !options.contains("-rf") && !options.contains("-rff")) {
+            Path results = Path.of(System.getProperty("findash.bench.results-dir", "results"));
+            Files.createDirectories(results);
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.addAll(List.of("-rf", "json", "-rff",
+                    results.resolve((version != null ? version : "dev") + "-" + stamp + ".json").toString()));
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.findash.benchmarks;
+
+import com.findash.model.Transaction;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Inserting one chunk of rows in one transaction, through the multi-row INSERT path used by
+// imports and through JPA saveAll for comparison. Starts from an empty database each trial;
+// the table grows as iterations run, as it does during a large import.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionBulkRepository bulkRepository;
+    private TransactionRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private List<Transaction> chunk;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String database = "findash-bulk-" + chunkSize + ".db";
+        BenchmarkContext.deleteDatabase(database);
+        context = BenchmarkContext.start(database, 0);
+        bulkRepository = context.getBean(TransactionBulkRepository.class);
+        repository = context.getBean(TransactionRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        chunk = SkewedDataSeeder.inMemory(SkewedDataSeeder.DEFAULT_SEED).generate(chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer multiRowInsert() {
+        return transactionTemplate.execute(status -> bulkRepository.insertAll(chunk));
+    }
+
+    @Benchmark
+    public Integer jpaSaveAll() {
+        // saveAll assigns ids to the entities it is given, so insert fresh copies every time
+        List<Transaction> copies = chunk.stream().map(Transaction::copy).toList();
+        return transactionTemplate.execute(status -> repository.saveAll(copies).size());
+    }
+}
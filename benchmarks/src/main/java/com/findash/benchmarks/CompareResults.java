@@ -0,0 +1,67 @@
+package com.findash.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH JSON result files benchmark by benchmark (including @Param values) and exits
+// with status 1 if any score got worse by more than the threshold (default 10%).
+//   java -cp target/benchmarks.jar com.findash.benchmarks.CompareResults baseline.json current.json [percent]
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  (new) %s%n", entry.getKey(), "-", newScore, "", unit);
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            // Throughput modes are better when higher, time modes when lower
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double worsening = higherIsBetter ? -change : change;
+            boolean regressed = worsening > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), oldScore, newScore, change, unit,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Benchmark name plus its parameters, e.g. RepositoryBenchmark.findById{rows=1000000}
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            String name = result.path("benchmark").asText().replace("com.findash.benchmarks.", "");
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            results.put(params.isEmpty() ? name : name + params, result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,96 @@
+package com.findash.benchmarks;
+
+import com.findash.model.Transaction;
+import com.findash.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TransactionRepository queries against a seeded SQLite file, each in a read-only transaction as
+// TransactionService runs them (so they use the reader pool). Queries pick selective arguments;
+// at 10M rows findByType("Income") still returns ~400k entities, hence the larger heap.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RepositoryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private long rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private TransactionTemplate readOnly;
+    private Transaction middleRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        repository = context.getBean(TransactionRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        // A cursor halfway down the newest-first listing, for deep keyset pages
+        middleRow = readOnly.execute(status -> {
+            List<Transaction> page = repository.findPage(Limit.of(1));
+            LocalDate newest = page.get(0).getDate();
+            LocalDate midpoint = newest.minusDays(550);
+            return repository.findPageAfter(midpoint, Long.MAX_VALUE, Limit.of(1)).get(0);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void findByTypeIncome(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.findByType("Income")));
+    }
+
+    @Benchmark
+    public void findByCategoryTail(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.findByCategory("gifts & donations")));
+    }
+
+    @Benchmark
+    public void findByDateBetweenOneWeek(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status ->
+                repository.findByDateBetween(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 8))));
+    }
+
+    @Benchmark
+    public void findByMerchantPrefix(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.findByMerchantPrefix("etsy #1")));
+    }
+
+    @Benchmark
+    public void findFirstPage(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.findPage(Limit.of(100))));
+    }
+
+    @Benchmark
+    public void findDeepPage(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status ->
+                repository.findPageAfter(middleRow.getDate(), middleRow.getId(), Limit.of(100))));
+    }
+
+    @Benchmark
+    public void findById(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.findById(middleRow.getId())));
+    }
+
+    @Benchmark
+    public void totalCentsByType(Blackhole blackhole) {
+        blackhole.consume(readOnly.execute(status -> repository.getTotalCentsByType("Expense")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.findash.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.findash.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of List<Transaction> with the same ObjectMapper defaults Spring Boot uses:
+// as one value (what a List return type does) and row by row (what the streaming endpoints do).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private List<Transaction> transactions;
+    private ObjectMapper objectMapper;
+    private CountingOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = SkewedDataSeeder.inMemory(SkewedDataSeeder.DEFAULT_SEED).generate(size);
+        long id = 1;
+        for (Transaction transaction : transactions) {
+            transaction.setId(id++);
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        out = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long writeList() throws IOException {
+        out.count = 0;
+        objectMapper.writeValue(out, transactions);
+        return out.count;
+    }
+
+    @Benchmark
+    public long writeStreamedArray() throws IOException {
+        out.count = 0;
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (SequenceWriter sequence = writer.writeValuesAsArray(out)) {
+            for (Transaction transaction : transactions) {
+                sequence.write(transaction);
+            }
+        }
+        return out.count;
+    }
+
+    // Discards output but counts it, so the work cannot be optimized away
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
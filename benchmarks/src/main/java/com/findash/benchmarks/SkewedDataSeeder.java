@@ -0,0 +1,218 @@
+package com.findash.benchmarks;
+
+import com.findash.config.DataSeeder;
+import com.findash.model.Transaction;
+import com.findash.repository.TransactionBulkRepository;
+import com.findash.repository.TransactionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Seeds the benchmark database up to a target row count with synthetic data shaped like a real
+// statement history: a few merchants take most of the volume (Zipf), amounts are log-normal per
+// category, spending rises at weekends and in December, and income is a small, steady stream.
+// Generation is deterministic for a given seed, so every run at a given size sees the same rows.
+public class SkewedDataSeeder extends DataSeeder {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int MERCHANT_COUNT = 2_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    // Share of rows that are income rather than expenses
+    private static final double INCOME_SHARE = 0.04;
+
+    private record Category(String name, String[] brands, String[] descriptions, double medianAmount, double sigma) {
+    }
+
+    private record Merchant(String name, Category category) {
+    }
+
+    // Ordered by popularity; category popularity is itself Zipf-distributed over this order
+    private static final Category[] EXPENSE_CATEGORIES = {
+            new Category("Food & Dining", new String[]{"Whole Foods", "Starbucks", "Chipotle", "Trader Joe's", "Safeway"},
+                    new String[]{"Groceries", "Coffee", "Lunch", "Dinner", "Takeout"}, 25, 0.8),
+            new Category("Shopping", new String[]{"Amazon", "Target", "Walmart", "Nike Store", "IKEA"},
+                    new String[]{"Household items", "Clothes", "Online order", "Electronics", "Shoes"}, 60, 1.0),
+            new Category("Transportation", new String[]{"Shell", "Uber", "City Cabs", "Metro Transit", "Chevron"},
+                    new String[]{"Fuel", "Ride", "Taxi", "Transit pass", "Parking"}, 20, 0.7),
+            new Category("Bills & Utilities", new String[]{"Electric Co", "Water Works", "Comcast", "Verizon", "Gas Co"},
+                    new String[]{"Electric bill", "Water bill", "Internet", "Phone bill", "Gas bill"}, 120, 0.4),
+            new Category("Entertainment", new String[]{"AMC Theatres", "Netflix", "Spotify", "Steam", "Ticketmaster"},
+                    new String[]{"Movie night", "Subscription", "Music", "Game", "Concert tickets"}, 35, 0.8),
+            new Category("Health & Fitness", new String[]{"Local Gym", "CVS Pharmacy", "Walgreens", "Yoga Studio", "Dental Care"},
+                    new String[]{"Gym membership", "Pharmacy", "Vitamins", "Yoga class", "Dentist"}, 50, 0.7),
+            new Category("Travel", new String[]{"Delta", "Marriott", "Airbnb", "Hertz", "Expedia"},
+                    new String[]{"Flight", "Hotel", "Vacation rental", "Car rental", "Trip booking"}, 300, 1.0),
+            new Category("Education", new String[]{"Coursera", "Udemy", "Barnes & Noble", "State University", "Duolingo"},
+                    new String[]{"Online course", "Course", "Books", "Tuition", "Language app"}, 150, 0.9),
+            new Category("Personal Care", new String[]{"Great Clips", "Sephora", "Ulta", "Day Spa", "Barber Shop"},
+                    new String[]{"Haircut", "Cosmetics", "Skincare", "Massage", "Shave"}, 30, 0.6),
+            new Category("Gifts & Donations", new String[]{"Red Cross", "Etsy", "Florist", "GoFundMe", "Hallmark"},
+                    new String[]{"Donation", "Gift", "Flowers", "Fundraiser", "Card"}, 60, 0.9)
+    };
+
+    private static final Category[] INCOME_CATEGORIES = {
+            new Category("Income", new String[]{"Employer"}, new String[]{"Salary"}, 3500, 0.2),
+            new Category("Income", new String[]{"Client Co", "Upwork"}, new String[]{"Freelance project"}, 800, 0.7),
+            new Category("Investment", new String[]{"Brokerage"}, new String[]{"Stock dividend"}, 60, 1.0)
+    };
+
+    private static final String[] PAYMENT_METHODS = {"Credit Card", "Debit Card", "Cash", "Bank Transfer", "Auto Pay"};
+    private static final double[] PAYMENT_WEIGHTS = {45, 30, 10, 8, 7};
+    private static final String[] NOTES = {"Weekly", "Monthly", "With friends", "Work related", "Reimbursable", "Split bill"};
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionBulkRepository bulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long targetRows;
+
+    private final Random random;
+    private final Merchant[] merchants;
+    private final ZipfSampler merchantSampler = new ZipfSampler(MERCHANT_COUNT, 1.0);
+    private final CumulativeSampler paymentSampler = new CumulativeSampler(PAYMENT_WEIGHTS);
+    private final CumulativeSampler incomeSampler = new CumulativeSampler(new double[]{70, 20, 10});
+    private final int dayCount = (int) ChronoUnit.DAYS.between(FIRST_DAY, LAST_DAY) + 1;
+
+    public SkewedDataSeeder(TransactionRepository transactionRepository, TransactionBulkRepository bulkRepository,
+                            TransactionTemplate transactionTemplate, long targetRows, long seed) {
+        super(transactionRepository);
+        this.transactionRepository = transactionRepository;
+        this.bulkRepository = bulkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.targetRows = targetRows;
+        this.random = new Random(seed);
+
+        // Each merchant belongs to one category; popular categories get more (and more popular) merchants
+        ZipfSampler categorySampler = new ZipfSampler(EXPENSE_CATEGORIES.length, 1.1);
+        merchants = new Merchant[MERCHANT_COUNT];
+        for (int i = 0; i < MERCHANT_COUNT; i++) {
+            Category category = EXPENSE_CATEGORIES[categorySampler.sample(random)];
+            String brand = category.brands()[random.nextInt(category.brands().length)];
+            merchants[i] = new Merchant(i < category.brands().length ? brand : brand + " #" + (100 + i), category);
+        }
+    }
+
+    // Generator without a database, for benchmarks that only need rows in memory
+    public static SkewedDataSeeder inMemory(long seed) {
+        return new SkewedDataSeeder(null, null, null, 0, seed);
+    }
+
+    @Override
+    public void run(String... args) {
+        if (transactionRepository == null || targetRows <= 0) {
+            return;
+        }
+        long existing = transactionRepository.count();
+        if (existing >= targetRows) {
+            return;
+        }
+        System.out.printf("Seeding %,d transactions (have %,d)%n", targetRows - existing, existing);
+        while (existing < targetRows) {
+            List<Transaction> chunk = generate((int) Math.min(CHUNK_SIZE, targetRows - existing));
+            transactionTemplate.executeWithoutResult(status -> bulkRepository.insertAll(chunk));
+            existing += chunk.size();
+            if (existing % 1_000_000 == 0) {
+                System.out.printf("  %,d rows%n", existing);
+            }
+        }
+    }
+
+    public List<Transaction> generate(int count) {
+        List<Transaction> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(next());
+        }
+        return rows;
+    }
+
+    public Transaction next() {
+        LocalDate date = nextDate();
+        String paymentMethod = PAYMENT_METHODS[paymentSampler.sample(random)];
+        String note = random.nextDouble() < 0.3 ? NOTES[random.nextInt(NOTES.length)] : "";
+        if (random.nextDouble() < INCOME_SHARE) {
+            Category category = INCOME_CATEGORIES[incomeSampler.sample(random)];
+            String merchant = category.brands()[random.nextInt(category.brands().length)];
+            return buildTransaction(date, category.descriptions()[0], category.name(), merchant,
+                    category.descriptions()[0], "Income", "Bank Transfer", note, amount(category));
+        }
+        Merchant merchant = merchants[merchantSampler.sample(random)];
+        Category category = merchant.category();
+        String description = category.descriptions()[random.nextInt(category.descriptions().length)];
+        return buildTransaction(date, description + " at " + merchant.name(), category.name(), merchant.name(),
+                description, "Expense", paymentMethod, note, amount(category));
+    }
+
+    // Log-normal around the category's median, in cents
+    private String amount(Category category) {
+        double value = category.medianAmount() * Math.exp(category.sigma() * random.nextGaussian());
+        BigDecimal amount = BigDecimal.valueOf(Math.max(0.01, value)).setScale(2, RoundingMode.HALF_UP);
+        return amount.min(MAX_AMOUNT).toPlainString();
+    }
+
+    // Uniform over the date range, thinned so weekends weigh 1.4 and December 1.3
+    private LocalDate nextDate() {
+        while (true) {
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(dayCount));
+            double weight = 1.0;
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= 1.4;
+            }
+            if (date.getMonth() == Month.DECEMBER) {
+                weight *= 1.3;
+            }
+            if (random.nextDouble() * 1.82 < weight) {
+                return date;
+            }
+        }
+    }
+
+    // Samples index i with probability proportional to 1 / (i + 1)^exponent
+    static final class ZipfSampler {
+        private final CumulativeSampler sampler;
+
+        ZipfSampler(int size, double exponent) {
+            double[] weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = 1.0 / Math.pow(i + 1, exponent);
+            }
+            sampler = new CumulativeSampler(weights);
+        }
+
+        int sample(Random random) {
+            return sampler.sample(random);
+        }
+    }
+
+    // Samples an index in proportion to the given weights
+    static final class CumulativeSampler {
+        private final double[] cumulative;
+
+        CumulativeSampler(double[] weights) {
+            cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+
+        int sample(Random random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.findash.benchmarks;
+
+import com.findash.dto.AggregateDimension;
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.AggregateRow;
+import com.findash.repository.TransactionAggregateRepository;
+import com.findash.service.TransactionSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Grouped aggregates from SQLite against the same aggregates from the in-memory snapshot:
+// by type only, by category and month, and a partial-month range filtered on one category.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SnapshotBenchmark {
+
+    private static final Set<AggregateDimension> BY_TYPE = EnumSet.noneOf(AggregateDimension.class);
+    private static final Set<AggregateDimension> BY_CATEGORY_MONTH =
+            EnumSet.of(AggregateDimension.CATEGORY, AggregateDimension.MONTH);
+    private static final AggregateFilter PARTIAL_MONTHS_ONE_CATEGORY =
+            new AggregateFilter(LocalDate.of(2025, 3, 15), LocalDate.of(2025, 5, 14), "Food & Dining");
+
+    @Param({"10000", "1000000", "10000000"})
+    private long rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionAggregateRepository aggregateRepository;
+    private TransactionSnapshot snapshot;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkContext.start("findash-" + rows + ".db", rows, "--findash.snapshot.enabled=true");
+        aggregateRepository = context.getBean(TransactionAggregateRepository.class);
+        snapshot = context.getBean(TransactionSnapshot.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        // ApplicationReadyEvent is only published once run() returns, so the load may still be going
+        while (!snapshot.isReady()) {
+            Thread.sleep(50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AggregateRow> sqlByType() {
+        return readOnly.execute(status -> aggregateRepository.aggregate(BY_TYPE, AggregateFilter.NONE));
+    }
+
+    @Benchmark
+    public List<AggregateRow> snapshotByType() {
+        return snapshot.aggregate(BY_TYPE, AggregateFilter.NONE).orElseThrow();
+    }
+
+    @Benchmark
+    public List<AggregateRow> sqlByCategoryAndMonth() {
+        return readOnly.execute(status -> aggregateRepository.aggregate(BY_CATEGORY_MONTH, AggregateFilter.NONE));
+    }
+
+    @Benchmark
+    public List<AggregateRow> snapshotByCategoryAndMonth() {
+        return snapshot.aggregate(BY_CATEGORY_MONTH, AggregateFilter.NONE).orElseThrow();
+    }
+
+    @Benchmark
+    public List<AggregateRow> sqlFiltered() {
+        return readOnly.execute(status -> aggregateRepository.aggregate(BY_TYPE, PARTIAL_MONTHS_ONE_CATEGORY));
+    }
+
+    @Benchmark
+    public List<AggregateRow> snapshotFiltered() {
+        return snapshot.aggregate(BY_TYPE, PARTIAL_MONTHS_ONE_CATEGORY).orElseThrow();
+    }
+}
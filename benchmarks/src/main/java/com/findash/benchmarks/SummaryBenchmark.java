@@ -0,0 +1,59 @@
+package com.findash.benchmarks;
+
+import com.findash.dto.AggregateFilter;
+import com.findash.dto.TransactionSummary;
+import com.findash.model.Money;
+import com.findash.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// The summary path through TransactionService with the read cache off: the per-type total,
+// a whole-year summary (served from rollups) and a mid-month range (scans the live table).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SummaryBenchmark {
+
+    private static final AggregateFilter WHOLE_YEAR =
+            new AggregateFilter(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null);
+    private static final AggregateFilter PARTIAL_MONTHS =
+            new AggregateFilter(LocalDate.of(2025, 3, 15), LocalDate.of(2025, 5, 14), null);
+
+    @Param({"10000", "1000000", "10000000"})
+    private long rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Money totalByType() {
+        return transactionService.getTotalByType("Expense");
+    }
+
+    @Benchmark
+    public TransactionSummary summaryWholeYear() {
+        return transactionService.getSummary(WHOLE_YEAR);
+    }
+
+    @Benchmark
+    public TransactionSummary summaryPartialMonths() {
+        return transactionService.getSummary(PARTIAL_MONTHS);
+    }
+}
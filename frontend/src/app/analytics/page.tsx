@@ -14,16 +14,12 @@ import {
   ResponsiveContainer,
 } from "recharts";
 
-type Transaction = {
-  id: number;
-  date: string; // ISO yyyy-mm-dd
-  description: string;
-  category: string;
-  merchant: string;
-  amount: number;
+type AggregateRow = {
   type: string; // "Income" | "Expense"
-  paymentMethod?: string;
-  notes?: string;
+  category?: string;
+  month?: string; // yyyy-mm
+  count: number;
+  total: number;
 };
 
 export default function AnalyticsPage() {
@@ -33,45 +29,43 @@ export default function AnalyticsPage() {
   const [error, setError] = useState<string | null>(null);
 
   useEffect(() => {
-    const fetchTransactions = async () => {
+    const fetchAnalytics = async () => {
       setLoading(true);
       setError(null);
       try {
-        const res = await fetch("http://localhost:8080/api/transactions");
-        if (!res.ok) throw new Error(`API error: ${res.status}`);
-        const data: Transaction[] = await res.json();
-
-        // Aggregate monthly income/expenses (group by YYYY-MM)
+        // Read the backend's precomputed rollups; only one row per month/category comes back
+        const [monthRes, categoryRes] = await Promise.all([
+          fetch("http://localhost:8080/api/rollups?groupBy=month"),
+          fetch("http://localhost:8080/api/rollups?groupBy=category"),
+        ]);
+        if (!monthRes.ok) throw new Error(`API error: ${monthRes.status}`);
+        if (!categoryRes.ok) throw new Error(`API error: ${categoryRes.status}`);
+        const byMonth: AggregateRow[] = await monthRes.json();
+        const byCategory: AggregateRow[] = await categoryRes.json();
+
+        // Monthly income/expenses (group by YYYY-MM)
         const monthMap = new Map<string, { month: string; income: number; expenses: number }>();
-
-        const categoryMap = new Map<string, number>();
-
-        data.forEach((tx) => {
-          const month = tx.date?.slice(0, 7) ?? "unknown"; // YYYY-MM
-
+        byMonth.forEach((row) => {
+          const month = row.month ?? "unknown";
           if (!monthMap.has(month)) {
             monthMap.set(month, { month, income: 0, expenses: 0 });
           }
           const entry = monthMap.get(month)!;
-
-          const amt = Number(tx.amount) || 0;
-          if (tx.type && tx.type.toLowerCase() === "income") {
+          const amt = Number(row.total) || 0;
+          if (row.type && row.type.toLowerCase() === "income") {
             entry.income += amt;
           } else {
             entry.expenses += amt;
-
-            // aggregate by category for expenses
-            const cat = tx.category || "Uncategorized";
-            categoryMap.set(cat, (categoryMap.get(cat) || 0) + amt);
           }
         });
 
         // Sort months ascending
         const months = Array.from(monthMap.values()).sort((a, b) => (a.month > b.month ? 1 : -1));
 
-        // Convert category map to array and sort by value desc
-        const categories = Array.from(categoryMap.entries())
-          .map(([category, value]) => ({ category, value }))
+        // Expense totals by category, sorted by value desc
+        const categories = byCategory
+          .filter((row) => !(row.type && row.type.toLowerCase() === "income"))
+          .map((row) => ({ category: row.category || "Uncategorized", value: Number(row.total) || 0 }))
           .sort((a, b) => b.value - a.value);
 
         setIncomeExpensesData(months);
@@ -83,7 +77,7 @@ export default function AnalyticsPage() {
       }
     };
 
-    fetchTransactions();
+    fetchAnalytics();
   }, []);
 
   return (
@@ -1,6 +1,6 @@
 "use client";
 
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import { Button } from "@/components/ui/button";
 import { Input } from "@/components/ui/input";
 import { Label } from "@/components/ui/label";
@@ -12,6 +12,24 @@ interface CategoryBudget {
   limit: number;
 }
 
+interface CategoryBudgetStatus {
+  category: string;
+  limit: number;
+  spent: number;
+  percentUsed: number;
+  overBudget: boolean;
+}
+
+interface BudgetStatus {
+  goalId: number;
+  saved: number;
+  savingsProgress: number;
+  savedToDate: number;
+  categories: CategoryBudgetStatus[];
+}
+
+const API = "http://localhost:8080/api/budgets";
+
 export default function BudgetGoals() {
   const [monthlyIncome, setMonthlyIncome] = useState("3500");
   const [savingsGoal, setSavingsGoal] = useState("700");
@@ -27,22 +45,77 @@ export default function BudgetGoals() {
     { category: "Bills & Utilities", limit: 0 },
   ]);
 
+  const [goalId, setGoalId] = useState<number | null>(null);
+  const [status, setStatus] = useState<BudgetStatus | null>(null);
+
+  // Spend per category and savings progress for this month, computed by the backend from rollups
+  const fetchStatus = async (id: number) => {
+    const res = await fetch(`${API}/status`);
+    if (!res.ok) return;
+    const statuses: BudgetStatus[] = await res.json();
+    setStatus(statuses.find((s) => s.goalId === id) ?? null);
+  };
+
+  useEffect(() => {
+    const fetchGoal = async () => {
+      try {
+        const res = await fetch(API);
+        if (!res.ok) throw new Error(`API error: ${res.status}`);
+        const goals = await res.json();
+        if (goals.length === 0) return;
+        const goal = goals[0];
+        setGoalId(goal.id);
+        setMonthlyIncome(String(goal.monthlyIncome));
+        setSavingsGoal(String(goal.savingsGoal));
+        setTargetDate(goal.targetDate ?? "");
+        setSavingPurpose(goal.savingPurpose ?? "");
+        // Keep the default categories and fill in the limits that were saved
+        setCategoryBudgets((current) => {
+          const saved = new Map<string, number>(
+            goal.categoryBudgets.map((b: CategoryBudget) => [b.category, Number(b.limit)])
+          );
+          const merged = current.map((b) => ({ ...b, limit: saved.get(b.category) ?? b.limit }));
+          saved.forEach((limit, category) => {
+            if (!merged.some((b) => b.category === category)) merged.push({ category, limit });
+          });
+          return merged;
+        });
+        await fetchStatus(goal.id);
+      } catch (error) {
+        console.error("Error loading budget:", error);
+      }
+    };
+    fetchGoal();
+  }, []);
+
   const handleCategoryLimitChange = (index: number, value: string) => {
     const updated = [...categoryBudgets];
     updated[index].limit = Number(value);
     setCategoryBudgets(updated);
   };
 
-  const handleUpdateBudget = () => {
+  const handleUpdateBudget = async () => {
     const budgetData = {
-      monthlyIncome,
-      savingsGoal,
-      targetDate,
+      monthlyIncome: Number(monthlyIncome),
+      savingsGoal: Number(savingsGoal),
+      targetDate: targetDate || null,
       savingPurpose,
-      categoryBudgets: categoryBudgets
+      // A limit of 0 means the category is not budgeted
+      categoryBudgets: categoryBudgets.filter((b) => b.limit > 0),
     };
-    // For development: log budget data to console. Replace with user feedback in production.
-    console.log("Budget updated:", budgetData);
+    try {
+      const res = await fetch(goalId ? `${API}/${goalId}` : API, {
+        method: goalId ? "PUT" : "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify(budgetData),
+      });
+      if (!res.ok) throw new Error(`Failed to save budget: ${res.status}`);
+      const saved = await res.json();
+      setGoalId(saved.id);
+      await fetchStatus(saved.id);
+    } catch (error) {
+      console.error("Error saving budget:", error);
+    }
   };
 
   return (
@@ -116,6 +189,13 @@ export default function BudgetGoals() {
                   />
                 </div>
 
+                {status && (
+                  <p className="text-sm text-gray-600">
+                    Saved ${status.saved.toFixed(2)} this month ({status.savingsProgress}% of goal),
+                    ${status.savedToDate.toFixed(2)} to date
+                  </p>
+                )}
+
                 <Button
                   onClick={handleUpdateBudget}
                   className="w-full bg-green-600 hover:bg-green-700 text-white py-6 text-base font-medium"
@@ -149,6 +229,14 @@ export default function BudgetGoals() {
                     >
                       {category.category}
                     </Label>
+                    {(() => {
+                      const spend = status?.categories.find((c) => c.category === category.category);
+                      return spend ? (
+                        <span className={`text-sm ${spend.overBudget ? "text-red-600" : "text-gray-500"}`}>
+                          ${spend.spent.toFixed(2)} spent ({spend.percentUsed}%)
+                        </span>
+                      ) : null;
+                    })()}
                     <Input
                       id={`category-${index}`}
                       type="number"
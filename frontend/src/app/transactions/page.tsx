@@ -52,6 +52,7 @@ const Transactions: React.FC = () => {
   const [searchQuery, setSearchQuery] = useState<string>("");
   const [deleteDialogOpen, setDeleteDialogOpen] = useState<boolean>(false);
   const [transactionToDelete, setTransactionToDelete] = useState<Transaction | null>(null);
+  const [selectedIds, setSelectedIds] = useState<Set<number>>(new Set());
 
   const fetchTransactions = async () => {
     setLoading(true);
@@ -71,6 +72,7 @@ const Transactions: React.FC = () => {
         return dateB - dateA;
       });
       setTransactions(sortedList);
+      setSelectedIds(new Set());
     } catch (err: any) {
       setError(err?.message ?? "Unknown error");
     } finally {
@@ -87,12 +89,33 @@ const Transactions: React.FC = () => {
     setDeleteDialogOpen(true);
   };
 
+  const handleDeleteSelectedClick = () => {
+    setTransactionToDelete(null);
+    setDeleteDialogOpen(true);
+  };
+
+  const toggleSelected = (id: number) => {
+    setSelectedIds((current) => {
+      const next = new Set(current);
+      if (next.has(id)) {
+        next.delete(id);
+      } else {
+        next.add(id);
+      }
+      return next;
+    });
+  };
+
+  // One request for any number of rows; the server deletes them in a single transaction
   const handleDeleteConfirm = async () => {
-    if (!transactionToDelete?.id) return;
-    
+    const ids = transactionToDelete?.id ? [transactionToDelete.id] : Array.from(selectedIds);
+    if (ids.length === 0) return;
+
     try {
-      const res = await fetch(`http://localhost:8080/api/transactions/${transactionToDelete.id}`, {
-        method: "DELETE",
+      const res = await fetch("http://localhost:8080/api/transactions/bulk-delete", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ ids }),
       });
 
       if (!res.ok) throw new Error(`Failed to delete: ${res.status}`);
@@ -112,6 +135,24 @@ const Transactions: React.FC = () => {
     setTransactionToDelete(null);
   };
 
+  const handleRecategorizeSelected = async (category: string) => {
+    if (selectedIds.size === 0) return;
+
+    try {
+      const res = await fetch("http://localhost:8080/api/transactions/bulk-update", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ where: { ids: Array.from(selectedIds) }, set: { category } }),
+      });
+
+      if (!res.ok) throw new Error(`Failed to update: ${res.status}`);
+
+      await fetchTransactions();
+    } catch (err: any) {
+      setError(err?.message ?? "Failed to update transactions");
+    }
+  };
+
   const parseAmount = (amt: any) => {
     if (typeof amt === "number") return amt;
     if (!amt) return 0;
@@ -120,6 +161,16 @@ const Transactions: React.FC = () => {
     return Number.isFinite(n) ? n : 0;
   };
 
+  const categories = [
+    "Shopping",
+    "Food & Dining",
+    "Entertainment",
+    "Transportation",
+    "Education",
+    "Healthcare",
+    "Bills & Utilities",
+  ];
+
   // Filter transactions based on selected type, category, and search query
   const filteredTransactions = transactions.filter((transaction) => {
     // Filter by type
@@ -201,34 +252,42 @@ const Transactions: React.FC = () => {
             <DropdownMenuItem onClick={() => setSelectedCategory("All Categories")}>
               All Categories
             </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Shopping")}>
-              Shopping
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Food & Dining")}>
-              Food & Dining
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Entertainment")}>
-              Entertainment
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Transportation")}>
-              Transportation
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Education")}>
-              Education
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Healthcare")}>
-              Healthcare
-            </DropdownMenuItem>
-            <DropdownMenuItem onClick={() => setSelectedCategory("Bills & Utilities")}>
-              Bills & Utilities
-            </DropdownMenuItem>
+            {categories.map((category) => (
+              <DropdownMenuItem key={category} onClick={() => setSelectedCategory(category)}>
+                {category}
+              </DropdownMenuItem>
+            ))}
           </DropdownMenuContent>
         </DropdownMenu>
       </div>
+      {selectedIds.size > 0 && (
+        <div className="flex gap-2 items-center w-full mt-4">
+          <span className="text-sm text-gray-600">{selectedIds.size} selected</span>
+          <DropdownMenu>
+            <DropdownMenuTrigger className="flex items-center gap-2 px-3 py-1 border border-gray-300 rounded-lg shadow-sm whitespace-nowrap text-sm">
+              Set category <ChevronDownIcon className="w-4 h-4" />
+            </DropdownMenuTrigger>
+            <DropdownMenuContent>
+              {categories.map((category) => (
+                <DropdownMenuItem key={category} onClick={() => handleRecategorizeSelected(category)}>
+                  {category}
+                </DropdownMenuItem>
+              ))}
+            </DropdownMenuContent>
+          </DropdownMenu>
+          <Button variant="destructive" size="sm" onClick={handleDeleteSelectedClick}>
+            Delete selected
+          </Button>
+          <Button variant="outline" size="sm" onClick={() => setSelectedIds(new Set())}>
+            Clear
+          </Button>
+        </div>
+      )}
       <Table className="table-auto">
         <TableCaption>Transaction History</TableCaption>
         <TableHeader>
           <TableRow>
+            <TableHead className="w-[40px]"></TableHead>
             <TableHead className="w-auto whitespace-nowrap">Date</TableHead>
             <TableHead>Description</TableHead>
             <TableHead>Category</TableHead>
@@ -241,6 +300,14 @@ const Transactions: React.FC = () => {
         <TableBody>
           {filteredTransactions.map((transaction, index) => (
             <TableRow key={index}>
+              <TableCell>
+                <input
+                  type="checkbox"
+                  checked={transaction.id !== undefined && selectedIds.has(transaction.id)}
+                  onChange={() => transaction.id !== undefined && toggleSelected(transaction.id)}
+                  aria-label="Select transaction"
+                />
+              </TableCell>
               <TableCell className="font-medium">{transaction.date}</TableCell>
               <TableCell>{transaction.description}</TableCell>
               <TableCell>{transaction.category}</TableCell>
@@ -261,7 +328,7 @@ const Transactions: React.FC = () => {
         </TableBody>
         <TableFooter>
           <TableRow>
-            <TableCell colSpan={5}>Total</TableCell>
+            <TableCell colSpan={6}>Total</TableCell>
             <TableCell className="text-right">{formattedTotal}</TableCell>
           </TableRow>
         </TableFooter>
@@ -271,9 +338,11 @@ const Transactions: React.FC = () => {
       <Dialog open={deleteDialogOpen} onOpenChange={setDeleteDialogOpen}>
         <DialogContent>
           <DialogHeader>
-            <DialogTitle>Delete Transaction</DialogTitle>
+            <DialogTitle>{transactionToDelete ? "Delete Transaction" : "Delete Transactions"}</DialogTitle>
             <DialogDescription>
-              Are you sure you want to delete this transaction? This action cannot be undone.
+              {transactionToDelete
+                ? "Are you sure you want to delete this transaction? This action cannot be undone."
+                : `Are you sure you want to delete ${selectedIds.size} transactions? This action cannot be undone.`}
             </DialogDescription>
           </DialogHeader>
           {transactionToDelete && (